@@ -1,9 +1,19 @@
 package minio.minio.minio.config;
 
 import lombok.Data;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.enums.FitMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Data
 @Component
@@ -14,6 +24,13 @@ public class MinioProperties {
     private String accessKey;
     private String secretKey;
     private Bucket bucket = new Bucket();
+    private Index index = new Index();
+    private Search search = new Search();
+    private Deletion deletion = new Deletion();
+    private Expiry expiry = new Expiry();
+    private Rendition rendition = new Rendition();
+    private Pdf pdf = new Pdf();
+    private Processing processing = new Processing();
 
     @Data
     public static class Bucket {
@@ -52,6 +69,302 @@ public class MinioProperties {
         public String getFiles() {
             return files;
         }
+
+        /**
+         * Bucket storing the files of a type
+         */
+        public String nameFor(FileType fileType) {
+            switch (fileType) {
+                case SONG:
+                    return getSongs();
+                case IMAGE:
+                    return getImages();
+                case VIDEO:
+                    return getVideos();
+                case PHOTO:
+                    return getPhotos();
+                case PDF:
+                case DOCUMENT:
+                    return getDocuments();
+                case ARCHIVE:
+                    return getArchives();
+                case FILE:
+                    return getFiles();
+                default:
+                    throw new IllegalArgumentException("Unknown file type: " + fileType);
+            }
+        }
+
+        /**
+         * All configured bucket names, without duplicates
+         */
+        public Set<String> distinctNames() {
+            return new LinkedHashSet<>(List.of(songs, images, videos, photos, documents, archives, files));
+        }
+    }
+
+    @Data
+    public static class Index {
+        /**
+         * Serve listings and counts from the local object index once a bucket has been reconciled
+         */
+        private boolean enabled = true;
+
+        /**
+         * Path of the index file on local disk
+         */
+        private String path = "data/object-index.mv.db";
+
+        /**
+         * Page cache of the index store, in MB
+         */
+        private int cacheSizeMb = 16;
+
+        /**
+         * Maximum time a query across all buckets waits for every bucket before it fails with 503
+         */
+        private Duration queryTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Search {
+        /**
+         * Index the text of PDF and document files for full-text search
+         */
+        private boolean enabled = true;
+
+        /**
+         * Directory of the full-text index on local disk
+         */
+        private String path = "data/search-index";
+
+        /**
+         * Pause between two files indexed by the backlog indexer, to bound its CPU usage
+         */
+        private Duration backlogPause = Duration.ofMillis(200);
+
+        /**
+         * Maximum number of characters indexed per page
+         */
+        private int maxPageLength = 100_000;
+
+        /**
+         * Maximum number of uploads waiting to be indexed
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    @Data
+    public static class Deletion {
+        /**
+         * Allow asynchronous deletes recorded in a local journal and drained in the background
+         */
+        private boolean enabled = true;
+
+        /**
+         * Path of the deletion journal on local disk
+         */
+        private String path = "data/delete-journal.mv.db";
+
+        /**
+         * Maximum number of keys per multi-object delete request, capped at the S3 limit of 1000
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Attempts before a deletion is moved to the failed journal
+         */
+        private int maxAttempts = 10;
+
+        /**
+         * Delay before the first retry, doubled on each attempt
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        /**
+         * Upper bound of the retry delay
+         */
+        private Duration maxBackoff = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Expiry {
+        /**
+         * Delete objects uploaded with a TTL once they have expired
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of expired objects deleted per sweep, to smooth the load on MinIO
+         */
+        private int maxDeletesPerSweep = 1000;
+
+        /**
+         * Minimum time between two sweeps of a bucket by full listing, used while its index is not ready
+         */
+        private Duration listingSweepInterval = Duration.ofMinutes(15);
+    }
+
+    @Data
+    public static class Rendition {
+        /**
+         * Bucket storing generated image renditions, keyed by source ETag and parameters
+         */
+        private String bucket = "file-service-renditions";
+
+        /**
+         * Largest width or height a rendition can be requested with
+         */
+        private int maxDimension = 4096;
+
+        /**
+         * Max-age of the Cache-Control header, renditions are immutable for a given source ETag
+         */
+        private Duration cacheMaxAge = Duration.ofDays(365);
+
+        /**
+         * Renditions generated in the background right after an upload, per file type
+         */
+        private Map<FileType, List<Preset>> presets = new EnumMap<>(FileType.class);
+
+        /**
+         * Number of background rendition workers, kept low so uploads and reads keep the CPU
+         */
+        private int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        /**
+         * Maximum number of renditions waiting to be generated
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Memory kept for the most requested PDF thumbnails, in front of the derived bucket
+         */
+        private DataSize thumbnailMemoryCache = DataSize.ofMegabytes(32);
+    }
+
+    @Data
+    public static class Pdf {
+        /**
+         * Main memory a loaded PDF may use for its buffers before spilling to a temp file
+         */
+        private DataSize maxMainMemoryPerDocument = DataSize.ofMegabytes(16);
+
+        /**
+         * Main memory shared by all PDF jobs running at the same time
+         */
+        private DataSize memoryBudget = DataSize.ofMegabytes(256);
+
+        /**
+         * Directory of the temp files holding PDFs being processed, the system temp directory if empty
+         */
+        private String tempDirectory;
+
+        /**
+         * Maximum time a PDF job waits for its share of the memory budget
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Size of the ranges fetched from MinIO when reading only parts of a stored PDF
+         */
+        private DataSize rangeBlockSize = DataSize.ofKilobytes(64);
+
+        /**
+         * Number of fetched ranges kept in memory per document
+         */
+        private int rangeCacheBlocks = 64;
+
+        /**
+         * Threads extracting page ranges of large PDFs in parallel, the number of cores if 0
+         */
+        private int textParallelism = 0;
+
+        /**
+         * Page count above which the text of a PDF is extracted in parallel page ranges
+         */
+        private int parallelTextThreshold = 64;
+
+        /**
+         * Pages extracted by each parallel task
+         */
+        private int pagesPerTextTask = 32;
+
+        /**
+         * Maximum time of a text extraction on the processing pool, longer than the default job timeout
+         * since large PDFs are the ones extracted in parallel
+         */
+        private Duration textTimeout = Duration.ofMinutes(5);
+
+        /**
+         * Parsed PDFs kept open for the following page renders of the same file, each holding its
+         * share of the memory budget, 0 to disable
+         */
+        private int documentCacheSize = 4;
+
+        /**
+         * Time after which an unused cached PDF is closed
+         */
+        private Duration documentCacheIdle = Duration.ofMinutes(1);
+
+        /**
+         * Groups of pages rendered at the same time for a multi-page thumbnail request
+         */
+        private int thumbnailParallelism = 4;
+
+        /**
+         * Maximum number of pages of a multi-page thumbnail request, longer ranges are rejected
+         */
+        private int maxThumbnailPages = 100;
+
+        /**
+         * Maximum size in pixels of a contact sheet, larger sheets are rejected
+         */
+        private long maxContactSheetPixels = 16_000_000;
+
+        /**
+         * Check the structure of uploaded PDFs (header, xref and trailer, page tree, encryption)
+         * and reject broken ones before they are stored
+         */
+        private boolean validateOnUpload = true;
+
+        /**
+         * Maximum time of the structural check of an uploaded PDF
+         */
+        private Duration validationTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Main memory the structural check of an uploaded PDF may use before spilling to a temp file
+         */
+        private DataSize validationMainMemory = DataSize.ofMegabytes(4);
+    }
+
+    @Data
+    public static class Processing {
+        /**
+         * Threads running CPU-heavy PDF and image jobs of requests, the number of cores if 0
+         */
+        private int workers = 0;
+
+        /**
+         * Jobs waiting for a worker before new ones are rejected with 503
+         */
+        private int queueCapacity = 64;
+
+        /**
+         * Maximum time a request waits for its job, queueing included, before it is cancelled
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Preset {
+        private String name;
+        private Integer width;
+        private Integer height;
+        private FitMode fit = FitMode.CONTAIN;
+        private String format = "jpeg";
+        private int quality = 85;
     }
 
     public String getEndpoint() {
@@ -0,0 +1,11 @@
+package minio.minio.minio.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Active les tâches de fond (réconciliation de l'index local, statistiques, file de suppression,
+    // expiration, backlog de recherche, cache PDF), chacune sur son thread via spring.task.scheduling.pool.size
+}
@@ -1,27 +1,57 @@
 package minio.minio.minio.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.dto.BucketStatistics;
+import minio.minio.minio.dto.BulkDeleteRequest;
+import minio.minio.minio.dto.BulkDeleteResponse;
 import minio.minio.minio.dto.FileDownloadResponse;
+import minio.minio.minio.dto.FileListPage;
 import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
+import minio.minio.minio.dto.FileSearchResponse;
 import minio.minio.minio.dto.FileUploadResponse;
+import minio.minio.minio.dto.ImageRendition;
+import minio.minio.minio.dto.ImageRenditionSpec;
+import minio.minio.minio.enums.FitMode;
 import minio.minio.minio.enums.FileType;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.service.ImageRenditionService;
+import minio.minio.minio.service.PdfThumbnailService;
 import minio.minio.minio.service.MinioService;
 import minio.minio.minio.service.PdfProcessingService;
 
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @RestController
 @RequestMapping("/api/files")
@@ -30,8 +60,17 @@ import java.util.List;
 @Tag(name = "File Management", description = "API pour la gestion des fichiers multimédias avec MinIO")
 public class MinioController {
 
+    private static final int MAX_LIMIT = 1000;
+    // Une page MinIO contient 1000 clés, dont une sert à détecter la page suivante
+    private static final int MAX_PAGE_LIMIT = 999;
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     private final MinioService minioService;
     private final PdfProcessingService pdfProcessingService;
+    private final FullTextSearchService fullTextSearchService;
+    private final ImageRenditionService imageRenditionService;
+    private final PdfThumbnailService pdfThumbnailService;
+    private final ObjectMapper objectMapper;
 
 
     @PostMapping(value = "/upload/{fileType}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -44,10 +83,14 @@ public class MinioController {
             @Parameter(description = "Fichier à uploader", required = true)
             @RequestParam("file") MultipartFile file,
             @Parameter(description = "Nom personnalisé pour le fichier (optionnel)")
-            @RequestParam(value = "customFileName", required = false) String customFileName) {
+            @RequestParam(value = "customFileName", required = false) String customFileName,
+            @Parameter(description = "Durée de vie en secondes : le fichier expire puis est supprimé automatiquement (optionnel)")
+            @RequestParam(value = "ttlSeconds", required = false) Long ttlSeconds) {
         
         log.info("Uploading file: {} of type: {}", file.getOriginalFilename(), fileType);
-        FileUploadResponse response = minioService.uploadFile(file, fileType, customFileName);
+        FileUploadResponse response = ttlSeconds != null
+                ? minioService.uploadFile(file, fileType, customFileName, Duration.ofSeconds(ttlSeconds))
+                : minioService.uploadFile(file, fileType, customFileName);
         return ResponseEntity.ok(response);
     }
     
@@ -86,6 +129,69 @@ public class MinioController {
                 .body(new InputStreamResource(response.getInputStream()));
     }
 
+    @GetMapping("/render/{fileType}/{fileName}")
+    @Operation(summary = "Redimensionner une image", description = "Retourne une version redimensionnée d'une image (IMAGE ou PHOTO), générée une fois puis servie depuis le cache de rendus")
+    @ApiResponse(responseCode = "200", description = "Image redimensionnée retournée avec succès")
+    @ApiResponse(responseCode = "304", description = "Le rendu en cache côté client est toujours valide")
+    @ApiResponse(responseCode = "400", description = "Paramètres de rendu invalides")
+    @ApiResponse(responseCode = "404", description = "Fichier non trouvé")
+    public ResponseEntity<InputStreamResource> renderImage(
+            @Parameter(description = "Type de fichier (IMAGE ou PHOTO)", required = true)
+            @PathVariable FileType fileType,
+            @Parameter(description = "Nom du fichier", required = true)
+            @PathVariable String fileName,
+            @Parameter(description = "Largeur en pixels")
+            @RequestParam(value = "width", required = false) Integer width,
+            @Parameter(description = "Hauteur en pixels")
+            @RequestParam(value = "height", required = false) Integer height,
+            @Parameter(description = "Mode d'ajustement : CONTAIN, COVER ou FILL")
+            @RequestParam(value = "fit", defaultValue = "CONTAIN") FitMode fit,
+            @Parameter(description = "Format de sortie : jpeg ou png")
+            @RequestParam(value = "format", defaultValue = "jpeg") String format,
+            @Parameter(description = "Qualité JPEG (1-100)")
+            @RequestParam(value = "quality", defaultValue = "85") int quality,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        log.info("Rendering image: {} of type: {}, {}x{} {}", fileName, fileType, width, height, fit);
+        ImageRenditionSpec spec = ImageRenditionSpec.builder()
+                .width(width)
+                .height(height)
+                .fit(fit)
+                .format(format)
+                .quality(quality)
+                .build();
+        ImageRendition rendition = imageRenditionService.getRendition(fileType, fileName, spec, ifNoneMatch);
+        CacheControl cacheControl = CacheControl.maxAge(rendition.getMaxAgeSeconds(), TimeUnit.SECONDS).cachePublic().immutable();
+        
+        if (rendition.isNotModified()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(rendition.getEtag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(rendition.getContentType()))
+                .eTag(rendition.getEtag())
+                .cacheControl(cacheControl);
+        if (rendition.getSize() != null) {
+            response.contentLength(rendition.getSize());
+        }
+        return response.body(new InputStreamResource(rendition.getInputStream()));
+    }
+
+    @PostMapping("/render/{fileType}/backfill")
+    @Operation(summary = "Générer les rendus existants", description = "Planifie en basse priorité la génération des rendus prédéfinis pour toutes les images déjà stockées")
+    @ApiResponse(responseCode = "202", description = "Génération planifiée")
+    @ApiResponse(responseCode = "400", description = "Type de fichier sans rendus")
+    public ResponseEntity<Map<String, Object>> backfillRenditions(
+            @Parameter(description = "Type de fichier (IMAGE ou PHOTO)", required = true)
+            @PathVariable FileType fileType) {
+        
+        log.info("Backfilling renditions of type: {}", fileType);
+        int queued = imageRenditionService.backfill(fileType);
+        return ResponseEntity.accepted().body(Map.of("fileType", fileType, "queued", queued));
+    }
+
     @GetMapping("/stream/{fileType}/{fileName}")
     @Operation(summary = "Streamer un fichier", description = "Streame un fichier depuis MinIO pour lecture directe")
     @ApiResponse(responseCode = "200", description = "Fichier streamé avec succès")
@@ -109,13 +215,23 @@ public class MinioController {
     @DeleteMapping("/{fileType}/{fileName}")
     @Operation(summary = "Supprimer un fichier", description = "Supprime un fichier de MinIO")
     @ApiResponse(responseCode = "200", description = "Fichier supprimé avec succès")
+    @ApiResponse(responseCode = "202", description = "Suppression planifiée (mode asynchrone)")
     @ApiResponse(responseCode = "404", description = "Fichier non trouvé")
     public ResponseEntity<String> deleteFile(
             @Parameter(description = "Type de fichier", required = true)
             @PathVariable FileType fileType,
             @Parameter(description = "Nom du fichier", required = true)
-            @PathVariable String fileName) {
+            @PathVariable String fileName,
+            @Parameter(description = "Suppression asynchrone : acquittée immédiatement, appliquée en arrière-plan")
+            @RequestParam(value = "async", defaultValue = "false") boolean async) {
         
+        if (async) {
+            log.info("Queueing deletion of file: {} of type: {}", fileName, fileType);
+            BulkDeleteResponse response = minioService.deleteFilesAsync(fileType, List.of(fileName));
+            return response.getQueued() > 0
+                    ? ResponseEntity.accepted().body("Suppression planifiée")
+                    : ResponseEntity.ok("Fichier supprimé avec succès");
+        }
         log.info("Deleting file: {} of type: {}", fileName, fileType);
         boolean deleted = minioService.deleteFile(fileName, fileType);
         
@@ -126,6 +242,30 @@ public class MinioController {
         }
     }
 
+    @PostMapping(value = "/delete/{fileType}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Supprimer plusieurs fichiers", description = "Supprime une liste de fichiers ou tous les fichiers d'un préfixe par lots de 1000, et retourne les erreurs par fichier")
+    @ApiResponse(responseCode = "200", description = "Suppression effectuée, voir les erreurs éventuelles par fichier")
+    @ApiResponse(responseCode = "202", description = "Suppressions planifiées (mode asynchrone)")
+    @ApiResponse(responseCode = "400", description = "Ni liste de fichiers ni préfixe, ou les deux")
+    public ResponseEntity<BulkDeleteResponse> deleteFiles(
+            @Parameter(description = "Type de fichier", required = true)
+            @PathVariable FileType fileType,
+            @RequestBody BulkDeleteRequest request,
+            @Parameter(description = "Suppression asynchrone (liste de fichiers uniquement)")
+            @RequestParam(value = "async", defaultValue = "false") boolean async) {
+        
+        if (async) {
+            if (request.getPrefix() != null) {
+                throw new IllegalArgumentException("Asynchronous delete only supports an explicit list of files");
+            }
+            BulkDeleteResponse response = minioService.deleteFilesAsync(fileType, request.getFileNames());
+            return response.getQueued() > 0 ? ResponseEntity.accepted().body(response) : ResponseEntity.ok(response);
+        }
+        log.info("Bulk deleting files of type: {}, names: {}, prefix: {}", fileType,
+                request.getFileNames() != null ? request.getFileNames().size() : 0, request.getPrefix());
+        return ResponseEntity.ok(minioService.deleteFiles(fileType, request.getFileNames(), request.getPrefix()));
+    }
+
     @GetMapping("/metadata/{fileType}/{fileName}")
     @Operation(summary = "Obtenir les métadonnées d'un fichier", description = "Récupère les métadonnées d'un fichier")
     @ApiResponse(responseCode = "200", description = "Métadonnées récupérées avec succès")
@@ -144,15 +284,155 @@ public class MinioController {
     @GetMapping("/list/{fileType}")
     @Operation(summary = "Lister les fichiers", description = "Liste tous les fichiers d'un type donné")
     @ApiResponse(responseCode = "200", description = "Liste des fichiers récupérée avec succès")
+    @ApiResponse(responseCode = "400", description = "Préfixe ou délimiteur sans taille de page")
     public ResponseEntity<List<FileMetadata>> listFiles(
             @Parameter(description = "Type de fichier", required = true)
-            @PathVariable FileType fileType) {
+            @PathVariable FileType fileType,
+            @Parameter(description = "Non supporté sans limit : utiliser le listing par page")
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @Parameter(description = "Non supporté sans limit : utiliser le listing par page")
+            @RequestParam(value = "delimiter", required = false) String delimiter) {
         
+        // Ignorer ces paramètres retournerait silencieusement tout le bucket
+        if (prefix != null || delimiter != null) {
+            throw new IllegalArgumentException("prefix and delimiter require a page size, use /list/" + fileType + "?limit=...");
+        }
         log.info("Listing files of type: {}", fileType);
         List<FileMetadata> files = minioService.listFiles(fileType);
         return ResponseEntity.ok(files);
     }
 
+    @GetMapping(value = "/list/{fileType}", params = "limit")
+    @Operation(summary = "Lister les fichiers par page", description = "Liste une page de fichiers triés par nom ; le curseur retourné permet d'obtenir la page suivante. Avec un délimiteur, seuls les enfants directs du préfixe sont retournés, les sous-dossiers étant regroupés en préfixes communs")
+    @ApiResponse(responseCode = "200", description = "Page de fichiers récupérée avec succès")
+    @ApiResponse(responseCode = "400", description = "Taille de page ou curseur invalide")
+    public ResponseEntity<FileListPage> listFilesPage(
+            @Parameter(description = "Type de fichier", required = true)
+            @PathVariable FileType fileType,
+            @Parameter(description = "Nombre maximum de fichiers par page (999 max)", required = true)
+            @RequestParam("limit") int limit,
+            @Parameter(description = "Curseur de continuation retourné par la page précédente")
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Préfixe (dossier) à lister, ex: albums/2024/")
+            @RequestParam(value = "prefix", required = false) String prefix,
+            @Parameter(description = "Délimiteur de dossiers, ex: / (listing récursif si absent)")
+            @RequestParam(value = "delimiter", required = false) String delimiter) {
+        
+        if (limit < 1 || limit > MAX_PAGE_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_LIMIT);
+        }
+        log.info("Listing page of files of type: {}, prefix: {}, limit: {}", fileType, prefix, limit);
+        return ResponseEntity.ok(minioService.listFiles(fileType, prefix, delimiter, cursor, limit));
+    }
+
+    @GetMapping(value = "/list/{fileType}/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Streamer la liste des fichiers", description = "Liste tous les fichiers d'un type donné en NDJSON (un objet JSON par ligne), en mémoire constante")
+    @ApiResponse(responseCode = "200", description = "Liste des fichiers streamée avec succès")
+    public ResponseEntity<StreamingResponseBody> streamFileList(
+            @Parameter(description = "Type de fichier", required = true)
+            @PathVariable FileType fileType) {
+        
+        log.info("Streaming file list of type: {}", fileType);
+        StreamingResponseBody body = outputStream -> {
+            long[] written = {0};
+            boolean[] disconnected = {false};
+            minioService.forEachFile(fileType, metadata -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(metadata));
+                    outputStream.write('\n');
+                    if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                        outputStream.flush();
+                    }
+                    return true;
+                } catch (IOException e) {
+                    // Client déconnecté : on arrête le listing MinIO
+                    disconnected[0] = true;
+                    return false;
+                }
+            });
+            if (disconnected[0]) {
+                log.info("Client disconnected while streaming file list of type: {} after {} files", fileType, written[0]);
+            } else {
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping("/query/{fileType}")
+    @Operation(summary = "Rechercher des fichiers par attributs", description = "Filtre (type de contenu, taille, date, préfixe ou motif de nom) et trie les fichiers d'un type donné côté serveur")
+    @ApiResponse(responseCode = "200", description = "Fichiers correspondants récupérés avec succès")
+    @ApiResponse(responseCode = "400", description = "Critères de recherche invalides")
+    public ResponseEntity<List<FileMetadata>> queryFiles(
+            @Parameter(description = "Type de fichier", required = true)
+            @PathVariable FileType fileType,
+            @ParameterObject @ModelAttribute FileQuery query) {
+        
+        if (query.getLimit() < 1 || query.getLimit() > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        log.info("Querying files of type: {} with {}", fileType, query);
+        return ResponseEntity.ok(minioService.queryFiles(fileType, query));
+    }
+
+    @GetMapping("/query")
+    @Operation(summary = "Rechercher des fichiers dans tous les buckets", description = "Interroge tous les buckets en parallèle avec les mêmes filtres et fusionne les résultats triés jusqu'à la limite globale")
+    @ApiResponse(responseCode = "200", description = "Fichiers correspondants récupérés avec succès")
+    @ApiResponse(responseCode = "400", description = "Critères de recherche invalides")
+    @ApiResponse(responseCode = "503", description = "Un bucket n'a pas répondu à temps")
+    public ResponseEntity<List<FileMetadata>> queryAllFiles(
+            @ParameterObject @ModelAttribute FileQuery query) {
+        
+        if (query.getLimit() < 1 || query.getLimit() > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        log.info("Querying files of all types with {}", query);
+        return ResponseEntity.ok(minioService.queryAllFiles(query));
+    }
+
+    @GetMapping("/count/{fileType}")
+    @Operation(summary = "Compter les fichiers", description = "Retourne le nombre de fichiers d'un type donné")
+    @ApiResponse(responseCode = "200", description = "Nombre de fichiers récupéré avec succès")
+    public ResponseEntity<Long> countFiles(
+            @Parameter(description = "Type de fichier", required = true)
+            @PathVariable FileType fileType) {
+        
+        log.info("Counting files of type: {}", fileType);
+        return ResponseEntity.ok(minioService.countFiles(fileType));
+    }
+
+    @GetMapping("/stats/{fileType}")
+    @Operation(summary = "Statistiques de stockage", description = "Retourne le nombre d'objets, la taille totale, la répartition par taille et par type de contenu du bucket d'un type de fichier")
+    @ApiResponse(responseCode = "200", description = "Statistiques récupérées avec succès")
+    public ResponseEntity<BucketStatistics> getStatistics(
+            @Parameter(description = "Type de fichier", required = true)
+            @PathVariable FileType fileType) {
+        
+        log.info("Getting storage statistics for type: {}", fileType);
+        return ResponseEntity.ok(minioService.getStatistics(fileType));
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Rechercher dans le contenu des documents", description = "Recherche plein texte dans les PDF et documents indexés, avec les pages correspondantes et des extraits")
+    @ApiResponse(responseCode = "200", description = "Résultats de recherche récupérés avec succès")
+    @ApiResponse(responseCode = "400", description = "Requête de recherche invalide")
+    public ResponseEntity<FileSearchResponse> searchFiles(
+            @Parameter(description = "Requête de recherche (syntaxe Lucene)", required = true)
+            @RequestParam("q") String query,
+            @Parameter(description = "Nombre maximum de fichiers retournés (1 à 1000)")
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        log.info("Searching files for: {}", query);
+        return ResponseEntity.ok(fullTextSearchService.search(query, limit));
+    }
+
     @GetMapping("/exists/{fileType}/{fileName}")
     @Operation(summary = "Vérifier l'existence d'un fichier", description = "Vérifie si un fichier existe dans MinIO")
     @ApiResponse(responseCode = "200", description = "Vérification effectuée avec succès")
@@ -200,60 +480,198 @@ public class MinioController {
     }
 
     @GetMapping("/pdf/thumbnail/{fileName}")
-    @Operation(summary = "Générer un thumbnail PDF", description = "Génère une image thumbnail de la première page d'un PDF")
+    @Operation(summary = "Générer un thumbnail PDF", description = "Génère une image thumbnail d'une page d'un PDF, la première par défaut")
     @ApiResponse(responseCode = "200", description = "Thumbnail généré avec succès")
+    @ApiResponse(responseCode = "304", description = "Le thumbnail en cache côté client est toujours valide")
     @ApiResponse(responseCode = "404", description = "Fichier PDF non trouvé")
     @ApiResponse(responseCode = "400", description = "Le fichier n'est pas un PDF valide")
     public ResponseEntity<byte[]> generatePdfThumbnail(
             @Parameter(description = "Nom du fichier PDF", required = true)
             @PathVariable String fileName,
+            @Parameter(description = "Numéro de la page (à partir de 1)")
+            @RequestParam(value = "page", defaultValue = "1") int page,
             @Parameter(description = "Largeur du thumbnail")
             @RequestParam(value = "width", defaultValue = "200") int width,
             @Parameter(description = "Hauteur du thumbnail")
-            @RequestParam(value = "height", defaultValue = "200") int height) {
+            @RequestParam(value = "height", defaultValue = "200") int height,
+            @Parameter(description = "Conserver les proportions de la page au lieu de l'étirer")
+            @RequestParam(value = "keepAspectRatio", defaultValue = "false") boolean keepAspectRatio,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
-        log.info("Generating PDF thumbnail for file: {}, size: {}x{}", fileName, width, height);
+        log.info("Generating PDF thumbnail for file: {}, page: {}, size: {}x{}", fileName, page, width, height);
         
         try {
-            byte[] fileContent = minioService.getFileContentAsBytes(fileName, FileType.PDF);
-            byte[] thumbnail = pdfProcessingService.generatePdfThumbnail(
-                new java.io.ByteArrayInputStream(fileContent), width, height);
+            ImageRendition thumbnail = pdfThumbnailService.getThumbnail(fileName, page, width, height, keepAspectRatio, ifNoneMatch);
+            CacheControl cacheControl = CacheControl.maxAge(thumbnail.getMaxAgeSeconds(), TimeUnit.SECONDS).cachePublic().immutable();
+            if (thumbnail.isNotModified()) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(thumbnail.getEtag())
+                        .cacheControl(cacheControl)
+                        .build();
+            }
             
             return ResponseEntity.ok()
                     .contentType(MediaType.IMAGE_PNG)
+                    .eTag(thumbnail.getEtag())
+                    .cacheControl(cacheControl)
                     .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "_thumbnail.png\"")
-                    .body(thumbnail);
+                    .body(thumbnail.getInputStream().readAllBytes());
                     
+        } catch (ProcessingUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error generating PDF thumbnail for {}: {}", fileName, e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping("/pdf/thumbnails/{fileName}")
+    @Operation(summary = "Générer les thumbnails d'une plage de pages", description = "Génère en parallèle les thumbnails d'une plage de pages d'un PDF à partir d'un seul téléchargement, retournés en archive ZIP ou en planche contact PNG")
+    @ApiResponse(responseCode = "200", description = "Thumbnails générés avec succès")
+    @ApiResponse(responseCode = "404", description = "Fichier PDF non trouvé")
+    @ApiResponse(responseCode = "400", description = "Plage de pages ou paramètres invalides")
+    @ApiResponse(responseCode = "503", description = "Trop de traitements en cours")
+    public ResponseEntity<StreamingResponseBody> generatePdfThumbnails(
+            @Parameter(description = "Nom du fichier PDF", required = true)
+            @PathVariable String fileName,
+            @Parameter(description = "Première page (à partir de 1)")
+            @RequestParam(value = "startPage", defaultValue = "1") int startPage,
+            @Parameter(description = "Dernière page, incluse (dernière page du document par défaut ; une plage plus longue que la limite par requête est refusée)")
+            @RequestParam(value = "endPage", required = false) Integer endPage,
+            @Parameter(description = "Largeur d'un thumbnail")
+            @RequestParam(value = "width", defaultValue = "200") int width,
+            @Parameter(description = "Hauteur d'un thumbnail")
+            @RequestParam(value = "height", defaultValue = "200") int height,
+            @Parameter(description = "Conserver les proportions des pages au lieu de les étirer (toujours le cas pour la planche contact)")
+            @RequestParam(value = "keepAspectRatio", defaultValue = "false") boolean keepAspectRatio,
+            @Parameter(description = "Format de la réponse : zip ou sprite")
+            @RequestParam(value = "format", defaultValue = "zip") String format,
+            @Parameter(description = "Nombre de thumbnails par ligne de la planche contact")
+            @RequestParam(value = "columns", defaultValue = "5") int columns) {
+        
+        int lastPage = endPage != null ? endPage : Integer.MAX_VALUE;
+        log.info("Generating PDF thumbnails for file: {}, pages: {}-{}, size: {}x{}, format: {}",
+                fileName, startPage, endPage, width, height, format);
+        
+        if ("sprite".equalsIgnoreCase(format)) {
+            byte[] sheet = pdfThumbnailService.getContactSheet(fileName, startPage, lastPage, width, height, columns);
+            StreamingResponseBody body = outputStream -> outputStream.write(sheet);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_PNG)
+                    .contentLength(sheet.length)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileName + "_pages.png\"")
+                    .body(body);
+        }
+        if (!"zip".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported format: " + format + ", expected zip or sprite");
+        }
+        
+        Map<Integer, byte[]> thumbnails = pdfThumbnailService.getThumbnails(fileName, startPage, lastPage, width, height, keepAspectRatio);
+        StreamingResponseBody body = outputStream -> {
+            try (ZipOutputStream zip = new ZipOutputStream(outputStream)) {
+                // Les PNG sont déjà compressés
+                zip.setLevel(Deflater.NO_COMPRESSION);
+                for (Map.Entry<Integer, byte[]> thumbnail : thumbnails.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(String.format("page-%04d.png", thumbnail.getKey())));
+                    zip.write(thumbnail.getValue());
+                    zip.closeEntry();
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "_thumbnails.zip\"")
+                .body(body);
+    }
+
     @GetMapping("/pdf/text/{fileName}")
-    @Operation(summary = "Extraire le texte d'un PDF", description = "Extrait tout le texte contenu dans un fichier PDF")
+    @Operation(summary = "Extraire le texte d'un PDF", description = "Extrait le texte contenu dans un fichier PDF, en entier ou sur une plage de pages")
     @ApiResponse(responseCode = "200", description = "Texte extrait avec succès")
     @ApiResponse(responseCode = "404", description = "Fichier PDF non trouvé")
-    @ApiResponse(responseCode = "400", description = "Le fichier n'est pas un PDF valide")
+    @ApiResponse(responseCode = "400", description = "Le fichier n'est pas un PDF valide ou la plage de pages est invalide")
     public ResponseEntity<String> extractPdfText(
             @Parameter(description = "Nom du fichier PDF", required = true)
-            @PathVariable String fileName) {
+            @PathVariable String fileName,
+            @Parameter(description = "Première page à extraire (à partir de 1)")
+            @RequestParam(value = "startPage", required = false) Integer startPage,
+            @Parameter(description = "Dernière page à extraire, incluse (dernière page du document par défaut)")
+            @RequestParam(value = "endPage", required = false) Integer endPage) {
         
-        log.info("Extracting text from PDF file: {}", fileName);
+        log.info("Extracting text from PDF file: {}, pages: {}-{}", fileName, startPage, endPage);
         
-        try {
-            byte[] fileContent = minioService.getFileContentAsBytes(fileName, FileType.PDF);
-            String text = pdfProcessingService.extractTextFromPdf(
-                new java.io.ByteArrayInputStream(fileContent));
+        int firstPage = startPage != null ? startPage : 1;
+        int lastPage = endPage != null ? endPage : Integer.MAX_VALUE;
+        if (startPage != null || endPage != null) {
+            validatePageRange(firstPage, lastPage);
+        }
+        
+        // Le PDF est copié du flux MinIO vers le fichier temporaire du loader, sans passer par le heap
+        try (InputStream inputStream = minioService.downloadFile(fileName, FileType.PDF).getInputStream()) {
+            String text = startPage == null && endPage == null
+                    ? pdfProcessingService.extractTextFromPdf(inputStream)
+                    : pdfProcessingService.extractTextFromPdf(inputStream, firstPage, lastPage);
             
             return ResponseEntity.ok()
                     .contentType(MediaType.TEXT_PLAIN)
                     .body(text);
                     
+        } catch (ProcessingUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error extracting text from PDF {}: {}", fileName, e.getMessage());
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @GetMapping(value = "/pdf/text/{fileName}", params = "stream=true")
+    @Operation(summary = "Streamer le texte d'un PDF", description = "Écrit le texte d'un fichier PDF dans la réponse page par page, au fil de l'extraction, en mémoire constante")
+    @ApiResponse(responseCode = "200", description = "Texte streamé avec succès")
+    @ApiResponse(responseCode = "404", description = "Fichier PDF non trouvé")
+    @ApiResponse(responseCode = "400", description = "Plage de pages invalide")
+    public ResponseEntity<StreamingResponseBody> streamPdfText(
+            @Parameter(description = "Nom du fichier PDF", required = true)
+            @PathVariable String fileName,
+            @Parameter(description = "Première page à extraire (à partir de 1)")
+            @RequestParam(value = "startPage", defaultValue = "1") int startPage,
+            @Parameter(description = "Dernière page à extraire, incluse (dernière page du document par défaut)")
+            @RequestParam(value = "endPage", required = false) Integer endPage) {
+        
+        int lastPage = endPage != null ? endPage : Integer.MAX_VALUE;
+        validatePageRange(startPage, lastPage);
+        log.info("Streaming text from PDF file: {}, pages: {}-{}", fileName, startPage, endPage);
+        
+        FileDownloadResponse download = minioService.downloadFile(fileName, FileType.PDF);
+        StreamingResponseBody body = outputStream -> {
+            try (InputStream inputStream = download.getInputStream()) {
+                Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+                int pages = pdfProcessingService.writeTextFromPdf(inputStream, startPage, lastPage, writer);
+                log.info("Streamed text of {} pages from PDF file: {}", pages, fileName);
+            } catch (MinioException e) {
+                // Statut déjà envoyé : client déconnecté ou PDF illisible en cours de route
+                log.warn("Text streaming of PDF {} interrupted: {}", fileName, e.getMessage());
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    @GetMapping("/pdf/page-count/{fileName}")
+    @Operation(summary = "Compter les pages d'un PDF", description = "Retourne le nombre de pages d'un PDF en ne téléchargeant que les parties du fichier nécessaires")
+    @ApiResponse(responseCode = "200", description = "Nombre de pages retourné avec succès")
+    @ApiResponse(responseCode = "404", description = "Fichier PDF non trouvé")
+    public ResponseEntity<Map<String, Object>> getPdfPageCount(
+            @Parameter(description = "Nom du fichier PDF", required = true)
+            @PathVariable String fileName) {
+        
+        log.info("Counting pages of PDF file: {}", fileName);
+        int pageCount = minioService.getPdfPageCount(fileName);
+        return ResponseEntity.ok(Map.of("fileName", fileName, "pageCount", pageCount));
+    }
+
+    private void validatePageRange(int startPage, int endPage) {
+        if (startPage < 1 || endPage < startPage) {
+            throw new IllegalArgumentException("Invalid page range: " + startPage + "-" + endPage);
+        }
+    }
 }
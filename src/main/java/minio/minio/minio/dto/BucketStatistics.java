@@ -0,0 +1,31 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BucketStatistics {
+    private String bucketName;
+    private long objectCount;
+    private long totalBytes;
+    private Map<String, Long> sizeHistogram; // nombre d'objets par tranche de taille (borne supérieure incluse)
+    private Map<String, ContentTypeUsage> contentTypes;
+    private LocalDateTime reconciledAt;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ContentTypeUsage {
+        private long objectCount;
+        private long totalBytes;
+    }
+}
@@ -0,0 +1,20 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Objects to delete in one call: either an explicit list of names or every object under a prefix
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+    private List<String> fileNames;
+    private String prefix;
+}
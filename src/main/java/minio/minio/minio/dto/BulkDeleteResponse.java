@@ -0,0 +1,30 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResponse {
+    private long requested;
+    private long deleted;
+    private long queued; // suppressions acceptées en mode asynchrone, appliquées en arrière-plan
+    private long tookMs;
+    private List<DeleteError> errors;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeleteError {
+        private String fileName;
+        private String code;
+        private String message;
+    }
+}
@@ -0,0 +1,20 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileListPage {
+    private String prefix;
+    private List<String> commonPrefixes; // "sub-folders" when listing with a delimiter
+    private List<FileMetadata> items;
+    private String nextCursor; // null on the last page
+    private boolean truncated;
+}
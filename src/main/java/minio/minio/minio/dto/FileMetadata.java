@@ -20,6 +20,7 @@ public class FileMetadata {
     private LocalDateTime createdAt;
     private LocalDateTime lastModified;
     private String etag;
+    private LocalDateTime expiresAt; // null si l'objet n'expire pas
     
     // PDF and document specific metadata
     private Integer pageCount;
@@ -35,6 +36,8 @@ public class FileMetadata {
     private Integer width;
     private Integer height;
     private String colorSpace;
+    private String placeholder; // BlurHash
+    private String dominantColor; // #rrggbb
     
     // General metadata
     private String description;
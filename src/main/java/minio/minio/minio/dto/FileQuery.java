@@ -0,0 +1,55 @@
+package minio.minio.minio.dto;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import minio.minio.minio.enums.FileSortField;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side filters and sort of a file listing. Null criteria are ignored.
+ * Bound from the query parameters of the query endpoints.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileQuery {
+    @Parameter(description = "Type de contenu exact ou générique (ex: image/*)")
+    private String contentType;
+
+    @Parameter(description = "Taille minimale en octets")
+    private Long minSize;
+
+    @Parameter(description = "Taille maximale en octets")
+    private Long maxSize;
+
+    @Parameter(description = "Modifiés après cette date (ISO-8601)")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime modifiedAfter;
+
+    @Parameter(description = "Modifiés avant cette date (ISO-8601)")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime modifiedBefore;
+
+    @Parameter(description = "Préfixe du nom de fichier")
+    private String prefix;
+
+    @Parameter(description = "Motif du nom de fichier (* et ?)")
+    private String glob;
+
+    @Parameter(description = "Clé de tri")
+    @Builder.Default
+    private FileSortField sort = FileSortField.NAME;
+
+    @Parameter(description = "Tri décroissant")
+    private boolean descending;
+
+    @Parameter(description = "Nombre maximum de résultats (1000 max), tous buckets confondus pour une recherche globale")
+    @Builder.Default
+    private int limit = 100;
+}
@@ -0,0 +1,19 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileSearchResponse {
+    private String query;
+    private long totalHits;
+    private long tookMs;
+    private List<FileSearchResult> results;
+}
@@ -0,0 +1,30 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileSearchResult {
+    private String fileName;
+    private String bucketName;
+    private String contentType;
+    private float score;
+    private List<PageHit> hits;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PageHit {
+        private int page; // 1-based, 0 when the document has no pages
+        private float score;
+        private String snippet;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Data
 @Builder
@@ -20,4 +21,8 @@ public class FileUploadResponse {
     private String contentType;
     private LocalDateTime uploadedAt;
     private String fileId;
+    private LocalDateTime expiresAt;
+    private String placeholder;
+    private String dominantColor;
+    private Map<String, String> renditions;
 }
@@ -0,0 +1,18 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Placeholder shown by clients while an image loads
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImagePlaceholder {
+    private String blurhash;
+    private String dominantColor; // #rrggbb
+}
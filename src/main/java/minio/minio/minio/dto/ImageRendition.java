@@ -0,0 +1,21 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.InputStream;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageRendition {
+    private InputStream inputStream; // null when notModified
+    private String contentType;
+    private Long size;
+    private String etag;
+    private long maxAgeSeconds;
+    private boolean notModified;
+}
@@ -0,0 +1,28 @@
+package minio.minio.minio.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import minio.minio.minio.enums.FitMode;
+
+/**
+ * Parameters of an image rendition. A missing width or height is derived from the aspect ratio.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageRenditionSpec {
+    private Integer width;
+    private Integer height;
+
+    @Builder.Default
+    private FitMode fit = FitMode.CONTAIN;
+
+    @Builder.Default
+    private String format = "jpeg";
+
+    @Builder.Default
+    private int quality = 85;
+}
@@ -0,0 +1,10 @@
+package minio.minio.minio.enums;
+
+/**
+ * Sort keys supported by indexed file queries
+ */
+public enum FileSortField {
+    NAME,
+    SIZE,
+    LAST_MODIFIED
+}
@@ -73,6 +73,13 @@ public enum FileType {
         return false;
     }
     
+    /**
+     * Check if the text content of this file type is indexed for full-text search
+     */
+    public boolean isTextSearchable() {
+        return this == PDF || this == DOCUMENT;
+    }
+    
     /**
      * Get the maximum file size allowed for this file type (in bytes)
      */
@@ -0,0 +1,10 @@
+package minio.minio.minio.enums;
+
+/**
+ * How an image is fitted into the requested width and height
+ */
+public enum FitMode {
+    CONTAIN, // fits inside the box, keeps the aspect ratio, never upscales
+    COVER,   // fills the box, keeps the aspect ratio, crops the overflow
+    FILL     // stretched to the exact box
+}
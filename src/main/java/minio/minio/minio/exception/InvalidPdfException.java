@@ -0,0 +1,11 @@
+package minio.minio.minio.exception;
+
+public class InvalidPdfException extends MinioException {
+    public InvalidPdfException(String message) {
+        super("Invalid PDF: " + message);
+    }
+
+    public InvalidPdfException(String message, Throwable cause) {
+        super("Invalid PDF: " + message, cause);
+    }
+}
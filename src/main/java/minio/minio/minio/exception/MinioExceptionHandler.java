@@ -28,6 +28,18 @@ public class MinioExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "INVALID_FILE_TYPE", ex.getMessage());
     }
 
+    @ExceptionHandler(InvalidPdfException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidPdfException(InvalidPdfException ex) {
+        log.warn("Invalid PDF: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.BAD_REQUEST, "INVALID_PDF", ex.getMessage());
+    }
+
+    @ExceptionHandler(ProcessingUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleProcessingUnavailableException(ProcessingUnavailableException ex) {
+        log.warn("Processing unavailable: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "PROCESSING_UNAVAILABLE", ex.getMessage());
+    }
+
     @ExceptionHandler(MinioException.class)
     public ResponseEntity<Map<String, Object>> handleMinioException(MinioException ex) {
         log.error("MinIO error: {}", ex.getMessage(), ex);
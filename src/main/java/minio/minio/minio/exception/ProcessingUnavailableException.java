@@ -0,0 +1,11 @@
+package minio.minio.minio.exception;
+
+public class ProcessingUnavailableException extends MinioException {
+    public ProcessingUnavailableException(String message) {
+        super(message);
+    }
+
+    public ProcessingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package minio.minio.minio.exception;
+
+/**
+ * The source object was overwritten between the stat that gave its ETag and the read of its
+ * content, so that anything derived from it must not be stored under that ETag
+ */
+public class SourceChangedException extends MinioException {
+    public SourceChangedException(String fileName) {
+        super("File changed while it was being read: " + fileName);
+    }
+}
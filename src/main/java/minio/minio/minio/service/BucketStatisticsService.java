@@ -0,0 +1,59 @@
+package minio.minio.minio.service;
+
+import minio.minio.minio.dto.BucketStatistics;
+import minio.minio.minio.dto.FileMetadata;
+
+import java.util.Iterator;
+
+/**
+ * Storage usage per bucket, maintained incrementally on upload and delete and
+ * periodically reconciled with the content of MinIO.
+ */
+public interface BucketStatisticsService {
+
+    /**
+     * Account for an uploaded object, replacing the previous version if known
+     */
+    void recordUpload(FileMetadata uploaded, FileMetadata previous);
+
+    /**
+     * Account for a deleted object
+     */
+    void recordDelete(FileMetadata deleted);
+
+    /**
+     * Put an uploaded object in the object index and account for it in one step, so that a
+     * reconciliation reading the index sees either both or neither
+     *
+     * @return the previous version from the index, null if unknown
+     */
+    FileMetadata putAndRecord(FileMetadata uploaded);
+
+    /**
+     * Remove an object from the object index and account for its deletion in one step
+     *
+     * @return the removed metadata, null if the object was not indexed
+     */
+    FileMetadata removeAndRecord(String bucketName, String fileName);
+
+    /**
+     * Get the current statistics of a bucket
+     */
+    BucketStatistics getStatistics(String bucketName);
+
+    /**
+     * Get the current statistics of a bucket without some of its objects, such as expired
+     * objects hidden from listings but not deleted yet
+     */
+    BucketStatistics getStatistics(String bucketName, Iterator<FileMetadata> excluded);
+
+    /**
+     * Recompute the statistics of a bucket from the object index when it is ready, from a full listing otherwise
+     */
+    void reconcile(String bucketName);
+
+    /**
+     * Recompute the statistics of every configured bucket
+     */
+    void reconcileAll();
+}
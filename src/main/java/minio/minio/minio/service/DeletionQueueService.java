@@ -0,0 +1,40 @@
+package minio.minio.minio.service;
+
+import minio.minio.minio.enums.FileType;
+
+import java.util.Collection;
+
+/**
+ * Deletions acknowledged immediately, recorded in a durable local journal and
+ * applied to MinIO in the background with retries.
+ */
+public interface DeletionQueueService {
+
+    /**
+     * Check if the journal is open and asynchronous deletes can be accepted
+     */
+    boolean isEnabled();
+
+    /**
+     * Record deletions in the journal, returning once they are committed and synced to disk
+     */
+    void enqueue(String bucketName, FileType fileType, Collection<String> fileNames);
+
+    /**
+     * Drop the pending deletion of an object before it is written again, so that the drain does
+     * not remove the new version. Waits for a drain in progress.
+     *
+     * @return true if a deletion was pending
+     */
+    boolean cancel(String bucketName, String fileName);
+
+    /**
+     * Number of deletions waiting in the journal
+     */
+    long pendingCount();
+
+    /**
+     * Apply the due deletions of the journal in multi-object delete batches
+     */
+    void drain();
+}
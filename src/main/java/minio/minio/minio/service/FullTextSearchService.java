@@ -0,0 +1,39 @@
+package minio.minio.minio.service;
+
+import minio.minio.minio.dto.FileSearchResponse;
+
+import java.util.Collection;
+
+public interface FullTextSearchService {
+
+    /**
+     * Queue a stored file for (re)indexing of its text content
+     */
+    void indexFileAsync(String bucketName, String fileName, String contentType, String etag);
+
+    /**
+     * Remove a file from the full-text index
+     */
+    void removeFile(String bucketName, String fileName);
+
+    /**
+     * Remove several files of a bucket from the full-text index at once
+     */
+    void removeFiles(String bucketName, Collection<String> fileNames);
+
+    /**
+     * Search the text of indexed files, grouping page hits by file
+     */
+    FileSearchResponse search(String query, int limit);
+
+    /**
+     * Commit pending index changes to disk. Searches see them as soon as they are made, the
+     * commit only makes them survive a restart.
+     */
+    void commit();
+
+    /**
+     * Index the files already stored that are missing or outdated in the full-text index
+     */
+    void indexBacklog();
+}
@@ -0,0 +1,43 @@
+package minio.minio.minio.service;
+
+import minio.minio.minio.dto.ImageRendition;
+import minio.minio.minio.dto.ImagePlaceholder;
+import minio.minio.minio.dto.ImageRenditionSpec;
+import minio.minio.minio.enums.FileType;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ImageRenditionService {
+
+    /**
+     * Get a resized rendition of an image, generated on first request and then served from the
+     * derived bucket. Returns a not-modified rendition when {@code ifNoneMatch} matches its ETag.
+     */
+    ImageRendition getRendition(FileType fileType, String fileName, ImageRenditionSpec spec, String ifNoneMatch);
+
+    /**
+     * Queue the configured presets of a freshly uploaded file for background generation,
+     * ahead of any backfill work. Returns the URL of each preset by name.
+     */
+    Map<String, String> pregenerate(FileType fileType, String fileName, String etag);
+
+    /**
+     * Queue the configured presets of every existing file of a type at low priority,
+     * returning the number of files queued
+     */
+    int backfill(FileType fileType);
+
+    /**
+     * Queue the removal of the stored renditions and PDF thumbnails of deleted source files, every
+     * version included. A null file type covers both kinds.
+     */
+    void deleteRenditions(FileType fileType, String sourceBucket, Collection<String> fileNames);
+
+    /**
+     * Compute the placeholder of an image from a downscaled decode on the processing pool,
+     * null when the image cannot be read or the pool is saturated
+     */
+    ImagePlaceholder createPlaceholder(InputStream inputStream);
+}
@@ -1,14 +1,20 @@
 package minio.minio.minio.service;
 
+import minio.minio.minio.dto.BucketStatistics;
+import minio.minio.minio.dto.BulkDeleteResponse;
 import minio.minio.minio.dto.FileDownloadResponse;
+import minio.minio.minio.dto.FileListPage;
 import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
 import minio.minio.minio.dto.FileUploadResponse;
 import minio.minio.minio.enums.FileType;
 
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Predicate;
 
 public interface MinioService {
     
@@ -22,6 +28,12 @@ public interface MinioService {
      */
     FileUploadResponse uploadFile(MultipartFile file, FileType fileType, String customFileName);
     
+    /**
+     * Upload a file that expires after the given TTL: it is hidden from listings once expired
+     * and deleted by the background sweeper
+     */
+    FileUploadResponse uploadFile(MultipartFile file, FileType fileType, String customFileName, Duration ttl);
+    
     /**
      * Download a file from MinIO
      */
@@ -32,6 +44,22 @@ public interface MinioService {
      */
     boolean deleteFile(String fileName, FileType fileType);
     
+    /**
+     * Delete many files with multi-object delete requests, either the given names or every file under a prefix
+     */
+    BulkDeleteResponse deleteFiles(FileType fileType, List<String> fileNames, String prefix);
+    
+    /**
+     * Record deletions in the durable journal and return immediately, they are applied in the background.
+     * Falls back to a synchronous delete when the journal is disabled.
+     */
+    BulkDeleteResponse deleteFilesAsync(FileType fileType, List<String> fileNames);
+    
+    /**
+     * Delete expired files found in the object index, up to the configured budget per sweep
+     */
+    void sweepExpiredFiles();
+    
     /**
      * Get file metadata
      */
@@ -42,6 +70,45 @@ public interface MinioService {
      */
     List<FileMetadata> listFiles(FileType fileType);
     
+    /**
+     * List one page of files in name order, starting after the given cursor. Pages hold at most
+     * 999 entries so that each one is served by a single MinIO request.
+     */
+    FileListPage listFiles(FileType fileType, String cursor, int limit);
+    
+    /**
+     * List one page of a "folder": with a delimiter, only direct children of the prefix are
+     * returned and deeper objects are grouped into common prefixes
+     */
+    FileListPage listFiles(FileType fileType, String prefix, String delimiter, String cursor, int limit);
+    
+    /**
+     * Walk every file of a bucket in name order without buffering the listing.
+     * Iteration stops as soon as the consumer returns false. Returns the number of files visited.
+     */
+    long forEachFile(FileType fileType, Predicate<FileMetadata> consumer);
+    
+    /**
+     * List files matching server-side filters, sorted and limited
+     */
+    List<FileMetadata> queryFiles(FileType fileType, FileQuery query);
+    
+    /**
+     * Count files in a bucket
+     */
+    long countFiles(FileType fileType);
+    
+    /**
+     * Get storage usage of the bucket of a file type, without scanning it
+     */
+    BucketStatistics getStatistics(FileType fileType);
+    
+    /**
+     * Filter and sort files across all configured buckets, queried concurrently and merged up to the query limit.
+     * Fails if any bucket fails or does not answer within the query timeout, rather than returning partial results.
+     */
+    List<FileMetadata> queryAllFiles(FileQuery query);
+    
     /**
      * Check if file exists
      */
@@ -67,6 +134,11 @@ public interface MinioService {
      */
     byte[] getFileContentAsBytes(String fileName, FileType fileType);
     
+    /**
+     * Get the number of pages of a stored PDF, downloading only the parts of the file that are read
+     */
+    int getPdfPageCount(String fileName);
+    
     /**
      * Extract filename from MinIO URL
      */
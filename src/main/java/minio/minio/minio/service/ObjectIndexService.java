@@ -0,0 +1,82 @@
+package minio.minio.minio.service;
+
+import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Local, disk-backed index of the objects stored in MinIO, used to serve
+ * listings and counts without scanning the buckets.
+ */
+public interface ObjectIndexService {
+
+    /**
+     * Check if the index can answer queries for a bucket (enabled and reconciled at least once)
+     */
+    boolean isReady(String bucketName);
+
+    /**
+     * Add or replace an entry, returning the previous one if any
+     */
+    FileMetadata put(FileMetadata metadata);
+
+    /**
+     * Remove an entry, returning the removed one if any
+     */
+    FileMetadata remove(String bucketName, String fileName);
+
+    /**
+     * Get an indexed entry
+     */
+    Optional<FileMetadata> find(String bucketName, String fileName);
+
+    /**
+     * List all indexed entries of a bucket, ordered by name
+     */
+    List<FileMetadata> list(String bucketName);
+
+    /**
+     * Walk the entries of a bucket ordered by name, as they were when called, without loading them all
+     */
+    Iterator<FileMetadata> iterate(String bucketName);
+
+    /**
+     * Filter and sort indexed entries of a bucket, walking the index of the sort key
+     * within the requested range so that the cost does not depend on the bucket size
+     */
+    List<FileMetadata> query(String bucketName, FileQuery query);
+
+    /**
+     * Names of entries of a bucket expired at the given time, oldest expiry first
+     */
+    List<String> findExpired(String bucketName, LocalDateTime now, int limit);
+
+    /**
+     * Count entries of a bucket expired at the given time, without walking them
+     */
+    long countExpired(String bucketName, LocalDateTime now);
+
+    /**
+     * Walk the entries of a bucket expired at the given time, oldest expiry first, without loading them all
+     */
+    Iterator<FileMetadata> iterateExpired(String bucketName, LocalDateTime now);
+
+    /**
+     * Count indexed entries of a bucket
+     */
+    long count(String bucketName);
+
+    /**
+     * Synchronize the index of a bucket with the content of MinIO
+     */
+    void reconcile(String bucketName);
+
+    /**
+     * Synchronize the index of every configured bucket
+     */
+    void reconcileAll();
+}
@@ -1,9 +1,13 @@
 package minio.minio.minio.service;
 
 import minio.minio.minio.dto.FileMetadata;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.InputStream;
+import java.io.Writer;
+import java.util.List;
 
 public interface PdfProcessingService {
     
@@ -17,23 +21,70 @@ public interface PdfProcessingService {
      */
     FileMetadata extractPdfMetadata(InputStream inputStream, String fileName);
     
+    /**
+     * Extract metadata from a random access PDF source, reading only the parts PDFBox needs
+     */
+    FileMetadata extractPdfMetadata(RandomAccessRead source, String fileName);
+    
     /**
      * Extract text content from PDF
      */
     String extractTextFromPdf(InputStream inputStream);
     
+    /**
+     * Extract text content of a page range (1-based, inclusive, clamped to the last page)
+     */
+    String extractTextFromPdf(InputStream inputStream, int startPage, int endPage);
+    
+    /**
+     * Write text content of a page range to a writer page by page, flushing after each page,
+     * so that memory use does not depend on the document length. Returns the number of pages written
+     */
+    int writeTextFromPdf(InputStream inputStream, int startPage, int endPage, Writer writer);
+    
     /**
      * Get number of pages in PDF
      */
     int getPdfPageCount(InputStream inputStream);
     
+    /**
+     * Get number of pages of a random access PDF source, reading only the parts PDFBox needs
+     */
+    int getPdfPageCount(RandomAccessRead source);
+    
     /**
      * Generate thumbnail from first page of PDF
      */
     byte[] generatePdfThumbnail(InputStream inputStream, int width, int height);
     
+    /**
+     * Generate thumbnail from first page of PDF, fitting the page inside width x height when
+     * {@code keepAspectRatio} is set instead of stretching it
+     */
+    byte[] generatePdfThumbnail(InputStream inputStream, int width, int height, boolean keepAspectRatio);
+    
+    /**
+     * Generate thumbnail of a page (0-based) of an already loaded PDF, on the calling thread since
+     * the document belongs to it. Callers run it on the processing pool.
+     */
+    byte[] generatePdfThumbnail(PDDocument document, int pageIndex, int width, int height, boolean keepAspectRatio);
+    
+    /**
+     * Generate thumbnails of several pages (0-based) of a PDF read once, rendering groups of pages
+     * concurrently. Thumbnails are returned in the order of {@code pageIndexes}
+     */
+    List<byte[]> generatePdfThumbnails(InputStream inputStream, List<Integer> pageIndexes, int width, int height, boolean keepAspectRatio);
+    
     /**
      * Validate PDF file integrity
      */
     boolean validatePdfIntegrity(InputStream inputStream);
+    
+    /**
+     * Check the structure of a PDF without rendering it: header and end of file marker, xref and
+     * trailer, page tree and encryption. Runs within the validation time and memory budget.
+     *
+     * @throws minio.minio.minio.exception.InvalidPdfException if the PDF is broken or password protected
+     */
+    void validatePdfStructure(InputStream inputStream);
 }
@@ -0,0 +1,30 @@
+package minio.minio.minio.service;
+
+import minio.minio.minio.dto.ImageRendition;
+
+import java.util.Map;
+
+public interface PdfThumbnailService {
+
+    /**
+     * Get the PNG thumbnail of a page (1-based) of a PDF, rendered on first request and then served
+     * from memory or from the derived bucket. The page fits inside the box when {@code keepAspectRatio}
+     * is set, otherwise it is stretched. Returns a not-modified thumbnail when {@code ifNoneMatch}
+     * matches its ETag.
+     */
+    ImageRendition getThumbnail(String fileName, int page, int width, int height, boolean keepAspectRatio, String ifNoneMatch);
+
+    /**
+     * Get the PNG thumbnails of a page range (1-based, inclusive), keyed by page number. The range is
+     * clamped to the end of the document; a range longer than the maximum number of pages per request
+     * is rejected. Thumbnails not cached
+     * yet are rendered concurrently from a single download of the PDF, then cached like single pages.
+     */
+    Map<Integer, byte[]> getThumbnails(String fileName, int startPage, int endPage, int width, int height, boolean keepAspectRatio);
+
+    /**
+     * Get a PNG contact sheet of a page range: the page thumbnails fitted in width x height cells,
+     * {@code columns} cells per row. A sheet larger than the configured pixel limit is rejected.
+     */
+    byte[] getContactSheet(String fileName, int startPage, int endPage, int width, int height, int columns);
+}
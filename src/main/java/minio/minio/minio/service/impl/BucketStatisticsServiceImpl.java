@@ -0,0 +1,375 @@
+package minio.minio.minio.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.BucketStatistics;
+import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.service.BucketStatisticsService;
+import minio.minio.minio.service.ObjectIndexService;
+import minio.minio.minio.util.MinioItemMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BucketStatisticsServiceImpl implements BucketStatisticsService {
+
+    static final long[] SIZE_BOUNDS = {1L << 10, 64L << 10, 1L << 20, 16L << 20, 256L << 20};
+    static final String[] SIZE_LABELS = {"1KB", "64KB", "1MB", "16MB", "256MB", "+Inf"};
+    private static final String UNKNOWN_CONTENT_TYPE = "unknown";
+    private static final String SCANNED_ALL = String.valueOf(Character.MAX_VALUE);
+
+    private final MinioClient minioClient;
+    private final MinioProperties minioProperties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectIndexService objectIndexService;
+    private final Map<String, Usage> usages = new ConcurrentHashMap<>();
+    private final Map<String, Rescan> rescans = new ConcurrentHashMap<>();
+    private final Map<String, Object> bucketLocks = new ConcurrentHashMap<>();
+    private final Map<String, MultiGauge[]> contentTypeGauges = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerGauges() {
+        for (String bucketName : minioProperties.getBucket().distinctNames()) {
+            Tags tags = Tags.of("bucket", bucketName);
+            // Les jauges relisent la map à chaque collecte : une réconciliation remplace l'objet Usage
+            Gauge.builder("minio.bucket.objects", usages, u -> usage(bucketName).snapshotCount())
+                    .tags(tags)
+                    .description("Number of objects in the bucket")
+                    .register(meterRegistry);
+            Gauge.builder("minio.bucket.size", usages, u -> usage(bucketName).snapshotBytes())
+                    .tags(tags)
+                    .baseUnit("bytes")
+                    .description("Total size of the objects in the bucket")
+                    .register(meterRegistry);
+            for (int i = 0; i < SIZE_LABELS.length; i++) {
+                int slot = i;
+                Gauge.builder("minio.bucket.objects.by.size", usages, u -> usage(bucketName).snapshotHistogram(slot))
+                        .tags(tags.and("le", SIZE_LABELS[i]))
+                        .description("Number of objects per size range")
+                        .register(meterRegistry);
+            }
+            contentTypeGauges.put(bucketName, new MultiGauge[]{
+                    MultiGauge.builder("minio.bucket.content.type.objects")
+                            .description("Number of objects per content type")
+                            .register(meterRegistry),
+                    MultiGauge.builder("minio.bucket.content.type.size")
+                            .baseUnit("bytes")
+                            .description("Total size of the objects per content type")
+                            .register(meterRegistry)
+            });
+        }
+    }
+
+    @Override
+    public void recordUpload(FileMetadata uploaded, FileMetadata previous) {
+        boolean newContentType = false;
+        if (previous != null) {
+            record(previous, -1);
+        }
+        if (uploaded != null) {
+            newContentType = record(uploaded, 1);
+        }
+        if (newContentType) {
+            publishContentTypes(uploaded.getBucketName());
+        }
+    }
+
+    @Override
+    public void recordDelete(FileMetadata deleted) {
+        if (deleted != null) {
+            record(deleted, -1);
+        }
+    }
+
+    @Override
+    public FileMetadata putAndRecord(FileMetadata uploaded) {
+        FileMetadata previous;
+        boolean newContentType;
+        // Sous le verrou du bucket : une réconciliation ne peut pas lire l'index entre les deux
+        synchronized (lockFor(uploaded.getBucketName())) {
+            previous = objectIndexService.put(uploaded);
+            if (previous != null) {
+                record(previous, -1);
+            }
+            newContentType = record(uploaded, 1);
+        }
+        if (newContentType) {
+            publishContentTypes(uploaded.getBucketName());
+        }
+        return previous;
+    }
+
+    @Override
+    public FileMetadata removeAndRecord(String bucketName, String fileName) {
+        synchronized (lockFor(bucketName)) {
+            FileMetadata removed = objectIndexService.remove(bucketName, fileName);
+            // Taille inconnue sans l'index : la réconciliation des statistiques corrigera
+            recordDelete(removed);
+            return removed;
+        }
+    }
+
+    @Override
+    public BucketStatistics getStatistics(String bucketName) {
+        return usage(bucketName).snapshot(bucketName);
+    }
+
+    @Override
+    public BucketStatistics getStatistics(String bucketName, Iterator<FileMetadata> excluded) {
+        if (!excluded.hasNext()) {
+            return getStatistics(bucketName);
+        }
+        Usage usage = usage(bucketName).copy();
+        excluded.forEachRemaining(metadata -> usage.add(metadata, -1));
+        return usage.snapshot(bucketName);
+    }
+
+    @Override
+    public void reconcile(String bucketName) {
+        long startedAt = System.currentTimeMillis();
+        Rescan rescan = new Rescan();
+        boolean fromIndex;
+        Iterator<FileMetadata> indexed = null;
+        synchronized (lockFor(bucketName)) {
+            if (rescans.putIfAbsent(bucketName, rescan) != null) {
+                log.info("Statistics reconciliation already running for bucket {}", bucketName);
+                return;
+            }
+            fromIndex = objectIndexService.isReady(bucketName);
+            if (fromIndex) {
+                // L'index est lu tel qu'il est maintenant : tous les changements suivants s'appliquent au recalcul
+                indexed = objectIndexService.iterate(bucketName);
+                rescan.position = SCANNED_ALL;
+            }
+        }
+
+        try {
+            if (fromIndex) {
+                while (indexed.hasNext()) {
+                    rescan.fresh.add(indexed.next(), 1);
+                }
+            } else {
+                scan(bucketName, rescan);
+            }
+        } catch (Exception e) {
+            rescans.remove(bucketName, rescan);
+            throw new MinioException("Failed to compute statistics for bucket " + bucketName + ": " + e.getMessage(), e);
+        }
+        synchronized (lockFor(bucketName)) {
+            rescan.fresh.reconciledAt = LocalDateTime.now();
+            usages.put(bucketName, rescan.fresh);
+            rescans.remove(bucketName, rescan);
+        }
+
+        publishContentTypes(bucketName);
+        log.info("Reconciled statistics for bucket {} from {} in {} ms: {} objects, {} bytes",
+                bucketName, fromIndex ? "the object index" : "a MinIO listing", System.currentTimeMillis() - startedAt,
+                rescan.fresh.snapshotCount(), rescan.fresh.snapshotBytes());
+    }
+
+    /**
+     * Count the objects of a full MinIO listing, sorted by name, moving the rescan position along
+     */
+    private void scan(String bucketName, Rescan rescan) throws Exception {
+        Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .recursive(true)
+                .includeUserMetadata(true)
+                .build());
+        for (Result<Item> result : results) {
+            Item item = result.get();
+            if (item.isDir()) {
+                continue;
+            }
+            synchronized (lockFor(bucketName)) {
+                rescan.fresh.add(MinioItemMapper.toFileMetadata(bucketName, item), 1);
+                rescan.position = item.objectName();
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${minio.stats.initial-delay:PT30S}",
+            fixedDelayString = "${minio.stats.reconcile-interval:PT1H}")
+    public void reconcileAll() {
+        for (String bucketName : minioProperties.getBucket().distinctNames()) {
+            try {
+                reconcile(bucketName);
+            } catch (Exception e) {
+                log.warn("Statistics reconciliation skipped for bucket {}: {}", bucketName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Apply a change to the live counters and, when a rescan already went past the object, to the
+     * rescan too, so that it is neither lost nor counted twice once the rescan replaces the counters
+     */
+    private boolean record(FileMetadata metadata, int sign) {
+        String bucketName = metadata.getBucketName();
+        synchronized (lockFor(bucketName)) {
+            boolean created = usage(bucketName).add(metadata, sign);
+            Rescan rescan = rescans.get(bucketName);
+            if (rescan != null && metadata.getFileName().compareTo(rescan.position) <= 0) {
+                rescan.fresh.add(metadata, sign);
+            }
+            return created;
+        }
+    }
+
+    private Usage usage(String bucketName) {
+        return usages.computeIfAbsent(bucketName, name -> new Usage());
+    }
+
+    private Object lockFor(String bucketName) {
+        return bucketLocks.computeIfAbsent(bucketName, name -> new Object());
+    }
+
+    private void publishContentTypes(String bucketName) {
+        MultiGauge[] gauges = contentTypeGauges.get(bucketName);
+        if (gauges == null) {
+            return;
+        }
+        List<MultiGauge.Row<?>> objects = new ArrayList<>();
+        List<MultiGauge.Row<?>> bytes = new ArrayList<>();
+        for (String contentType : usage(bucketName).contentTypeNames()) {
+            Tags tags = Tags.of("bucket", bucketName, "content_type", contentType);
+            objects.add(MultiGauge.Row.of(tags, usages, u -> usage(bucketName).snapshotContentType(contentType)[0]));
+            bytes.add(MultiGauge.Row.of(tags, usages, u -> usage(bucketName).snapshotContentType(contentType)[1]));
+        }
+        gauges[0].register(objects, true);
+        gauges[1].register(bytes, true);
+    }
+
+    static int sizeSlot(long size) {
+        for (int i = 0; i < SIZE_BOUNDS.length; i++) {
+            if (size <= SIZE_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return SIZE_BOUNDS.length;
+    }
+
+    /**
+     * Counters being recomputed for one bucket, and the last object name already counted
+     */
+    private static final class Rescan {
+        private final Usage fresh = new Usage();
+        private String position = "";
+    }
+
+    /**
+     * Mutable counters of one bucket
+     */
+    private static final class Usage {
+        private long count;
+        private long bytes;
+        private final long[] histogram = new long[SIZE_LABELS.length];
+        private final Map<String, long[]> contentTypes = new HashMap<>();
+        private LocalDateTime reconciledAt;
+
+        /**
+         * Add (sign = 1) or remove (sign = -1) an object, returning true if a new content type appeared
+         */
+        synchronized boolean add(FileMetadata metadata, int sign) {
+            long size = metadata.getFileSize() != null ? metadata.getFileSize() : 0L;
+            String contentType = metadata.getContentType() != null ? metadata.getContentType() : UNKNOWN_CONTENT_TYPE;
+            count = Math.max(0L, count + sign);
+            bytes = Math.max(0L, bytes + sign * size);
+            int slot = sizeSlot(size);
+            histogram[slot] = Math.max(0L, histogram[slot] + sign);
+
+            long[] perType = contentTypes.get(contentType);
+            boolean created = false;
+            if (perType == null) {
+                if (sign < 0) {
+                    return false;
+                }
+                perType = new long[2];
+                contentTypes.put(contentType, perType);
+                created = true;
+            }
+            perType[0] += sign;
+            perType[1] = Math.max(0L, perType[1] + sign * size);
+            if (perType[0] <= 0) {
+                contentTypes.remove(contentType);
+            }
+            return created;
+        }
+
+        synchronized Usage copy() {
+            Usage copy = new Usage();
+            copy.count = count;
+            copy.bytes = bytes;
+            System.arraycopy(histogram, 0, copy.histogram, 0, histogram.length);
+            contentTypes.forEach((contentType, values) -> copy.contentTypes.put(contentType, values.clone()));
+            copy.reconciledAt = reconciledAt;
+            return copy;
+        }
+
+        synchronized long snapshotCount() {
+            return count;
+        }
+
+        synchronized long snapshotBytes() {
+            return bytes;
+        }
+
+        synchronized long snapshotHistogram(int slot) {
+            return histogram[slot];
+        }
+
+        synchronized long[] snapshotContentType(String contentType) {
+            long[] perType = contentTypes.get(contentType);
+            return perType != null ? perType.clone() : new long[2];
+        }
+
+        synchronized List<String> contentTypeNames() {
+            return new ArrayList<>(contentTypes.keySet());
+        }
+
+        synchronized BucketStatistics snapshot(String bucketName) {
+            Map<String, Long> sizeHistogram = new LinkedHashMap<>();
+            for (int i = 0; i < SIZE_LABELS.length; i++) {
+                sizeHistogram.put(SIZE_LABELS[i], histogram[i]);
+            }
+            Map<String, BucketStatistics.ContentTypeUsage> perType = new TreeMap<>();
+            contentTypes.forEach((contentType, values) -> perType.put(contentType,
+                    BucketStatistics.ContentTypeUsage.builder()
+                            .objectCount(values[0])
+                            .totalBytes(values[1])
+                            .build()));
+            return BucketStatistics.builder()
+                    .bucketName(bucketName)
+                    .objectCount(count)
+                    .totalBytes(bytes)
+                    .sizeHistogram(sizeHistogram)
+                    .contentTypes(perType)
+                    .reconciledAt(reconciledAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package minio.minio.minio.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.service.BucketStatisticsService;
+import minio.minio.minio.service.DeletionQueueService;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.service.ImageRenditionService;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DeletionQueueServiceImpl implements DeletionQueueService {
+
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+    // Limite S3/MinIO d'une requête de suppression multiple
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final MinioClient minioClient;
+    private final MinioProperties minioProperties;
+    private final BucketStatisticsService bucketStatisticsService;
+    private final FullTextSearchService fullTextSearchService;
+    private final ImageRenditionService imageRenditionService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong sequence = new AtomicLong();
+    // Sérialise enqueue, cancel et drain : une annulation attend la fin du lot en cours
+    private final Object journalLock = new Object();
+
+    private MVStore store;
+    private MVMap<Long, String> pending;
+    private MVMap<Long, String> failed;
+    // Index secondaire "prochaine tentative|id" des entrées en attente, pour ne lire que les dues
+    private MVMap<String, String> byNextAttempt;
+    // Objets déjà en attente, "bucket|nom", pour ne pas les mettre deux fois dans le journal
+    private MVMap<String, Long> queued;
+
+    @PostConstruct
+    public void open() {
+        MinioProperties.Deletion deletion = minioProperties.getDeletion();
+        if (!deletion.isEnabled()) {
+            log.info("Asynchronous deletion is disabled, deletes are applied synchronously");
+            return;
+        }
+        try {
+            Path path = Path.of(deletion.getPath()).toAbsolutePath();
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            store = new MVStore.Builder()
+                    .fileName(path.toString())
+                    .open();
+            pending = store.openMap("pending");
+            failed = store.openMap("failed");
+            byNextAttempt = store.openMap("by-next-attempt");
+            queued = store.openMap("queued");
+            if ((byNextAttempt.isEmpty() || queued.isEmpty()) && !pending.isEmpty()) {
+                // Journal écrit avant les index secondaires
+                pending.forEach((id, json) -> {
+                    PendingDeletion entry = read(json);
+                    byNextAttempt.put(dueKey(entry.getNextAttemptAt(), id), "");
+                    queued.put(queuedKey(entry.getBucketName(), entry.getFileName()), id);
+                });
+                store.commit();
+            }
+            Long lastKey = pending.lastKey();
+            Long lastFailedKey = failed.lastKey();
+            sequence.set(Math.max(lastKey != null ? lastKey : 0L, lastFailedKey != null ? lastFailedKey : 0L));
+            log.info("Opened deletion journal at {} with {} pending deletions", path, pending.sizeAsLong());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not open deletion journal at {}: {}. Deletes are applied synchronously.",
+                    deletion.getPath(), e.getMessage());
+            store = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store != null && !store.isClosed()) {
+            store.close();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    @Override
+    public void enqueue(String bucketName, FileType fileType, Collection<String> fileNames) {
+        if (store == null) {
+            throw new MinioException("Asynchronous deletion is disabled");
+        }
+        synchronized (journalLock) {
+            for (String fileName : fileNames) {
+                if (queued.containsKey(queuedKey(bucketName, fileName))) {
+                    // Déjà en attente, par exemple redemandé par chaque passage du nettoyeur d'expiration
+                    continue;
+                }
+                long id = sequence.incrementAndGet();
+                queued.put(queuedKey(bucketName, fileName), id);
+                pending.put(id, write(new PendingDeletion(bucketName, fileType, fileName, 0, 0L)));
+                byNextAttempt.put(dueKey(0L, id), "");
+            }
+            // Le client n'est acquitté qu'une fois l'intention écrite sur disque : commit() ne fait
+            // qu'écrire dans le cache du système, sync() force l'écriture physique
+            store.commit();
+            store.sync();
+        }
+    }
+
+    @Override
+    public boolean cancel(String bucketName, String fileName) {
+        if (store == null) {
+            return false;
+        }
+        synchronized (journalLock) {
+            Long id = queued.remove(queuedKey(bucketName, fileName));
+            if (id == null) {
+                return false;
+            }
+            String json = pending.remove(id);
+            if (json != null) {
+                byNextAttempt.remove(dueKey(read(json).getNextAttemptAt(), id));
+            }
+            // Durable avant l'écriture du nouvel objet, qu'un redémarrage ne doit pas supprimer
+            store.commit();
+            store.sync();
+            log.debug("Cancelled pending deletion of {} from bucket {}", fileName, bucketName);
+            return true;
+        }
+    }
+
+    @Override
+    public long pendingCount() {
+        return store != null ? pending.sizeAsLong() : 0L;
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${minio.deletion.initial-delay:PT5S}",
+            fixedDelayString = "${minio.deletion.drain-interval:PT2S}")
+    public void drain() {
+        if (store == null || pending.isEmpty()) {
+            return;
+        }
+        synchronized (journalLock) {
+            drainDue();
+        }
+    }
+
+    private void drainDue() {
+        long now = System.currentTimeMillis();
+        int batchSize = Math.max(1, Math.min(minioProperties.getDeletion().getBatchSize(), MAX_KEYS_PER_DELETE));
+
+        // Seules les entrées dues sont lues, par date de tentative puis ordre du journal, regroupées par bucket
+        Map<String, Map<Long, PendingDeletion>> byBucket = new LinkedHashMap<>();
+        int selected = 0;
+        Iterator<String> due = byNextAttempt.keyIterator(null);
+        String dueEnd = dueKey(now, Long.MAX_VALUE);
+        while (due.hasNext() && selected < batchSize) {
+            String key = due.next();
+            if (key.compareTo(dueEnd) > 0) {
+                break;
+            }
+            Long id = idOf(key);
+            String json = pending.get(id);
+            if (json == null) {
+                byNextAttempt.remove(key);
+                continue;
+            }
+            PendingDeletion deletion = read(json);
+            byBucket.computeIfAbsent(deletion.getBucketName(), name -> new LinkedHashMap<>())
+                    .put(id, deletion);
+            selected++;
+        }
+
+        byBucket.forEach(this::deleteBatch);
+        store.commit();
+    }
+
+    private void deleteBatch(String bucketName, Map<Long, PendingDeletion> batch) {
+        Map<String, String> errors = new HashMap<>();
+        try {
+            List<DeleteObject> objects = new ArrayList<>(batch.size());
+            batch.values().forEach(deletion -> objects.add(new DeleteObject(deletion.getFileName())));
+            for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .objects(objects)
+                    .build())) {
+                DeleteError error = result.get();
+                // Un objet déjà absent est considéré comme supprimé
+                if (!NO_SUCH_KEY.equals(error.code())) {
+                    errors.put(error.objectName(), error.code() + ": " + error.message());
+                }
+            }
+        } catch (Exception e) {
+            batch.values().forEach(deletion -> errors.put(deletion.getFileName(), e.getMessage()));
+        }
+
+        List<String> searchable = new ArrayList<>();
+        // Les entrées sans type, plus anciennes, couvrent les rendus d'image comme les thumbnails PDF
+        Map<FileType, List<String>> derived = new HashMap<>();
+        for (Map.Entry<Long, PendingDeletion> entry : batch.entrySet()) {
+            PendingDeletion deletion = entry.getValue();
+            String error = errors.get(deletion.getFileName());
+            if (error != null) {
+                retryLater(entry.getKey(), deletion, error);
+                continue;
+            }
+            pending.remove(entry.getKey());
+            byNextAttempt.remove(dueKey(deletion.getNextAttemptAt(), entry.getKey()));
+            queued.remove(queuedKey(bucketName, deletion.getFileName()));
+            bucketStatisticsService.removeAndRecord(bucketName, deletion.getFileName());
+            if (deletion.getFileType() != null && deletion.getFileType().isTextSearchable()) {
+                searchable.add(deletion.getFileName());
+            }
+            derived.computeIfAbsent(deletion.getFileType(), type -> new ArrayList<>()).add(deletion.getFileName());
+        }
+        fullTextSearchService.removeFiles(bucketName, searchable);
+        derived.forEach((fileType, fileNames) -> imageRenditionService.deleteRenditions(fileType, bucketName, fileNames));
+        log.debug("Drained {} deletions from bucket {}, {} to retry", batch.size() - errors.size(), bucketName, errors.size());
+    }
+
+    private void retryLater(Long id, PendingDeletion deletion, String error) {
+        MinioProperties.Deletion settings = minioProperties.getDeletion();
+        byNextAttempt.remove(dueKey(deletion.getNextAttemptAt(), id));
+        deletion.setAttempts(deletion.getAttempts() + 1);
+        if (deletion.getAttempts() >= settings.getMaxAttempts()) {
+            pending.remove(id);
+            queued.remove(queuedKey(deletion.getBucketName(), deletion.getFileName()));
+            failed.put(id, write(deletion));
+            log.error("Giving up deleting {} from bucket {} after {} attempts: {}",
+                    deletion.getFileName(), deletion.getBucketName(), deletion.getAttempts(), error);
+            return;
+        }
+        long delay = backoffMillis(deletion.getAttempts(), settings.getInitialBackoff(), settings.getMaxBackoff());
+        deletion.setNextAttemptAt(System.currentTimeMillis() + delay);
+        pending.put(id, write(deletion));
+        byNextAttempt.put(dueKey(deletion.getNextAttemptAt(), id), "");
+        log.warn("Deleting {} from bucket {} failed (attempt {}), retrying in {} ms: {}",
+                deletion.getFileName(), deletion.getBucketName(), deletion.getAttempts(), delay, error);
+    }
+
+    /**
+     * Exponential backoff: initial, 2 x initial, 4 x initial... capped at max
+     */
+    static long backoffMillis(int attempts, Duration initial, Duration max) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(initial.toMillis() << shift, max.toMillis());
+    }
+
+    static String dueKey(long nextAttemptAt, long id) {
+        return String.format("%019d|%019d", nextAttemptAt, id);
+    }
+
+    private static String queuedKey(String bucketName, String fileName) {
+        return bucketName + "|" + fileName;
+    }
+
+    private static Long idOf(String dueKey) {
+        return Long.parseLong(dueKey.substring(dueKey.indexOf('|') + 1));
+    }
+
+    private String write(PendingDeletion deletion) {
+        try {
+            return objectMapper.writeValueAsString(deletion);
+        } catch (IOException e) {
+            throw new MinioException("Failed to serialize deletion journal entry: " + e.getMessage(), e);
+        }
+    }
+
+    private PendingDeletion read(String json) {
+        try {
+            return objectMapper.readValue(json, PendingDeletion.class);
+        } catch (IOException e) {
+            throw new MinioException("Failed to read deletion journal entry: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Entry of the deletion journal
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class PendingDeletion {
+        private String bucketName;
+        private FileType fileType;
+        private String fileName;
+        private int attempts;
+        private long nextAttemptAt;
+    }
+}
@@ -0,0 +1,434 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.GetObjectArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.FileSearchResponse;
+import minio.minio.minio.dto.FileSearchResult;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.util.MinioItemMapper;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.highlight.Highlighter;
+import org.apache.lucene.search.highlight.QueryScorer;
+import org.apache.lucene.search.highlight.SimpleFragmenter;
+import org.apache.lucene.search.highlight.SimpleHTMLFormatter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.tika.Tika;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FullTextSearchServiceImpl implements FullTextSearchService {
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_BUCKET = "bucket";
+    private static final String FIELD_FILE_NAME = "fileName";
+    private static final String FIELD_CONTENT_TYPE = "contentType";
+    private static final String FIELD_ETAG = "etag";
+    private static final String FIELD_PAGE = "page";
+    private static final String FIELD_CONTENT = "content";
+
+    private static final int MAX_PAGE_HITS_PER_FILE = 10;
+    private static final int MAX_SCANNED_PAGE_HITS = 1000;
+    private static final int SNIPPET_LENGTH = 160;
+
+    private final MinioClient minioClient;
+    private final MinioProperties minioProperties;
+    private final PdfDocumentLoader pdfDocumentLoader;
+    private final Tika tika = new Tika();
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final AtomicBoolean backlogRunning = new AtomicBoolean();
+
+    private Directory directory;
+    private IndexWriter indexWriter;
+    private SearcherManager searcherManager;
+    private ThreadPoolExecutor uploadIndexer;
+    private ExecutorService backlogIndexer;
+
+    @PostConstruct
+    public void open() {
+        MinioProperties.Search search = minioProperties.getSearch();
+        if (!search.isEnabled()) {
+            log.info("Full-text search is disabled");
+            return;
+        }
+        try {
+            Path path = Path.of(search.getPath()).toAbsolutePath();
+            Files.createDirectories(path);
+            directory = FSDirectory.open(path);
+            indexWriter = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            searcherManager = new SearcherManager(indexWriter, null);
+            tika.setMaxStringLength(search.getMaxPageLength());
+
+            // Un seul thread de faible priorité par file : l'indexation ne concurrence pas les requêtes
+            uploadIndexer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(search.getQueueCapacity()), indexerThreads("search-indexer"));
+            backlogIndexer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(1), indexerThreads("search-backlog"));
+            log.info("Opened full-text index at {}", path);
+        } catch (IOException e) {
+            log.warn("Could not open full-text index at {}: {}. Search is disabled.", search.getPath(), e.getMessage());
+            indexWriter = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (indexWriter == null) {
+            return;
+        }
+        uploadIndexer.shutdownNow();
+        backlogIndexer.shutdownNow();
+        try {
+            searcherManager.close();
+            indexWriter.close();
+            directory.close();
+        } catch (IOException e) {
+            log.warn("Error closing full-text index: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void indexFileAsync(String bucketName, String fileName, String contentType, String etag) {
+        if (indexWriter == null || !isIndexable(contentType)) {
+            return;
+        }
+        try {
+            uploadIndexer.execute(() -> indexQuietly(bucketName, fileName, contentType, etag));
+        } catch (RejectedExecutionException e) {
+            // Le fichier sera rattrapé par l'indexation du backlog
+            log.warn("Full-text indexing queue is full, {} will be indexed by the backlog indexer", fileName);
+        }
+    }
+
+    @Override
+    public void removeFile(String bucketName, String fileName) {
+        if (indexWriter == null) {
+            return;
+        }
+        try {
+            indexWriter.deleteDocuments(new Term(FIELD_ID, documentId(bucketName, fileName)));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Could not remove {} from full-text index: {}", fileName, e.getMessage());
+        }
+    }
+
+    @Override
+    public void removeFiles(String bucketName, Collection<String> fileNames) {
+        if (indexWriter == null || fileNames.isEmpty()) {
+            return;
+        }
+        try {
+            indexWriter.deleteDocuments(fileNames.stream()
+                    .map(fileName -> new Term(FIELD_ID, documentId(bucketName, fileName)))
+                    .toArray(Term[]::new));
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Could not remove {} files from full-text index: {}", fileNames.size(), e.getMessage());
+        }
+    }
+
+    @Override
+    public FileSearchResponse search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (indexWriter == null) {
+            throw new MinioException("Full-text search is not available");
+        }
+
+        long startedAt = System.nanoTime();
+        Query parsedQuery;
+        try {
+            parsedQuery = new QueryParser(FIELD_CONTENT, analyzer).parse(query);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + e.getMessage(), e);
+        }
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(parsedQuery, (int) Math.min((long) limit * MAX_PAGE_HITS_PER_FILE, MAX_SCANNED_PAGE_HITS));
+            Highlighter highlighter = new Highlighter(new SimpleHTMLFormatter("<em>", "</em>"),
+                    new QueryScorer(parsedQuery, FIELD_CONTENT));
+            highlighter.setTextFragmenter(new SimpleFragmenter(SNIPPET_LENGTH));
+
+            // Les pages sont triées par score : le premier hit d'un fichier donne son rang
+            Map<String, FileSearchResult> results = new LinkedHashMap<>();
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = searcher.storedFields().document(scoreDoc.doc);
+                String id = document.get(FIELD_ID);
+                FileSearchResult result = results.get(id);
+                if (result == null) {
+                    if (results.size() >= limit) {
+                        continue;
+                    }
+                    result = FileSearchResult.builder()
+                            .fileName(document.get(FIELD_FILE_NAME))
+                            .bucketName(document.get(FIELD_BUCKET))
+                            .contentType(document.get(FIELD_CONTENT_TYPE))
+                            .score(scoreDoc.score)
+                            .hits(new ArrayList<>())
+                            .build();
+                    results.put(id, result);
+                }
+                if (result.getHits().size() < MAX_PAGE_HITS_PER_FILE) {
+                    result.getHits().add(FileSearchResult.PageHit.builder()
+                            .page(document.getField(FIELD_PAGE).numericValue().intValue())
+                            .score(scoreDoc.score)
+                            .snippet(snippet(highlighter, document.get(FIELD_CONTENT)))
+                            .build());
+                }
+            }
+
+            return FileSearchResponse.builder()
+                    .query(query)
+                    .totalHits(topDocs.totalHits.value)
+                    .tookMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                    .results(new ArrayList<>(results.values()))
+                    .build();
+        } catch (IOException e) {
+            log.error("Error searching full-text index: {}", e.getMessage(), e);
+            throw new MinioException("Failed to search files: " + e.getMessage(), e);
+        } finally {
+            releaseQuietly(searcher);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${minio.search.commit-interval:PT30S}",
+            fixedDelayString = "${minio.search.commit-interval:PT30S}")
+    public void commit() {
+        if (indexWriter == null || !indexWriter.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            // Les recherches voient déjà les changements via le lecteur temps réel, le commit ne sert qu'à la durabilité
+            indexWriter.commit();
+        } catch (IOException e) {
+            log.warn("Could not commit full-text index: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${minio.search.backlog-initial-delay:PT1M}",
+            fixedDelayString = "${minio.search.backlog-interval:PT6H}")
+    public void indexBacklog() {
+        if (indexWriter == null || !backlogRunning.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            backlogIndexer.execute(() -> {
+                try {
+                    runBacklog();
+                } finally {
+                    backlogRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backlogRunning.set(false);
+        }
+    }
+
+    private void runBacklog() {
+        String bucketName = minioProperties.getBucket().getDocuments();
+        long pauseMillis = minioProperties.getSearch().getBacklogPause().toMillis();
+        int indexed = 0;
+        try {
+            Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .recursive(true)
+                    .includeUserMetadata(true)
+                    .build());
+
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                if (item.isDir()) {
+                    continue;
+                }
+                String contentType = MinioItemMapper.userMetadataValue(item.userMetadata(), "content-type");
+                if (contentType == null) {
+                    contentType = tika.detect(item.objectName());
+                }
+                String etag = MinioItemMapper.toFileMetadata(bucketName, item).getEtag();
+                if (!isIndexable(contentType) || isIndexed(bucketName, item.objectName(), etag)) {
+                    continue;
+                }
+                indexQuietly(bucketName, item.objectName(), contentType, etag);
+                indexed++;
+                Thread.sleep(pauseMillis);
+            }
+            commit();
+            log.info("Full-text backlog indexing of bucket {} done, {} files indexed", bucketName, indexed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Full-text backlog indexing of bucket {} stopped after {} files: {}", bucketName, indexed, e.getMessage());
+        }
+    }
+
+    private void indexQuietly(String bucketName, String fileName, String contentType, String etag) {
+        try {
+            indexFile(bucketName, fileName, contentType, etag);
+        } catch (Exception e) {
+            log.warn("Could not index text of {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * Replace all page documents of a file atomically
+     */
+    void indexFile(String bucketName, String fileName, String contentType, String etag) throws Exception {
+        long startedAt = System.currentTimeMillis();
+        String id = documentId(bucketName, fileName);
+        List<Document> pages = new ArrayList<>();
+
+        try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(fileName)
+                .build())) {
+            if ("application/pdf".equals(contentType)) {
+                pdfDocumentLoader.load(inputStream, document -> {
+                    PDFTextStripper stripper = new PDFTextStripper();
+                    for (int page = 1; page <= document.getNumberOfPages(); page++) {
+                        stripper.setStartPage(page);
+                        stripper.setEndPage(page);
+                        pages.add(pageDocument(id, bucketName, fileName, contentType, etag, page, stripper.getText(document)));
+                    }
+                    return pages;
+                });
+            } else {
+                pages.add(pageDocument(id, bucketName, fileName, contentType, etag, 0, tika.parseToString(inputStream)));
+            }
+        }
+
+        indexWriter.updateDocuments(new Term(FIELD_ID, id), pages);
+        searcherManager.maybeRefresh();
+        log.debug("Indexed text of {} ({} pages) in {} ms", fileName, pages.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private Document pageDocument(String id, String bucketName, String fileName, String contentType,
+                                  String etag, int page, String text) {
+        String content = text.length() > minioProperties.getSearch().getMaxPageLength()
+                ? text.substring(0, minioProperties.getSearch().getMaxPageLength())
+                : text;
+        Document document = new Document();
+        document.add(new StringField(FIELD_ID, id, Field.Store.YES));
+        document.add(new StringField(FIELD_BUCKET, bucketName, Field.Store.YES));
+        document.add(new StringField(FIELD_FILE_NAME, fileName, Field.Store.YES));
+        document.add(new StoredField(FIELD_CONTENT_TYPE, contentType));
+        document.add(new StringField(FIELD_ETAG, etag != null ? etag : "", Field.Store.YES));
+        document.add(new StoredField(FIELD_PAGE, page));
+        document.add(new TextField(FIELD_CONTENT, content, Field.Store.YES));
+        return document;
+    }
+
+    private boolean isIndexed(String bucketName, String fileName, String etag) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(new TermQuery(new Term(FIELD_ID, documentId(bucketName, fileName))), 1);
+            if (topDocs.scoreDocs.length == 0) {
+                return false;
+            }
+            String indexedEtag = searcher.storedFields().document(topDocs.scoreDocs[0].doc).get(FIELD_ETAG);
+            return indexedEtag.equals(etag);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private boolean isIndexable(String contentType) {
+        return contentType != null
+                && (FileType.PDF.isValidMimeType(contentType) || FileType.DOCUMENT.isValidMimeType(contentType));
+    }
+
+    private String snippet(Highlighter highlighter, String content) {
+        try {
+            String fragment = highlighter.getBestFragment(analyzer, FIELD_CONTENT, content);
+            if (fragment != null) {
+                return fragment.strip();
+            }
+        } catch (Exception e) {
+            log.debug("Could not highlight search hit: {}", e.getMessage());
+        }
+        return content.substring(0, Math.min(content.length(), SNIPPET_LENGTH)).strip();
+    }
+
+    private void releaseQuietly(IndexSearcher searcher) {
+        if (searcher == null) {
+            return;
+        }
+        try {
+            searcherManager.release(searcher);
+        } catch (IOException e) {
+            log.debug("Could not release index searcher: {}", e.getMessage());
+        }
+    }
+
+    private static String documentId(String bucketName, String fileName) {
+        return bucketName + "/" + fileName;
+    }
+
+    private static ThreadFactory indexerThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,755 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.ImagePlaceholder;
+import minio.minio.minio.dto.ImageRendition;
+import minio.minio.minio.dto.ImageRenditionSpec;
+import minio.minio.minio.enums.FitMode;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.exception.FileNotFoundException;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import minio.minio.minio.exception.SourceChangedException;
+import minio.minio.minio.service.ImageRenditionService;
+import minio.minio.minio.util.BlurHash;
+import minio.minio.minio.util.ETagMatcher;
+import org.imgscalr.Scalr;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageRenditionServiceImpl implements ImageRenditionService {
+
+    private static final Set<String> FORMATS = Set.of("jpeg", "png");
+    private static final Set<String> MISSING_CODES = Set.of("NoSuchKey", "NoSuchBucket");
+    private static final String PRECONDITION_FAILED = "PreconditionFailed";
+    // Lectures d'une source réécrite en continu avant d'abandonner le rendu
+    private static final int MAX_SOURCE_READS = 3;
+    private static final int PRIORITY_UPLOAD = 0;
+    private static final int PRIORITY_BACKFILL = 1;
+    private static final double SUBSAMPLING_MARGIN = 2.0;
+    private static final int PLACEHOLDER_SIZE = 32;
+    private static final int PLACEHOLDER_COMPONENTS_X = 4;
+    private static final int PLACEHOLDER_COMPONENTS_Y = 3;
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+
+    private final MinioClient minioClient;
+    private final MinioProperties minioProperties;
+    private final ProcessingExecutor processingExecutor;
+    // Une seule génération par rendition, les requêtes concurrentes attendent son résultat
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean renditionBucketReady;
+    private ThreadPoolExecutor renditionWorkers;
+
+    @PostConstruct
+    public void start() {
+        int workers = minioProperties.getRendition().getWorkers();
+        // Les rendus des uploads passent avant ceux du backfill, à l'ordre d'arrivée près
+        renditionWorkers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "rendition-worker");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (renditionWorkers != null) {
+            renditionWorkers.shutdownNow();
+        }
+    }
+
+    @Override
+    public ImageRendition getRendition(FileType fileType, String fileName, ImageRenditionSpec spec, String ifNoneMatch) {
+        requireImageType(fileType);
+        String format = normalizeFormat(spec.getFormat());
+        validate(spec);
+
+        String sourceBucket = minioProperties.getBucket().nameFor(fileType);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return render(sourceBucket, fileName, spec, format, ifNoneMatch);
+                } catch (SourceChangedException e) {
+                    // Source réécrite entre le stat et la lecture : nouveau stat, donc nouvel ETag
+                    if (attempt >= MAX_SOURCE_READS) {
+                        throw e;
+                    }
+                    log.debug("Image {} changed while rendering, retrying with its new ETag", fileName);
+                }
+            }
+        } catch (FileNotFoundException | ProcessingUnavailableException | IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error rendering image {}: {}", fileName, e.getMessage(), e);
+            throw new MinioException("Failed to render image: " + e.getMessage(), e);
+        }
+    }
+
+    private ImageRendition render(String sourceBucket, String fileName, ImageRenditionSpec spec, String format,
+                                  String ifNoneMatch) throws Exception {
+        MinioProperties.Rendition settings = minioProperties.getRendition();
+        String sourceEtag = stripQuotes(statSource(sourceBucket, fileName).etag());
+        String variant = variant(spec, format);
+        String key = renditionKey(sourceBucket, fileName, sourceEtag, variant);
+        // L'ETag ne dépend que de la source et des paramètres : un 304 ne lit aucune donnée
+        String etag = "\"" + sourceEtag + "-" + variant + "\"";
+        ImageRendition.ImageRenditionBuilder rendition = ImageRendition.builder()
+                .contentType("image/" + format)
+                .etag(etag)
+                .maxAgeSeconds(settings.getCacheMaxAge().toSeconds());
+
+        if (ETagMatcher.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return rendition.notModified(true).build();
+        }
+
+        GetObjectResponse cached = getCached(settings.getBucket(), key);
+        if (cached != null) {
+            String contentLength = cached.headers().get("Content-Length");
+            return rendition
+                    .inputStream(cached)
+                    .size(contentLength != null ? Long.parseLong(contentLength) : null)
+                    .build();
+        }
+
+        // Seule la première requête d'un rendu occupe un worker, les suivantes attendent son résultat
+        byte[] content = generateOnce(key, () -> processingExecutor.run("image-rendition",
+                () -> generate(sourceBucket, fileName, sourceEtag, spec, format, settings.getBucket(), key)));
+        return rendition
+                .inputStream(new ByteArrayInputStream(content))
+                .size((long) content.length)
+                .build();
+    }
+
+    @Override
+    public Map<String, String> pregenerate(FileType fileType, String fileName, String etag) {
+        List<MinioProperties.Preset> presets = presetsFor(fileType);
+        if (presets.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (MinioProperties.Preset preset : presets) {
+            urls.put(preset.getName(), renditionUrl(fileType, fileName, preset));
+        }
+        String sourceBucket = minioProperties.getBucket().nameFor(fileType);
+        schedule(PRIORITY_UPLOAD, sourceBucket, fileName, stripQuotes(etag), presets);
+        return urls;
+    }
+
+    @Override
+    public int backfill(FileType fileType) {
+        requireImageType(fileType);
+        List<MinioProperties.Preset> presets = presetsFor(fileType);
+        if (presets.isEmpty()) {
+            return 0;
+        }
+        String sourceBucket = minioProperties.getBucket().nameFor(fileType);
+        int queued = 0;
+        try {
+            Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(sourceBucket)
+                    .recursive(true)
+                    .build());
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                if (item.isDir()) {
+                    continue;
+                }
+                if (!schedule(PRIORITY_BACKFILL, sourceBucket, item.objectName(), stripQuotes(item.etag()), presets)) {
+                    // File pleine : un nouveau backfill reprendra, les rendus existants étant ignorés
+                    break;
+                }
+                queued++;
+            }
+            log.info("Queued {} images of bucket {} for rendition backfill", queued, sourceBucket);
+            return queued;
+        } catch (Exception e) {
+            log.error("Error backfilling renditions of bucket {}: {}", sourceBucket, e.getMessage(), e);
+            throw new MinioException("Failed to backfill renditions: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void deleteRenditions(FileType fileType, String sourceBucket, Collection<String> fileNames) {
+        if (renditionWorkers == null || fileNames.isEmpty()) {
+            return;
+        }
+        List<String> prefixes = new ArrayList<>();
+        for (String fileName : fileNames) {
+            if (fileType == null || fileType == FileType.IMAGE || fileType == FileType.PHOTO) {
+                prefixes.add(renditionPrefix(sourceBucket, fileName));
+            }
+            if (fileType == null || fileType == FileType.PDF) {
+                prefixes.add(PdfThumbnailServiceImpl.thumbnailPrefix(sourceBucket, fileName));
+            }
+        }
+        if (prefixes.isEmpty()) {
+            return;
+        }
+        // Pas de limite de file : un nettoyage abandonné laisserait des rendus orphelins
+        renditionWorkers.execute(new RenditionTask(PRIORITY_UPLOAD, sequence.incrementAndGet(),
+                () -> removeDerived(prefixes)));
+    }
+
+    @Override
+    public ImagePlaceholder createPlaceholder(InputStream inputStream) {
+        // Décodage et BlurHash sur le pool de traitement, pas sur le thread de la requête d'upload
+        try {
+            return processingExecutor.run("image-placeholder", () -> computePlaceholder(inputStream));
+        } catch (ProcessingUnavailableException e) {
+            // Le placeholder est facultatif : l'upload se poursuit sans lui
+            log.warn("Skipped image placeholder: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private ImagePlaceholder computePlaceholder(InputStream inputStream) {
+        ImageRenditionSpec thumbnail = ImageRenditionSpec.builder().width(PLACEHOLDER_SIZE).height(PLACEHOLDER_SIZE).build();
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            BufferedImage decoded = imageInputStream != null ? decode(imageInputStream, List.of(thumbnail)) : null;
+            if (decoded == null) {
+                return null;
+            }
+            BufferedImage small = resize(decoded, thumbnail);
+            return ImagePlaceholder.builder()
+                    .blurhash(BlurHash.encode(small, PLACEHOLDER_COMPONENTS_X, PLACEHOLDER_COMPONENTS_Y))
+                    .dominantColor(BlurHash.averageColor(small))
+                    .build();
+        } catch (Exception e) {
+            log.warn("Could not compute image placeholder: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private boolean schedule(int priority, String sourceBucket, String fileName, String sourceEtag,
+                             List<MinioProperties.Preset> presets) {
+        if (renditionWorkers == null) {
+            return false;
+        }
+        if (renditionWorkers.getQueue().size() >= minioProperties.getRendition().getQueueCapacity()) {
+            // Les rendus manquants seront générés à la première demande
+            log.warn("Rendition queue is full, skipping pre-generation of {}", fileName);
+            return false;
+        }
+        renditionWorkers.execute(new RenditionTask(priority, sequence.incrementAndGet(),
+                () -> generatePresets(sourceBucket, fileName, sourceEtag, presets)));
+        return true;
+    }
+
+    /**
+     * Remove every version of the renditions stored under each prefix, in batches of up to 1000 keys
+     */
+    void removeDerived(List<String> prefixes) {
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        List<DeleteObject> keys = new ArrayList<>();
+        int removed = 0;
+        try {
+            for (String prefix : prefixes) {
+                for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                        .bucket(renditionBucket)
+                        .prefix(prefix)
+                        .recursive(true)
+                        .build())) {
+                    String key = result.get().objectName();
+                    // Seules les clés <etag>/<variante> appartiennent au fichier, pas celles d'un objet nommé "<fichier>/..."
+                    int slash = key.indexOf('/', prefix.length());
+                    if (slash < 0 || slash != key.lastIndexOf('/')) {
+                        continue;
+                    }
+                    keys.add(new DeleteObject(key));
+                    if (keys.size() == MAX_KEYS_PER_DELETE) {
+                        removed += removeKeys(renditionBucket, keys);
+                        keys = new ArrayList<>();
+                    }
+                }
+            }
+            removed += removeKeys(renditionBucket, keys);
+            log.debug("Removed {} renditions of {} deleted files", removed, prefixes.size());
+        } catch (ErrorResponseException e) {
+            if (!MISSING_CODES.contains(e.errorResponse().code())) {
+                log.warn("Could not remove renditions of deleted files: {}", e.getMessage());
+            }
+        } catch (Exception e) {
+            log.warn("Could not remove renditions of deleted files: {}", e.getMessage());
+        }
+    }
+
+    private int removeKeys(String bucketName, List<DeleteObject> keys) throws Exception {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        int failed = 0;
+        // La suppression n'est envoyée qu'à l'itération du résultat
+        for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName)
+                .objects(keys)
+                .build())) {
+            DeleteError error = result.get();
+            log.warn("Could not remove rendition {}: {}", error.objectName(), error.message());
+            failed++;
+        }
+        return keys.size() - failed;
+    }
+
+    private void generatePresets(String sourceBucket, String fileName, String sourceEtag,
+                                 List<MinioProperties.Preset> presets) {
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        try {
+            Map<String, ImageRenditionSpec> missing = new LinkedHashMap<>();
+            for (MinioProperties.Preset preset : presets) {
+                ImageRenditionSpec spec = toSpec(preset);
+                String key = renditionKey(sourceBucket, fileName, sourceEtag, variant(spec, normalizeFormat(spec.getFormat())));
+                if (!exists(renditionBucket, key)) {
+                    missing.put(key, spec);
+                }
+            }
+            if (missing.isEmpty()) {
+                return;
+            }
+
+            // Une seule lecture de la source pour tous les formats manquants
+            BufferedImage source = readSource(sourceBucket, fileName, sourceEtag, new ArrayList<>(missing.values()));
+            for (Map.Entry<String, ImageRenditionSpec> entry : missing.entrySet()) {
+                ImageRenditionSpec spec = entry.getValue();
+                String format = normalizeFormat(spec.getFormat());
+                generateOnce(entry.getKey(), () -> store(encode(resize(source, spec), format, spec.getQuality()),
+                        format, renditionBucket, entry.getKey()));
+            }
+        } catch (SourceChangedException e) {
+            // L'upload qui a remplacé la source a planifié ses propres rendus
+            log.debug("Image {} changed before its renditions were generated", fileName);
+        } catch (Exception e) {
+            log.warn("Could not pre-generate renditions of {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private boolean exists(String bucketName, String key) throws Exception {
+        try {
+            minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(key).build());
+            return true;
+        } catch (ErrorResponseException e) {
+            if (MISSING_CODES.contains(e.errorResponse().code())) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private List<MinioProperties.Preset> presetsFor(FileType fileType) {
+        if (fileType != FileType.IMAGE && fileType != FileType.PHOTO) {
+            return List.of();
+        }
+        return Optional.ofNullable(minioProperties.getRendition().getPresets().get(fileType)).orElse(List.of());
+    }
+
+    private StatObjectResponse statSource(String bucketName, String fileName) throws Exception {
+        try {
+            return minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(fileName).build());
+        } catch (ErrorResponseException e) {
+            if (MISSING_CODES.contains(e.errorResponse().code())) {
+                throw new FileNotFoundException(fileName);
+            }
+            throw e;
+        }
+    }
+
+    private GetObjectResponse getSource(String bucketName, String fileName, String sourceEtag) throws Exception {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName)
+                    .matchETag(sourceEtag)
+                    .build());
+        } catch (ErrorResponseException e) {
+            if (PRECONDITION_FAILED.equals(e.errorResponse().code())) {
+                throw new SourceChangedException(fileName);
+            }
+            if (MISSING_CODES.contains(e.errorResponse().code())) {
+                throw new FileNotFoundException(fileName);
+            }
+            throw e;
+        }
+    }
+
+    private GetObjectResponse getCached(String bucketName, String key) throws Exception {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(key).build());
+        } catch (ErrorResponseException e) {
+            if (MISSING_CODES.contains(e.errorResponse().code())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private byte[] generateOnce(String key, RenditionGenerator generator) throws Exception {
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        try {
+            byte[] content = generator.generate();
+            created.complete(content);
+            return content;
+        } catch (Exception e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private byte[] generate(String sourceBucket, String fileName, String sourceEtag, ImageRenditionSpec spec,
+                            String format, String renditionBucket, String key) throws Exception {
+        long startedAt = System.currentTimeMillis();
+        BufferedImage source = readSource(sourceBucket, fileName, sourceEtag, List.of(spec));
+        byte[] content = store(encode(resize(source, spec), format, spec.getQuality()), format, renditionBucket, key);
+        log.debug("Generated rendition {} ({} bytes) in {} ms", key, content.length, System.currentTimeMillis() - startedAt);
+        return content;
+    }
+
+    /**
+     * Decode the source only if it still has the ETag its renditions will be stored under
+     */
+    private BufferedImage readSource(String sourceBucket, String fileName, String sourceEtag,
+                                     List<ImageRenditionSpec> specs) throws Exception {
+        BufferedImage source;
+        try (InputStream inputStream = getSource(sourceBucket, fileName, sourceEtag);
+             ImageInputStream imageInputStream = ImageIO.createImageInputStream(inputStream)) {
+            source = decode(imageInputStream, specs);
+        }
+        if (source == null) {
+            throw new IllegalArgumentException("Unsupported image format: " + fileName);
+        }
+        return source;
+    }
+
+    /**
+     * Decode only the pixels needed by the renditions: every n-th pixel when the image is much
+     * larger than the largest rendition, and only the cropped area for a single COVER rendition.
+     * Returns null when no reader supports the image.
+     */
+    static BufferedImage decode(ImageInputStream imageInputStream, List<ImageRenditionSpec> specs) throws IOException {
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(imageInputStream, true, true);
+            int sourceWidth = reader.getWidth(0);
+            int sourceHeight = reader.getHeight(0);
+            ImageReadParam param = reader.getDefaultReadParam();
+
+            Rectangle region = specs.size() == 1 ? coverRegion(sourceWidth, sourceHeight, specs.get(0)) : null;
+            if (region != null) {
+                param.setSourceRegion(region);
+            }
+            int subsampling = subsampling(sourceWidth, sourceHeight, specs);
+            if (subsampling > 1) {
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            }
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Largest subsampling keeping the decoded image at least twice the size of every rendition,
+     * so that the final downscale still smooths the pixels skipped by the decoder
+     */
+    static int subsampling(int sourceWidth, int sourceHeight, List<ImageRenditionSpec> specs) {
+        double largestScale = 0;
+        for (ImageRenditionSpec spec : specs) {
+            largestScale = Math.max(largestScale, scale(sourceWidth, sourceHeight, spec));
+        }
+        if (largestScale <= 0 || largestScale >= 1.0) {
+            return 1;
+        }
+        return Math.max(1, (int) Math.floor(1.0 / (largestScale * SUBSAMPLING_MARGIN)));
+    }
+
+    private static double scale(int sourceWidth, int sourceHeight, ImageRenditionSpec spec) {
+        Integer width = spec.getWidth();
+        Integer height = spec.getHeight();
+        if (width == null && height == null) {
+            return 1.0;
+        }
+        double scaleX = width != null ? (double) width / sourceWidth : 0;
+        double scaleY = height != null ? (double) height / sourceHeight : 0;
+        if (width == null || height == null) {
+            return Math.max(scaleX, scaleY);
+        }
+        // CONTAIN se contente du plus petit facteur, COVER et FILL ont besoin du plus grand
+        return spec.getFit() == FitMode.CONTAIN ? Math.min(scaleX, scaleY) : Math.max(scaleX, scaleY);
+    }
+
+    private static Rectangle coverRegion(int sourceWidth, int sourceHeight, ImageRenditionSpec spec) {
+        if (spec.getFit() != FitMode.COVER || spec.getWidth() == null || spec.getHeight() == null) {
+            return null;
+        }
+        double scale = Math.max((double) spec.getWidth() / sourceWidth, (double) spec.getHeight() / sourceHeight);
+        int regionWidth = Math.min(sourceWidth, (int) Math.ceil(spec.getWidth() / scale));
+        int regionHeight = Math.min(sourceHeight, (int) Math.ceil(spec.getHeight() / scale));
+        if (regionWidth == sourceWidth && regionHeight == sourceHeight) {
+            return null;
+        }
+        return new Rectangle((sourceWidth - regionWidth) / 2, (sourceHeight - regionHeight) / 2, regionWidth, regionHeight);
+    }
+
+    private byte[] store(byte[] content, String format, String renditionBucket, String key) {
+        try {
+            ensureRenditionBucket(renditionBucket);
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(renditionBucket)
+                    .object(key)
+                    .stream(new ByteArrayInputStream(content), content.length, -1)
+                    .contentType("image/" + format)
+                    .build());
+        } catch (Exception e) {
+            // Le rendu reste servi, il sera simplement régénéré à la prochaine demande
+            log.warn("Could not store rendition {}: {}", key, e.getMessage());
+        }
+        return content;
+    }
+
+    private void ensureRenditionBucket(String bucketName) throws Exception {
+        if (renditionBucketReady) {
+            return;
+        }
+        if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build())) {
+            minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+            log.info("Created rendition bucket: {}", bucketName);
+        }
+        renditionBucketReady = true;
+    }
+
+    /**
+     * Resize an image according to the fit mode, a missing dimension following the aspect ratio
+     */
+    static BufferedImage resize(BufferedImage source, ImageRenditionSpec spec) {
+        int sourceWidth = source.getWidth();
+        int sourceHeight = source.getHeight();
+        Integer width = spec.getWidth();
+        Integer height = spec.getHeight();
+        if (width == null && height == null) {
+            return source;
+        }
+
+        FitMode fit = width != null && height != null ? spec.getFit() : FitMode.CONTAIN;
+        switch (fit) {
+            case FILL:
+                return Scalr.resize(source, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, width, height);
+            case COVER: {
+                double scale = Math.max((double) width / sourceWidth, (double) height / sourceHeight);
+                int scaledWidth = Math.max(width, (int) Math.ceil(sourceWidth * scale));
+                int scaledHeight = Math.max(height, (int) Math.ceil(sourceHeight * scale));
+                BufferedImage scaled = Scalr.resize(source, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, scaledWidth, scaledHeight);
+                return Scalr.crop(scaled, (scaledWidth - width) / 2, (scaledHeight - height) / 2, width, height);
+            }
+            case CONTAIN:
+            default: {
+                double scale = Math.min(
+                        width != null ? (double) width / sourceWidth : Double.MAX_VALUE,
+                        height != null ? (double) height / sourceHeight : Double.MAX_VALUE);
+                if (scale >= 1.0) {
+                    return source;
+                }
+                int targetWidth = Math.max(1, (int) Math.round(sourceWidth * scale));
+                int targetHeight = Math.max(1, (int) Math.round(sourceHeight * scale));
+                return Scalr.resize(source, Scalr.Method.QUALITY, Scalr.Mode.FIT_EXACT, targetWidth, targetHeight);
+            }
+        }
+    }
+
+    static byte[] encode(BufferedImage image, String format, int quality) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        if (!"jpeg".equals(format)) {
+            ImageIO.write(image, format, outputStream);
+            return outputStream.toByteArray();
+        }
+
+        // JPEG n'a pas de canal alpha : aplatir sur fond blanc
+        BufferedImage rgb = image;
+        if (image.getType() != BufferedImage.TYPE_INT_RGB) {
+            rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgb.createGraphics();
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+            graphics.dispose();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality / 100f);
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+
+    private void validate(ImageRenditionSpec spec) {
+        int maxDimension = minioProperties.getRendition().getMaxDimension();
+        for (Integer dimension : new Integer[]{spec.getWidth(), spec.getHeight()}) {
+            if (dimension != null && (dimension < 1 || dimension > maxDimension)) {
+                throw new IllegalArgumentException("Width and height must be between 1 and " + maxDimension);
+            }
+        }
+        if (spec.getQuality() < 1 || spec.getQuality() > 100) {
+            throw new IllegalArgumentException("Quality must be between 1 and 100");
+        }
+    }
+
+    private static String normalizeFormat(String format) {
+        String normalized = format == null ? "jpeg" : format.toLowerCase();
+        if ("jpg".equals(normalized)) {
+            normalized = "jpeg";
+        }
+        if (!FORMATS.contains(normalized)) {
+            throw new IllegalArgumentException("Unsupported rendition format: " + format + " (supported: jpeg, png)");
+        }
+        return normalized;
+    }
+
+    private static void requireImageType(FileType fileType) {
+        if (fileType != FileType.IMAGE && fileType != FileType.PHOTO) {
+            throw new IllegalArgumentException("Renditions are only available for IMAGE and PHOTO files");
+        }
+    }
+
+    private static ImageRenditionSpec toSpec(MinioProperties.Preset preset) {
+        return ImageRenditionSpec.builder()
+                .width(preset.getWidth())
+                .height(preset.getHeight())
+                .fit(preset.getFit())
+                .format(preset.getFormat())
+                .quality(preset.getQuality())
+                .build();
+    }
+
+    private static String renditionUrl(FileType fileType, String fileName, MinioProperties.Preset preset) {
+        return UriComponentsBuilder.fromPath("/api/files/render/{fileType}/{fileName}")
+                .queryParamIfPresent("width", Optional.ofNullable(preset.getWidth()))
+                .queryParamIfPresent("height", Optional.ofNullable(preset.getHeight()))
+                .queryParam("fit", preset.getFit().name())
+                .queryParam("format", preset.getFormat())
+                .queryParam("quality", preset.getQuality())
+                .buildAndExpand(fileType.name(), fileName)
+                .encode()
+                .toUriString();
+    }
+
+    private static String renditionKey(String sourceBucket, String fileName, String sourceEtag, String variant) {
+        return renditionPrefix(sourceBucket, fileName) + sourceEtag + "/" + variant;
+    }
+
+    private static String renditionPrefix(String sourceBucket, String fileName) {
+        return sourceBucket + "/" + fileName + "/";
+    }
+
+    private static String variant(ImageRenditionSpec spec, String format) {
+        String quality = "jpeg".equals(format) ? "-q" + spec.getQuality() : "";
+        return "w" + (spec.getWidth() != null ? spec.getWidth() : "auto")
+                + "-h" + (spec.getHeight() != null ? spec.getHeight() : "auto")
+                + "-" + spec.getFit().name().toLowerCase() + quality + "." + format;
+    }
+
+    private static String stripQuotes(String etag) {
+        return etag != null ? etag.replace("\"", "") : "";
+    }
+
+    @FunctionalInterface
+    private interface RenditionGenerator {
+        byte[] generate() throws Exception;
+    }
+
+    /**
+     * Queued rendition work, ordered by priority then by submission order
+     */
+    private static class RenditionTask implements Runnable, Comparable<RenditionTask> {
+        private final int priority;
+        private final long sequence;
+        private final Runnable work;
+
+        RenditionTask(int priority, long sequence, Runnable work) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            work.run();
+        }
+
+        @Override
+        public int compareTo(RenditionTask other) {
+            int byPriority = Integer.compare(priority, other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
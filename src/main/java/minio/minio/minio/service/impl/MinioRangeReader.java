@@ -0,0 +1,182 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import minio.minio.minio.exception.SourceChangedException;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.io.RandomAccessReadView;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Random access to a stored object through ranged GetObject calls, one fixed-size block at a time,
+ * so that PDFBox only downloads the parts of a PDF it actually reads (trailer, xref, a few objects).
+ * Every block is read at the ETag the length was stat'd with, and a block of another version throws
+ * {@link SourceChangedException}. Not thread-safe, like the other PDFBox readers.
+ */
+public class MinioRangeReader implements RandomAccessRead {
+
+    private static final String PRECONDITION_FAILED = "PreconditionFailed";
+
+    private final MinioClient minioClient;
+    private final String bucketName;
+    private final String objectName;
+    private final String etag;
+    private final long length;
+    private final int blockSize;
+    private final Map<Long, byte[]> blocks;
+    private long position;
+    private boolean closed;
+    private long bytesFetched;
+    private int requests;
+
+    public MinioRangeReader(MinioClient minioClient, String bucketName, String objectName, String etag, long length,
+                            int blockSize, int maxCachedBlocks) {
+        this.minioClient = minioClient;
+        this.bucketName = bucketName;
+        this.objectName = objectName;
+        this.etag = etag;
+        this.length = length;
+        this.blockSize = blockSize;
+        // Cache LRU des derniers blocs lus : PDFBox revient souvent sur la xref et les mêmes objets
+        this.blocks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > maxCachedBlocks;
+            }
+        };
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkClosed();
+        if (position >= length) {
+            return -1;
+        }
+        byte[] block = block(position / blockSize);
+        int value = block[(int) (position % blockSize)] & 0xff;
+        position++;
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int count) throws IOException {
+        checkClosed();
+        if (position >= length) {
+            return -1;
+        }
+        int total = 0;
+        while (total < count && position < length) {
+            byte[] block = block(position / blockSize);
+            int offsetInBlock = (int) (position % blockSize);
+            int chunk = Math.min(count - total, block.length - offsetInBlock);
+            System.arraycopy(block, offsetInBlock, buffer, offset + total, chunk);
+            position += chunk;
+            total += chunk;
+        }
+        return total;
+    }
+
+    @Override
+    public long getPosition() throws IOException {
+        checkClosed();
+        return position;
+    }
+
+    @Override
+    public void seek(long newPosition) throws IOException {
+        checkClosed();
+        if (newPosition < 0) {
+            throw new IOException("Invalid position " + newPosition);
+        }
+        position = Math.min(newPosition, length);
+    }
+
+    @Override
+    public long length() throws IOException {
+        checkClosed();
+        return length;
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean isEOF() throws IOException {
+        checkClosed();
+        return position >= length;
+    }
+
+    @Override
+    public RandomAccessReadView createView(long startPosition, long streamLength) throws IOException {
+        checkClosed();
+        return new RandomAccessReadView(this, startPosition, streamLength);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        blocks.clear();
+    }
+
+    /**
+     * Bytes downloaded from MinIO so far
+     */
+    public long getBytesFetched() {
+        return bytesFetched;
+    }
+
+    /**
+     * Ranged GetObject calls made so far
+     */
+    public int getRequests() {
+        return requests;
+    }
+
+    private byte[] block(long index) throws IOException {
+        byte[] block = blocks.get(index);
+        if (block != null) {
+            return block;
+        }
+        long offset = index * blockSize;
+        long size = Math.min(blockSize, length - offset);
+        try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder()
+                .bucket(bucketName)
+                .object(objectName)
+                .offset(offset)
+                .length(size)
+                // Des blocs de deux versions différentes donneraient un PDF incohérent
+                .matchETag(etag)
+                .build())) {
+            block = inputStream.readNBytes((int) size);
+        } catch (IOException e) {
+            throw e;
+        } catch (ErrorResponseException e) {
+            if (PRECONDITION_FAILED.equals(e.errorResponse().code())) {
+                throw new SourceChangedException(objectName);
+            }
+            throw new IOException("Failed to read " + objectName + " at offset " + offset + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new IOException("Failed to read " + objectName + " at offset " + offset + ": " + e.getMessage(), e);
+        }
+        if (block.length != size) {
+            throw new IOException("Short read of " + objectName + " at offset " + offset);
+        }
+        bytesFetched += size;
+        requests++;
+        blocks.put(index, block);
+        return block;
+    }
+
+    private void checkClosed() throws IOException {
+        if (closed) {
+            throw new IOException("Reader of " + objectName + " is closed");
+        }
+    }
+}
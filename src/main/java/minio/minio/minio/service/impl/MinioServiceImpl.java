@@ -1,47 +1,112 @@
 package minio.minio.minio.service.impl;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.*;
 import io.minio.errors.ErrorResponseException;
 import io.minio.http.Method;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
 import io.minio.messages.Item;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.dto.BucketStatistics;
+import minio.minio.minio.dto.BulkDeleteResponse;
 import minio.minio.minio.dto.FileDownloadResponse;
+import minio.minio.minio.dto.FileListPage;
 import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
 import minio.minio.minio.dto.FileUploadResponse;
+import minio.minio.minio.dto.ImagePlaceholder;
+import minio.minio.minio.enums.FileSortField;
 import minio.minio.minio.enums.FileType;
 import minio.minio.minio.exception.FileNotFoundException;
 import minio.minio.minio.exception.InvalidFileTypeException;
+import minio.minio.minio.exception.InvalidPdfException;
 import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import minio.minio.minio.exception.SourceChangedException;
+import minio.minio.minio.service.BucketStatisticsService;
+import minio.minio.minio.service.DeletionQueueService;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.service.ImageRenditionService;
 import minio.minio.minio.service.MinioService;
+import minio.minio.minio.service.ObjectIndexService;
 import minio.minio.minio.service.PdfProcessingService;
 import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.util.FileQueryMatcher;
+import minio.minio.minio.util.ListingCursor;
+import minio.minio.minio.util.MinioItemMapper;
 
+import org.apache.pdfbox.io.RandomAccessRead;
 import org.apache.tika.Tika;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MinioServiceImpl implements MinioService {
 
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+    private static final int BULK_DELETE_CONCURRENCY = 4;
+    private static final int MAX_SOURCE_READS = 3;
+
     private final MinioClient minioClient;
     private final MinioProperties minioProperties;
     private final PdfProcessingService pdfProcessingService;
+    private final ObjectIndexService objectIndexService;
+    private final FullTextSearchService fullTextSearchService;
+    private final BucketStatisticsService bucketStatisticsService;
+    private final DeletionQueueService deletionQueueService;
+    private final ImageRenditionService imageRenditionService;
+    private final MeterRegistry meterRegistry;
     private final Tika tika = new Tika();
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService crossBucketExecutor = Executors.newFixedThreadPool(FileType.values().length, runnable -> {
+        Thread thread = new Thread(runnable, "cross-bucket-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Dernier passage du nettoyeur par listing complet, pour les buckets sans index prêt
+    private final Map<String, Long> listingSweeps = new ConcurrentHashMap<>();
+    private final ExecutorService bulkDeleteExecutor = Executors.newFixedThreadPool(BULK_DELETE_CONCURRENCY, runnable -> {
+        Thread thread = new Thread(runnable, "bulk-delete");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     @PostConstruct
     public void initializeBuckets() {
@@ -95,6 +160,12 @@ public class MinioServiceImpl implements MinioService {
         }
     }
 
+    @PreDestroy
+    public void shutdown() {
+        crossBucketExecutor.shutdownNow();
+        bulkDeleteExecutor.shutdownNow();
+    }
+
     @Override
     public FileUploadResponse uploadFile(MultipartFile file, FileType fileType) {
         return uploadFile(file, fileType, null);
@@ -102,6 +173,14 @@ public class MinioServiceImpl implements MinioService {
 
     @Override
     public FileUploadResponse uploadFile(MultipartFile file, FileType fileType, String customFileName) {
+        return uploadFile(file, fileType, customFileName, null);
+    }
+
+    @Override
+    public FileUploadResponse uploadFile(MultipartFile file, FileType fileType, String customFileName, Duration ttl) {
+        if (ttl != null && (ttl.isZero() || ttl.isNegative())) {
+            throw new IllegalArgumentException("TTL must be positive");
+        }
         try {
             validateFile(file, fileType);
             
@@ -110,15 +189,46 @@ public class MinioServiceImpl implements MinioService {
             
             String fileName = customFileName != null ? customFileName : generateFileName(file.getOriginalFilename());
             String contentType = detectContentType(file);
+            validatePdfStructure(file, contentType);
+            Instant expiresAt = ttl != null ? Instant.now().plus(ttl) : null;
+            ImagePlaceholder placeholder = createPlaceholder(file, fileType, contentType);
             
-            PutObjectArgs putObjectArgs = PutObjectArgs.builder()
+            PutObjectArgs.Builder putObjectArgs = PutObjectArgs.builder()
                     .bucket(bucketName)
                     .object(fileName)
                     .stream(file.getInputStream(), file.getSize(), -1)
-                    .contentType(contentType)
-                    .build();
+                    .contentType(contentType);
+            // Stockées avec l'objet pour survivre à une reconstruction de l'index
+            Map<String, String> userMetadata = new HashMap<>();
+            if (expiresAt != null) {
+                userMetadata.put(MinioItemMapper.EXPIRES_AT, expiresAt.toString());
+            }
+            if (placeholder != null) {
+                userMetadata.put(MinioItemMapper.PLACEHOLDER, placeholder.getBlurhash());
+                userMetadata.put(MinioItemMapper.DOMINANT_COLOR, placeholder.getDominantColor());
+            }
+            if (!userMetadata.isEmpty()) {
+                putObjectArgs.userMetadata(userMetadata);
+            }
             
-            ObjectWriteResponse response = minioClient.putObject(putObjectArgs);
+            // Une suppression asynchrone encore en attente supprimerait le nouvel objet
+            boolean deletionCancelled = deletionQueueService.cancel(bucketName, fileName);
+            ObjectWriteResponse response;
+            try {
+                response = minioClient.putObject(putObjectArgs.build());
+            } catch (Exception e) {
+                if (deletionCancelled) {
+                    // L'ancien objet est toujours là : la suppression demandée doit encore s'appliquer
+                    deletionQueueService.enqueue(bucketName, fileType, List.of(fileName));
+                }
+                throw e;
+            }
+            LocalDateTime expiry = expiresAt != null ? LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()) : null;
+            indexUploadedFile(file, fileType, bucketName, fileName, contentType, response.etag(), expiry, placeholder);
+            if (fileType.isTextSearchable()) {
+                fullTextSearchService.indexFileAsync(bucketName, fileName, contentType, response.etag());
+            }
+            Map<String, String> renditions = imageRenditionService.pregenerate(fileType, fileName, response.etag());
             
             return FileUploadResponse.builder()
                     .fileName(fileName)
@@ -129,8 +239,14 @@ public class MinioServiceImpl implements MinioService {
                     .contentType(contentType)
                     .uploadedAt(LocalDateTime.now())
                     .fileId(response.etag())
+                    .expiresAt(expiry)
+                    .placeholder(placeholder != null ? placeholder.getBlurhash() : null)
+                    .dominantColor(placeholder != null ? placeholder.getDominantColor() : null)
+                    .renditions(renditions.isEmpty() ? null : renditions)
                     .build();
                     
+        } catch (InvalidPdfException | ProcessingUnavailableException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error uploading file: {}", e.getMessage(), e);
             throw new MinioException("Failed to upload file: " + e.getMessage(), e);
@@ -178,6 +294,11 @@ public class MinioServiceImpl implements MinioService {
                     .build();
             
             minioClient.removeObject(removeObjectArgs);
+            bucketStatisticsService.removeAndRecord(bucketName, fileName);
+            if (fileType.isTextSearchable()) {
+                fullTextSearchService.removeFile(bucketName, fileName);
+            }
+            imageRenditionService.deleteRenditions(fileType, bucketName, List.of(fileName));
             return true;
             
         } catch (Exception e) {
@@ -186,6 +307,254 @@ public class MinioServiceImpl implements MinioService {
         }
     }
 
+    @Override
+    public BulkDeleteResponse deleteFiles(FileType fileType, List<String> fileNames, String prefix) {
+        boolean byNames = fileNames != null && !fileNames.isEmpty();
+        boolean byPrefix = prefix != null && !prefix.isEmpty();
+        if (byNames == byPrefix) {
+            throw new IllegalArgumentException("Either fileNames or prefix must be provided");
+        }
+        long startedAt = System.currentTimeMillis();
+        String bucketName = getBucketName(fileType);
+
+        // Au plus BULK_DELETE_CONCURRENCY lots en vol : le listing par préfixe attend qu'un lot se termine
+        Semaphore inFlight = new Semaphore(BULK_DELETE_CONCURRENCY);
+        AtomicBoolean aborted = new AtomicBoolean();
+        List<Future<List<BulkDeleteResponse.DeleteError>>> batches = new ArrayList<>();
+        long requested = 0;
+        try {
+            List<String> batch = new ArrayList<>(MAX_KEYS_PER_REQUEST);
+            Iterator<String> keys = byNames ? fileNames.iterator() : listKeys(bucketName, prefix);
+            while (keys.hasNext() && !aborted.get()) {
+                batch.add(keys.next());
+                requested++;
+                if (batch.size() == MAX_KEYS_PER_REQUEST || !keys.hasNext()) {
+                    List<String> keysOfBatch = batch;
+                    inFlight.acquire();
+                    batches.add(bulkDeleteExecutor.submit(() -> {
+                        try {
+                            // Après l'échec d'un lot, ceux qui n'ont pas encore démarré ne suppriment rien
+                            if (aborted.get()) {
+                                return List.of();
+                            }
+                            return deleteBatch(fileType, bucketName, keysOfBatch);
+                        } catch (Exception e) {
+                            aborted.set(true);
+                            throw e;
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                    batch = new ArrayList<>(MAX_KEYS_PER_REQUEST);
+                }
+            }
+
+            List<BulkDeleteResponse.DeleteError> errors = new ArrayList<>();
+            for (Future<List<BulkDeleteResponse.DeleteError>> future : batches) {
+                errors.addAll(future.get());
+            }
+            log.info("Bulk deleted {} of {} files from bucket {} in {} batches",
+                    requested - errors.size(), requested, bucketName, batches.size());
+            return BulkDeleteResponse.builder()
+                    .requested(requested)
+                    .deleted(requested - errors.size())
+                    .errors(errors)
+                    .tookMs(System.currentTimeMillis() - startedAt)
+                    .build();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            batches.forEach(future -> future.cancel(true));
+            throw new MinioException("Interrupted during bulk delete", e);
+        } catch (ExecutionException e) {
+            abortBatches(aborted, batches);
+            throw new MinioException("Failed to delete files: " + e.getCause().getMessage(), e.getCause());
+        } catch (MinioException e) {
+            abortBatches(aborted, batches);
+            throw e;
+        } catch (Exception e) {
+            abortBatches(aborted, batches);
+            log.error("Error deleting files: {}", e.getMessage(), e);
+            throw new MinioException("Failed to delete files: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Skip the batches not started yet and wait for the running ones, so that no delete is still
+     * in flight once the bulk delete has failed
+     */
+    private static void abortBatches(AtomicBoolean aborted, List<Future<List<BulkDeleteResponse.DeleteError>>> batches) {
+        aborted.set(true);
+        for (Future<List<BulkDeleteResponse.DeleteError>> future : batches) {
+            try {
+                future.get();
+            } catch (ExecutionException | CancellationException e) {
+                // Seul le premier échec est remonté
+                log.debug("Bulk delete batch failed after abort: {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batches.forEach(remaining -> remaining.cancel(true));
+                return;
+            }
+        }
+    }
+
+    @Override
+    public BulkDeleteResponse deleteFilesAsync(FileType fileType, List<String> fileNames) {
+        if (fileNames == null || fileNames.isEmpty()) {
+            throw new IllegalArgumentException("fileNames must not be empty");
+        }
+        if (!deletionQueueService.isEnabled()) {
+            return deleteFiles(fileType, fileNames, null);
+        }
+        long startedAt = System.currentTimeMillis();
+        deletionQueueService.enqueue(getBucketName(fileType), fileType, fileNames);
+        return BulkDeleteResponse.builder()
+                .requested(fileNames.size())
+                .queued(fileNames.size())
+                .errors(List.of())
+                .tookMs(System.currentTimeMillis() - startedAt)
+                .build();
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${minio.expiry.initial-delay:PT1M}",
+            fixedDelayString = "${minio.expiry.sweep-interval:PT1M}")
+    public void sweepExpiredFiles() {
+        MinioProperties.Expiry expiry = minioProperties.getExpiry();
+        if (!expiry.isEnabled()) {
+            return;
+        }
+        // PDF et DOCUMENT partagent un bucket : un seul passage par bucket
+        Map<String, FileType> buckets = new LinkedHashMap<>();
+        for (FileType fileType : FileType.values()) {
+            buckets.putIfAbsent(getBucketName(fileType), fileType);
+        }
+
+        int budget = expiry.getMaxDeletesPerSweep();
+        for (Map.Entry<String, FileType> entry : buckets.entrySet()) {
+            String bucketName = entry.getKey();
+            if (budget <= 0) {
+                break;
+            }
+            List<String> expired;
+            if (objectIndexService.isReady(bucketName)) {
+                expired = objectIndexService.findExpired(bucketName, LocalDateTime.now(), budget);
+            } else {
+                expired = findExpiredByListing(bucketName, budget, expiry.getListingSweepInterval());
+            }
+            if (expired.isEmpty()) {
+                continue;
+            }
+            budget -= expired.size();
+            try {
+                if (deletionQueueService.isEnabled()) {
+                    deletionQueueService.enqueue(bucketName, entry.getValue(), expired);
+                } else {
+                    deleteFiles(entry.getValue(), expired, null);
+                }
+                log.info("Expired {} files from bucket {}", expired.size(), bucketName);
+            } catch (Exception e) {
+                log.warn("Could not delete expired files from bucket {}: {}", bucketName, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Names of expired objects found by listing a bucket whose index is not ready, at most once per interval
+     */
+    private List<String> findExpiredByListing(String bucketName, int limit, Duration interval) {
+        long now = System.currentTimeMillis();
+        Long lastSweep = listingSweeps.get(bucketName);
+        if (lastSweep != null && now - lastSweep < interval.toMillis()) {
+            return List.of();
+        }
+        List<String> expired = new ArrayList<>();
+        try {
+            LocalDateTime at = LocalDateTime.now();
+            for (Result<Item> result : minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .recursive(true)
+                    .includeUserMetadata(true)
+                    .build())) {
+                Item item = result.get();
+                if (!item.isDir() && MinioItemMapper.isExpired(MinioItemMapper.toFileMetadata(bucketName, item), at)) {
+                    expired.add(item.objectName());
+                    if (expired.size() == limit) {
+                        // Le reste sera repris au passage suivant, sans attendre l'intervalle
+                        return expired;
+                    }
+                }
+            }
+            listingSweeps.put(bucketName, now);
+        } catch (Exception e) {
+            log.warn("Could not list bucket {} for expired files: {}", bucketName, e.getMessage());
+        }
+        return expired;
+    }
+
+    /**
+     * Delete up to 1000 keys with one request, returning the keys MinIO refused
+     */
+    private List<BulkDeleteResponse.DeleteError> deleteBatch(FileType fileType, String bucketName, List<String> keys)
+            throws Exception {
+        List<DeleteObject> objects = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            objects.add(new DeleteObject(key));
+        }
+        // La suppression n'est envoyée qu'à l'itération du résultat
+        List<BulkDeleteResponse.DeleteError> errors = new ArrayList<>();
+        Set<String> failed = new HashSet<>();
+        for (Result<DeleteError> result : minioClient.removeObjects(RemoveObjectsArgs.builder()
+                .bucket(bucketName)
+                .objects(objects)
+                .build())) {
+            DeleteError error = result.get();
+            failed.add(error.objectName());
+            errors.add(BulkDeleteResponse.DeleteError.builder()
+                    .fileName(error.objectName())
+                    .code(error.code())
+                    .message(error.message())
+                    .build());
+        }
+
+        List<String> deleted = keys.stream().filter(key -> !failed.contains(key)).toList();
+        for (String key : deleted) {
+            bucketStatisticsService.removeAndRecord(bucketName, key);
+        }
+        if (fileType.isTextSearchable()) {
+            fullTextSearchService.removeFiles(bucketName, deleted);
+        }
+        imageRenditionService.deleteRenditions(fileType, bucketName, deleted);
+        return errors;
+    }
+
+    /**
+     * Lazily list the keys under a prefix
+     */
+    private Iterator<String> listKeys(String bucketName, String prefix) {
+        Iterator<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                .bucket(bucketName)
+                .prefix(prefix)
+                .recursive(true)
+                .build()).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return results.hasNext();
+            }
+
+            @Override
+            public String next() {
+                try {
+                    return results.next().get().objectName();
+                } catch (Exception e) {
+                    throw new MinioException("Failed to list files: " + e.getMessage(), e);
+                }
+            }
+        };
+    }
+
     @Override
     public FileMetadata getFileMetadata(String fileName, FileType fileType) {
         try {
@@ -205,13 +574,33 @@ public class MinioServiceImpl implements MinioService {
                     .contentType(stat.contentType())
                     .createdAt(LocalDateTime.ofInstant(stat.lastModified().toInstant(), ZoneId.systemDefault()))
                     .lastModified(LocalDateTime.ofInstant(stat.lastModified().toInstant(), ZoneId.systemDefault()))
-                    .etag(stat.etag());
+                    .etag(stat.etag())
+                    .expiresAt(MinioItemMapper.expiresAt(stat.userMetadata()))
+                    .placeholder(MinioItemMapper.userMetadataValue(stat.userMetadata(), MinioItemMapper.PLACEHOLDER))
+                    .dominantColor(MinioItemMapper.userMetadataValue(stat.userMetadata(), MinioItemMapper.DOMINANT_COLOR));
             
+            // Reuse PDF metadata already extracted for this exact version of the object
+            FileMetadata indexed = objectIndexService.find(bucketName, fileName).orElse(null);
+            boolean extracted = indexed != null && indexed.getPageCount() != null && stat.etag() != null
+                    && stat.etag().equals(indexed.getEtag());
+            if (extracted) {
+                metadataBuilder
+                        .originalFileName(indexed.getOriginalFileName())
+                        .pageCount(indexed.getPageCount())
+                        .title(indexed.getTitle())
+                        .author(indexed.getAuthor())
+                        .subject(indexed.getSubject())
+                        .creator(indexed.getCreator())
+                        .producer(indexed.getProducer())
+                        .keywords(indexed.getKeywords())
+                        .encrypted(indexed.getEncrypted());
+            }
+
             // Extract additional metadata for PDF files
-            if (fileType == FileType.PDF && "application/pdf".equals(stat.contentType())) {
-                try (InputStream inputStream = minioClient.getObject(
-                        GetObjectArgs.builder().bucket(bucketName).object(fileName).build())) {
-                    FileMetadata pdfMetadata = pdfProcessingService.extractPdfMetadata(inputStream, fileName);
+            if (!extracted && fileType == FileType.PDF && "application/pdf".equals(stat.contentType())) {
+                try {
+                    FileMetadata pdfMetadata = readPdfRanges(bucketName, fileName, stat, "metadata",
+                            source -> pdfProcessingService.extractPdfMetadata(source, fileName));
                     metadataBuilder
                             .pageCount(pdfMetadata.getPageCount())
                             .title(pdfMetadata.getTitle())
@@ -221,6 +610,9 @@ public class MinioServiceImpl implements MinioService {
                             .producer(pdfMetadata.getProducer())
                             .keywords(pdfMetadata.getKeywords())
                             .encrypted(pdfMetadata.getEncrypted());
+                    if (indexed != null) {
+                        objectIndexService.put(metadataBuilder.originalFileName(indexed.getOriginalFileName()).build());
+                    }
                 } catch (Exception pdfError) {
                     log.warn("Could not extract PDF metadata for {}: {}", fileName, pdfError.getMessage());
                 }
@@ -238,25 +630,28 @@ public class MinioServiceImpl implements MinioService {
     public List<FileMetadata> listFiles(FileType fileType) {
         try {
             String bucketName = getBucketName(fileType);
+            LocalDateTime now = LocalDateTime.now();
+            if (objectIndexService.isReady(bucketName)) {
+                return objectIndexService.list(bucketName).stream()
+                        .filter(metadata -> !MinioItemMapper.isExpired(metadata, now))
+                        .toList();
+            }
+
             List<FileMetadata> files = new ArrayList<>();
             
             ListObjectsArgs listObjectsArgs = ListObjectsArgs.builder()
                     .bucket(bucketName)
+                    .includeUserMetadata(true)
                     .build();
             
             Iterable<Result<Item>> results = minioClient.listObjects(listObjectsArgs);
             
             for (Result<Item> result : results) {
                 Item item = result.get();
-                FileMetadata metadata = FileMetadata.builder()
-                        .fileName(item.objectName())
-                        .bucketName(bucketName)
-                        .fileSize(item.size())
-                        .createdAt(LocalDateTime.ofInstant(item.lastModified().toInstant(), ZoneId.systemDefault()))
-                        .lastModified(LocalDateTime.ofInstant(item.lastModified().toInstant(), ZoneId.systemDefault()))
-                        .etag(item.etag())
-                        .build();
-                files.add(metadata);
+                FileMetadata metadata = MinioItemMapper.toFileMetadata(bucketName, item);
+                if (!MinioItemMapper.isExpired(metadata, now)) {
+                    files.add(metadata);
+                }
             }
             
             return files;
@@ -267,6 +662,240 @@ public class MinioServiceImpl implements MinioService {
         }
     }
 
+    @Override
+    public FileListPage listFiles(FileType fileType, String cursor, int limit) {
+        return listFiles(fileType, null, null, cursor, limit);
+    }
+
+    @Override
+    public FileListPage listFiles(FileType fileType, String prefix, String delimiter, String cursor, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        String startAfter = ListingCursor.decode(cursor);
+        boolean hierarchical = delimiter != null && !delimiter.isEmpty();
+        // Une clé de plus que la page indique s'il reste des objets : au-delà de 999, la sonde coûterait
+        // une seconde requête MinIO, la page est donc limitée et le curseur donne la suite
+        int pageSize = Math.min(limit, MAX_KEYS_PER_REQUEST - 1);
+        try {
+            String bucketName = getBucketName(fileType);
+            ListObjectsArgs.Builder listObjectsArgs = ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .recursive(!hierarchical)
+                    .includeUserMetadata(true)
+                    .maxKeys(pageSize + 1);
+            if (hierarchical) {
+                listObjectsArgs.delimiter(delimiter);
+            }
+            if (prefix != null && !prefix.isEmpty()) {
+                listObjectsArgs.prefix(prefix);
+            }
+            if (startAfter != null) {
+                listObjectsArgs.startAfter(startAfter);
+            }
+
+            // Comme pour S3, les préfixes communs comptent dans la taille de la page
+            List<FileMetadata> items = new ArrayList<>();
+            List<String> commonPrefixes = new ArrayList<>();
+            String lastKey = null;
+            boolean truncated = false;
+            LocalDateTime now = LocalDateTime.now();
+            Iterator<Result<Item>> results = minioClient.listObjects(listObjectsArgs.build()).iterator();
+            while (results.hasNext()) {
+                Item item = results.next().get();
+                FileMetadata metadata = item.isDir() ? null : MinioItemMapper.toFileMetadata(bucketName, item);
+                if (metadata != null && MinioItemMapper.isExpired(metadata, now)) {
+                    // Masqué immédiatement, en attendant le passage du nettoyeur
+                    lastKey = item.objectName();
+                    continue;
+                }
+                if (items.size() + commonPrefixes.size() == pageSize) {
+                    truncated = true;
+                    break;
+                }
+                if (item.isDir()) {
+                    commonPrefixes.add(item.objectName());
+                } else {
+                    items.add(metadata);
+                }
+                lastKey = item.objectName();
+            }
+
+            return FileListPage.builder()
+                    .prefix(prefix)
+                    .commonPrefixes(commonPrefixes)
+                    .items(items)
+                    .truncated(truncated)
+                    .nextCursor(truncated ? ListingCursor.encode(lastKey) : null)
+                    .build();
+
+        } catch (Exception e) {
+            log.error("Error listing files page: {}", e.getMessage(), e);
+            throw new MinioException("Failed to list files: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long forEachFile(FileType fileType, Predicate<FileMetadata> consumer) {
+        try {
+            String bucketName = getBucketName(fileType);
+            Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .recursive(true)
+                    .includeUserMetadata(true)
+                    .build());
+
+            // Les pages MinIO sont chargées au fil de l'itération : arrêter la boucle arrête le listing
+            LocalDateTime now = LocalDateTime.now();
+            long visited = 0;
+            for (Result<Item> result : results) {
+                FileMetadata metadata = MinioItemMapper.toFileMetadata(bucketName, result.get());
+                if (MinioItemMapper.isExpired(metadata, now)) {
+                    continue;
+                }
+                visited++;
+                if (!consumer.test(metadata)) {
+                    break;
+                }
+            }
+            return visited;
+
+        } catch (Exception e) {
+            log.error("Error walking files: {}", e.getMessage(), e);
+            throw new MinioException("Failed to list files: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<FileMetadata> queryFiles(FileType fileType, FileQuery query) {
+        if (query.getLimit() <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        return queryBucket(getBucketName(fileType), query);
+    }
+
+    @Override
+    public List<FileMetadata> queryAllFiles(FileQuery query) {
+        if (query.getLimit() <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        // PDF et DOCUMENT partagent un bucket : chaque bucket n'est interrogé qu'une fois
+        Map<String, Future<List<FileMetadata>>> futures = new LinkedHashMap<>();
+        for (String bucketName : minioProperties.getBucket().distinctNames()) {
+            futures.put(bucketName, crossBucketExecutor.submit(() -> queryBucket(bucketName, query)));
+        }
+
+        // Un bucket en échec fait échouer la requête : un résultat partiel passerait pour complet
+        Duration timeout = minioProperties.getIndex().getQueryTimeout();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<List<FileMetadata>> perBucket = new ArrayList<>();
+        boolean completed = false;
+        try {
+            for (Map.Entry<String, Future<List<FileMetadata>>> entry : futures.entrySet()) {
+                try {
+                    perBucket.add(entry.getValue().get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException e) {
+                    log.warn("Cross-bucket query timed out after {} waiting for bucket {}", timeout, entry.getKey());
+                    throw new ProcessingUnavailableException("Querying bucket " + entry.getKey() + " took longer than "
+                            + timeout.toSeconds() + "s, try again later", e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MinioException("Interrupted while querying all buckets", e);
+                } catch (ExecutionException e) {
+                    log.error("Cross-bucket query failed on bucket {}: {}", entry.getKey(), e.getCause().getMessage());
+                    if (e.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new MinioException("Failed to query bucket " + entry.getKey() + ": " + e.getCause().getMessage(), e.getCause());
+                }
+            }
+            completed = true;
+        } finally {
+            if (!completed) {
+                futures.values().forEach(future -> future.cancel(true));
+            }
+        }
+        return FileQueryMatcher.of(query).merge(perBucket);
+    }
+
+    /**
+     * Filtered and sorted results of one bucket, at most {@code query.limit} of them
+     */
+    private List<FileMetadata> queryBucket(String bucketName, FileQuery query) {
+        if (objectIndexService.isReady(bucketName)) {
+            return objectIndexService.query(bucketName, query);
+        }
+
+        // Sans index : parcours du bucket, filtré et trié en mémoire
+        try {
+            FileQueryMatcher matcher = FileQueryMatcher.of(query);
+            // MinIO liste par nom croissant : pour ce tri, inutile d'aller au-delà de la limite
+            boolean listingOrder = query.getSort() == FileSortField.NAME && !query.isDescending();
+            List<FileMetadata> files = new ArrayList<>();
+            Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .prefix(query.getPrefix())
+                    .recursive(true)
+                    .includeUserMetadata(true)
+                    .build());
+            for (Result<Item> result : results) {
+                FileMetadata metadata = MinioItemMapper.toFileMetadata(bucketName, result.get());
+                if (matcher.test(metadata)) {
+                    files.add(metadata);
+                    if (listingOrder && files.size() == query.getLimit()) {
+                        break;
+                    }
+                }
+            }
+            return files.stream()
+                    .sorted(matcher.comparator())
+                    .limit(query.getLimit())
+                    .toList();
+        } catch (Exception e) {
+            log.error("Error querying files: {}", e.getMessage(), e);
+            throw new MinioException("Failed to query files: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long countFiles(FileType fileType) {
+        String bucketName = getBucketName(fileType);
+        // Comme les listings, le compte ignore les objets expirés pas encore supprimés
+        if (objectIndexService.isReady(bucketName)) {
+            return objectIndexService.count(bucketName) - objectIndexService.countExpired(bucketName, LocalDateTime.now());
+        }
+        try {
+            long count = 0;
+            LocalDateTime now = LocalDateTime.now();
+            Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .recursive(true)
+                    .includeUserMetadata(true)
+                    .build());
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                if (!item.isDir() && !MinioItemMapper.isExpired(MinioItemMapper.toFileMetadata(bucketName, item), now)) {
+                    count++;
+                }
+            }
+            return count;
+        } catch (Exception e) {
+            log.error("Error counting files: {}", e.getMessage(), e);
+            throw new MinioException("Failed to count files: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public BucketStatistics getStatistics(FileType fileType) {
+        String bucketName = getBucketName(fileType);
+        if (!objectIndexService.isReady(bucketName)) {
+            return bucketStatisticsService.getStatistics(bucketName);
+        }
+        // Les objets expirés en attente du nettoyeur sont déjà masqués des listings et du compte
+        return bucketStatisticsService.getStatistics(bucketName,
+                objectIndexService.iterateExpired(bucketName, LocalDateTime.now()));
+    }
+
     @Override
     public boolean fileExists(String fileName, FileType fileType) {
         try {
@@ -373,32 +1002,81 @@ public class MinioServiceImpl implements MinioService {
         }
     }
 
+    /**
+     * Record an uploaded object in the local index. Failures only degrade listings to MinIO scans.
+     */
+    private void indexUploadedFile(MultipartFile file, FileType fileType, String bucketName, String fileName,
+                                   String contentType, String etag, LocalDateTime expiresAt,
+                                   ImagePlaceholder placeholder) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            FileMetadata.FileMetadataBuilder entry = FileMetadata.builder()
+                    .fileName(fileName)
+                    .originalFileName(file.getOriginalFilename())
+                    .bucketName(bucketName)
+                    .fileSize(file.getSize())
+                    .contentType(contentType)
+                    .createdAt(now)
+                    .lastModified(now)
+                    .etag(etag)
+                    .expiresAt(expiresAt);
+            if (placeholder != null) {
+                entry.placeholder(placeholder.getBlurhash())
+                        .dominantColor(placeholder.getDominantColor());
+            }
+
+            if (fileType == FileType.PDF && "application/pdf".equals(contentType)) {
+                try (InputStream inputStream = file.getInputStream()) {
+                    FileMetadata pdfMetadata = pdfProcessingService.extractPdfMetadata(inputStream, fileName);
+                    entry.pageCount(pdfMetadata.getPageCount())
+                            .title(pdfMetadata.getTitle())
+                            .author(pdfMetadata.getAuthor())
+                            .subject(pdfMetadata.getSubject())
+                            .creator(pdfMetadata.getCreator())
+                            .producer(pdfMetadata.getProducer())
+                            .keywords(pdfMetadata.getKeywords())
+                            .encrypted(pdfMetadata.getEncrypted());
+                } catch (Exception pdfError) {
+                    log.warn("Could not extract PDF metadata for {}: {}", fileName, pdfError.getMessage());
+                }
+            }
+
+            FileMetadata uploaded = entry.build();
+            bucketStatisticsService.putAndRecord(uploaded);
+        } catch (Exception e) {
+            log.warn("Could not index uploaded file {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    private ImagePlaceholder createPlaceholder(MultipartFile file, FileType fileType, String contentType) {
+        if ((fileType != FileType.IMAGE && fileType != FileType.PHOTO) || contentType == null || !contentType.startsWith("image/")) {
+            return null;
+        }
+        try (InputStream inputStream = file.getInputStream()) {
+            return imageRenditionService.createPlaceholder(inputStream);
+        } catch (IOException e) {
+            log.warn("Could not read {} to compute its placeholder: {}", file.getOriginalFilename(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void validatePdfStructure(MultipartFile file, String contentType) throws IOException {
+        if (!"application/pdf".equals(contentType) || !minioProperties.getPdf().isValidateOnUpload()) {
+            return;
+        }
+        // Contrôle structurel sans rendu, un PDF cassé échouerait sinon à chaque miniature
+        try (InputStream inputStream = file.getInputStream()) {
+            pdfProcessingService.validatePdfStructure(inputStream);
+        }
+    }
+
     private String detectContentType(MultipartFile file) throws IOException {
         String contentType = tika.detect(file.getInputStream(), file.getOriginalFilename());
         return contentType != null ? contentType : file.getContentType();
     }
 
     private String getBucketName(FileType fileType) {
-        MinioProperties.Bucket bucket = minioProperties.getBucket();
-        switch (fileType) {
-            case SONG:
-                return bucket.getSongs();
-            case IMAGE:
-                return bucket.getImages();
-            case VIDEO:
-                return bucket.getVideos();
-            case PHOTO:
-                return bucket.getPhotos();
-            case PDF:
-            case DOCUMENT:
-                return bucket.getDocuments();
-            case ARCHIVE:
-                return bucket.getArchives();
-            case FILE:
-                return bucket.getFiles();
-            default:
-                throw new IllegalArgumentException("Unknown file type: " + fileType);
-        }
+        return minioProperties.getBucket().nameFor(fileType);
     }
 
     private void ensureBucketExists(String bucketName) {
@@ -477,6 +1155,61 @@ public class MinioServiceImpl implements MinioService {
         }
     }
     
+    @Override
+    public int getPdfPageCount(String fileName) {
+        try {
+            String bucketName = getBucketName(FileType.PDF);
+            for (int attempt = 1; ; attempt++) {
+                StatObjectResponse stat = minioClient.statObject(
+                        StatObjectArgs.builder().bucket(bucketName).object(fileName).build());
+                try {
+                    return readPdfRanges(bucketName, fileName, stat, "page-count", pdfProcessingService::getPdfPageCount);
+                } catch (SourceChangedException e) {
+                    // PDF réécrit pendant la lecture : nouveau stat, donc nouvel ETag et nouvelle taille
+                    if (attempt >= MAX_SOURCE_READS) {
+                        throw e;
+                    }
+                    log.debug("PDF {} changed while counting its pages, retrying with its new ETag", fileName);
+                }
+            }
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                throw new FileNotFoundException(fileName);
+            }
+            log.error("Error getting page count of {}: {}", fileName, e.getMessage(), e);
+            throw new MinioException("Failed to get PDF page count: " + e.getMessage(), e);
+        } catch (MinioException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error getting page count of {}: {}", fileName, e.getMessage(), e);
+            throw new MinioException("Failed to get PDF page count: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Run a PDF operation on ranged reads of the stat'd version of a stored object and record how much
+     * of it was downloaded. Throws {@link SourceChangedException} when the object changes meanwhile.
+     */
+    private <T> T readPdfRanges(String bucketName, String fileName, StatObjectResponse stat, String operation,
+                                Function<RandomAccessRead, T> work) {
+        MinioProperties.Pdf pdf = minioProperties.getPdf();
+        long size = stat.size();
+        MinioRangeReader reader = new MinioRangeReader(minioClient, bucketName, fileName, stat.etag(), size,
+                (int) pdf.getRangeBlockSize().toBytes(), pdf.getRangeCacheBlocks());
+        try (reader) {
+            return work.apply(reader);
+        } finally {
+            DistributionSummary.builder("minio.pdf.range.bytes")
+                    .description("Bytes of stored PDFs downloaded per ranged operation")
+                    .baseUnit("bytes")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .record(reader.getBytesFetched());
+            log.debug("PDF {} of {}: {} of {} bytes fetched in {} requests", operation, fileName,
+                    reader.getBytesFetched(), size, reader.getRequests());
+        }
+    }
+
     @Override
     public String extractFileNameFromUrl(String url) {
         if (url == null || url.isEmpty()) {
@@ -0,0 +1,533 @@
+package minio.minio.minio.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Item;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.service.ObjectIndexService;
+import minio.minio.minio.util.FileQueryMatcher;
+import minio.minio.minio.util.MinioItemMapper;
+import org.h2.mvstore.Cursor;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ObjectIndexServiceImpl implements ObjectIndexService {
+
+    private static final String OBJECTS_MAP = "objects:";
+    private static final String BY_MODIFIED_MAP = "by-modified:";
+    private static final String BY_SIZE_MAP = "by-size:";
+    private static final String BY_EXPIRY_MAP = "by-expiry:";
+    private static final String RECONCILED_KEY = "reconciled:";
+    private static final int SECONDARY_KEY_PREFIX_LENGTH = 20;
+    private static final String KEY_END = String.valueOf(Character.MAX_VALUE);
+
+    private final MinioClient minioClient;
+    private final MinioProperties minioProperties;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Map<String, Object> bucketLocks = new ConcurrentHashMap<>();
+    private final Map<String, Object> reconcileLocks = new ConcurrentHashMap<>();
+    // Objets supprimés pendant la réconciliation en cours de chaque bucket
+    private final Map<String, Set<String>> reconciling = new ConcurrentHashMap<>();
+
+    private MVStore store;
+    private MVMap<String, Long> meta;
+
+    @PostConstruct
+    public void open() {
+        MinioProperties.Index index = minioProperties.getIndex();
+        if (!index.isEnabled()) {
+            log.info("Local object index is disabled, listings are served by MinIO");
+            return;
+        }
+        try {
+            Path path = Path.of(index.getPath()).toAbsolutePath();
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            store = new MVStore.Builder()
+                    .fileName(path.toString())
+                    .cacheSize(index.getCacheSizeMb())
+                    .compress()
+                    .open();
+            meta = store.openMap("meta");
+            log.info("Opened local object index at {}", path);
+        } catch (IOException | RuntimeException e) {
+            // L'index est une optimisation : le service reste fonctionnel sans lui
+            log.warn("Could not open local object index at {}: {}. Listings are served by MinIO.",
+                    index.getPath(), e.getMessage());
+            store = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (store != null && !store.isClosed()) {
+            store.close();
+        }
+    }
+
+    @Override
+    public boolean isReady(String bucketName) {
+        return store != null && meta.containsKey(RECONCILED_KEY + bucketName);
+    }
+
+    @Override
+    public FileMetadata put(FileMetadata metadata) {
+        if (store == null) {
+            return null;
+        }
+        String bucketName = metadata.getBucketName();
+        synchronized (lockFor(bucketName)) {
+            String previousJson = objects(bucketName).put(metadata.getFileName(), write(metadata));
+            FileMetadata previous = read(previousJson);
+            if (previous != null) {
+                removeSecondaryKeys(previous);
+            }
+            byModified(bucketName).put(modifiedKey(metadata), "");
+            bySize(bucketName).put(sizeKey(metadata), "");
+            if (metadata.getExpiresAt() != null) {
+                byExpiry(bucketName).put(expiryKey(metadata), "");
+            }
+            return previous;
+        }
+    }
+
+    @Override
+    public FileMetadata remove(String bucketName, String fileName) {
+        if (store == null) {
+            return null;
+        }
+        synchronized (lockFor(bucketName)) {
+            // Une réconciliation en cours ne doit pas réinsérer un objet supprimé après son listing
+            Set<String> removedDuringRun = reconciling.get(bucketName);
+            if (removedDuringRun != null) {
+                removedDuringRun.add(fileName);
+            }
+            return removeEntry(bucketName, fileName);
+        }
+    }
+
+    private FileMetadata removeEntry(String bucketName, String fileName) {
+        FileMetadata previous = read(objects(bucketName).remove(fileName));
+        if (previous != null) {
+            removeSecondaryKeys(previous);
+        }
+        return previous;
+    }
+
+    @Override
+    public Optional<FileMetadata> find(String bucketName, String fileName) {
+        if (store == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(read(objects(bucketName).get(fileName)));
+    }
+
+    @Override
+    public List<FileMetadata> list(String bucketName) {
+        if (store == null) {
+            return List.of();
+        }
+        MVMap<String, String> objects = objects(bucketName);
+        List<FileMetadata> files = new ArrayList<>(objects.size());
+        for (String json : objects.values()) {
+            files.add(read(json));
+        }
+        return files;
+    }
+
+    @Override
+    public Iterator<FileMetadata> iterate(String bucketName) {
+        if (store == null) {
+            return Collections.emptyIterator();
+        }
+        // Le curseur MVStore lit la version de la map au moment de sa création
+        Cursor<String, String> cursor = objects(bucketName).cursor(null);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public FileMetadata next() {
+                if (!cursor.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                cursor.next();
+                return read(cursor.getValue());
+            }
+        };
+    }
+
+    @Override
+    public List<FileMetadata> query(String bucketName, FileQuery query) {
+        if (store == null) {
+            return List.of();
+        }
+        FileQueryMatcher matcher = FileQueryMatcher.of(query);
+        MVMap<String, String> objects = objects(bucketName);
+        Iterator<String> candidates = switch (query.getSort()) {
+            case NAME -> namesInRange(objects, query);
+            case SIZE -> secondaryNames(bySize(bucketName), query.getMinSize(), query.getMaxSize(), query.isDescending());
+            case LAST_MODIFIED -> secondaryNames(byModified(bucketName),
+                    query.getModifiedAfter() != null ? MinioItemMapper.toEpochMilli(query.getModifiedAfter()) : null,
+                    query.getModifiedBefore() != null ? MinioItemMapper.toEpochMilli(query.getModifiedBefore()) : null,
+                    query.isDescending());
+        };
+
+        List<FileMetadata> files = new ArrayList<>();
+        while (candidates.hasNext() && files.size() < query.getLimit()) {
+            FileMetadata metadata = read(objects.get(candidates.next()));
+            if (metadata != null && matcher.test(metadata)) {
+                files.add(metadata);
+            }
+        }
+        return files;
+    }
+
+    @Override
+    public List<String> findExpired(String bucketName, LocalDateTime now, int limit) {
+        if (store == null) {
+            return List.of();
+        }
+        List<String> names = new ArrayList<>();
+        Iterator<String> expired = secondaryNames(byExpiry(bucketName), null, MinioItemMapper.toEpochMilli(now), false);
+        while (expired.hasNext() && names.size() < limit) {
+            names.add(expired.next());
+        }
+        return names;
+    }
+
+    @Override
+    public long countExpired(String bucketName, LocalDateTime now) {
+        if (store == null) {
+            return 0L;
+        }
+        // Rang des bornes de la plage dans la map : O(log n), sans parcourir les entrées
+        MVMap<String, String> byExpiry = byExpiry(bucketName);
+        return rank(byExpiry, String.format("%019d|", MinioItemMapper.toEpochMilli(now)) + KEY_END)
+                - rank(byExpiry, String.format("%019d|", 0L));
+    }
+
+    @Override
+    public Iterator<FileMetadata> iterateExpired(String bucketName, LocalDateTime now) {
+        if (store == null) {
+            return Collections.emptyIterator();
+        }
+        MVMap<String, String> objects = objects(bucketName);
+        Iterator<String> expired = secondaryNames(byExpiry(bucketName), null, MinioItemMapper.toEpochMilli(now), false);
+        return new Iterator<>() {
+            private FileMetadata upcoming = advance();
+
+            @Override
+            public boolean hasNext() {
+                return upcoming != null;
+            }
+
+            @Override
+            public FileMetadata next() {
+                if (upcoming == null) {
+                    throw new NoSuchElementException();
+                }
+                FileMetadata current = upcoming;
+                upcoming = advance();
+                return current;
+            }
+
+            private FileMetadata advance() {
+                // Une entrée supprimée depuis l'ouverture du curseur est sautée
+                while (expired.hasNext()) {
+                    FileMetadata metadata = read(objects.get(expired.next()));
+                    if (metadata != null) {
+                        return metadata;
+                    }
+                }
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public long count(String bucketName) {
+        return store != null ? objects(bucketName).sizeAsLong() : 0L;
+    }
+
+    @Override
+    public void reconcile(String bucketName) {
+        if (store == null) {
+            return;
+        }
+        synchronized (reconcileLockFor(bucketName)) {
+            Set<String> removedDuringRun = ConcurrentHashMap.newKeySet();
+            reconciling.put(bucketName, removedDuringRun);
+            try {
+                reconcile(bucketName, removedDuringRun);
+            } finally {
+                reconciling.remove(bucketName);
+            }
+        }
+    }
+
+    private void reconcile(String bucketName, Set<String> removedDuringRun) {
+        long startedAt = System.currentTimeMillis();
+        int added = 0;
+        int updated = 0;
+        int removed = 0;
+
+        try {
+            Iterable<Result<Item>> results = minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucketName)
+                    .recursive(true)
+                    .includeUserMetadata(true)
+                    .build());
+
+            // Le listing MinIO et les clés de l'index sont triés par nom : un parcours conjoint
+            // trouve les entrées absentes du listing sans garder les noms vus en mémoire
+            Iterator<String> indexed = objects(bucketName).keyIterator(null);
+            String nextIndexed = indexed.hasNext() ? indexed.next() : null;
+            for (Result<Item> result : results) {
+                Item item = result.get();
+                if (item.isDir()) {
+                    continue;
+                }
+                String objectName = item.objectName();
+                while (nextIndexed != null && nextIndexed.compareTo(objectName) <= 0) {
+                    if (!nextIndexed.equals(objectName) && removeStale(bucketName, nextIndexed, startedAt)) {
+                        removed++;
+                    }
+                    nextIndexed = indexed.hasNext() ? indexed.next() : null;
+                }
+                switch (reconcileEntry(MinioItemMapper.toFileMetadata(bucketName, item), removedDuringRun)) {
+                    case ADDED -> added++;
+                    case UPDATED -> updated++;
+                    case UNCHANGED -> { }
+                }
+            }
+            while (nextIndexed != null) {
+                if (removeStale(bucketName, nextIndexed, startedAt)) {
+                    removed++;
+                }
+                nextIndexed = indexed.hasNext() ? indexed.next() : null;
+            }
+        } catch (Exception e) {
+            throw new MinioException("Failed to reconcile object index for bucket " + bucketName + ": " + e.getMessage(), e);
+        }
+
+        meta.put(RECONCILED_KEY + bucketName, System.currentTimeMillis());
+        log.info("Reconciled object index for bucket {} in {} ms: {} added, {} updated, {} removed, {} total",
+                bucketName, System.currentTimeMillis() - startedAt, added, updated, removed, count(bucketName));
+    }
+
+    /**
+     * Apply one listed object to the index, unless a delete or a newer upload went through since it was listed
+     */
+    private Reconciled reconcileEntry(FileMetadata listed, Set<String> removedDuringRun) {
+        String bucketName = listed.getBucketName();
+        synchronized (lockFor(bucketName)) {
+            if (removedDuringRun.contains(listed.getFileName())) {
+                return Reconciled.UNCHANGED;
+            }
+            FileMetadata existing = read(objects(bucketName).get(listed.getFileName()));
+            if (existing == null) {
+                put(listed);
+                return Reconciled.ADDED;
+            }
+            if (Objects.equals(existing.getEtag(), listed.getEtag())
+                    && Objects.equals(existing.getFileSize(), listed.getFileSize())) {
+                return Reconciled.UNCHANGED;
+            }
+            if (existing.getLastModified() != null && listed.getLastModified() != null
+                    && existing.getLastModified().isAfter(listed.getLastModified())) {
+                return Reconciled.UNCHANGED;
+            }
+            // L'objet a été remplacé : les métadonnées extraites ne sont plus valables
+            put(listed);
+            return Reconciled.UPDATED;
+        }
+    }
+
+    /**
+     * Only drop entries older than this run, objects uploaded meanwhile are not in the listing yet
+     */
+    private boolean removeStale(String bucketName, String fileName, long startedAt) {
+        synchronized (lockFor(bucketName)) {
+            FileMetadata existing = read(objects(bucketName).get(fileName));
+            if (existing == null || MinioItemMapper.toEpochMilli(existing.getLastModified()) >= startedAt) {
+                return false;
+            }
+            removeEntry(bucketName, fileName);
+            return true;
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${minio.index.initial-delay:PT10S}",
+            fixedDelayString = "${minio.index.reconcile-interval:PT15M}")
+    public void reconcileAll() {
+        if (store == null) {
+            return;
+        }
+        for (String bucketName : minioProperties.getBucket().distinctNames()) {
+            try {
+                reconcile(bucketName);
+            } catch (Exception e) {
+                log.warn("Object index reconciliation skipped for bucket {}: {}", bucketName, e.getMessage());
+            }
+        }
+    }
+
+    private MVMap<String, String> objects(String bucketName) {
+        return store.openMap(OBJECTS_MAP + bucketName);
+    }
+
+    private MVMap<String, String> byModified(String bucketName) {
+        return store.openMap(BY_MODIFIED_MAP + bucketName);
+    }
+
+    private MVMap<String, String> bySize(String bucketName) {
+        return store.openMap(BY_SIZE_MAP + bucketName);
+    }
+
+    private MVMap<String, String> byExpiry(String bucketName) {
+        return store.openMap(BY_EXPIRY_MAP + bucketName);
+    }
+
+    /**
+     * Names of the primary map in order, restricted to the query prefix
+     */
+    private Iterator<String> namesInRange(MVMap<String, String> objects, FileQuery query) {
+        String prefix = query.getPrefix() != null ? query.getPrefix() : "";
+        String from = query.isDescending() ? prefix + KEY_END : prefix;
+        String to = query.isDescending() ? prefix : prefix + KEY_END;
+        return keys(objects.cursor(from, to, query.isDescending()), key -> key);
+    }
+
+    /**
+     * Names of a secondary map in order, restricted to the [min, max] range of its numeric key
+     */
+    private Iterator<String> secondaryNames(MVMap<String, String> secondary, Long min, Long max, boolean descending) {
+        String lower = String.format("%019d|", min != null ? Math.max(min, 0L) : 0L);
+        String upper = max != null ? String.format("%019d|", max) + KEY_END : KEY_END;
+        Cursor<String, String> cursor = descending ? secondary.cursor(upper, lower, true) : secondary.cursor(lower, upper, false);
+        return keys(cursor, key -> key.substring(SECONDARY_KEY_PREFIX_LENGTH));
+    }
+
+    /**
+     * Number of keys of a map lower than the given one
+     */
+    private static long rank(MVMap<String, String> map, String key) {
+        long index = map.getKeyIndex(key);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    private static Iterator<String> keys(Cursor<String, String> cursor, Function<String, String> nameOf) {
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public String next() {
+                if (!cursor.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return nameOf.apply(cursor.next());
+            }
+        };
+    }
+
+    private void removeSecondaryKeys(FileMetadata metadata) {
+        byModified(metadata.getBucketName()).remove(modifiedKey(metadata));
+        bySize(metadata.getBucketName()).remove(sizeKey(metadata));
+        if (metadata.getExpiresAt() != null) {
+            byExpiry(metadata.getBucketName()).remove(expiryKey(metadata));
+        }
+    }
+
+    /**
+     * Secondary keys are zero-padded so that lexical order matches numeric order
+     */
+    static String modifiedKey(FileMetadata metadata) {
+        return String.format("%019d|%s", MinioItemMapper.toEpochMilli(metadata.getLastModified()), metadata.getFileName());
+    }
+
+    static String expiryKey(FileMetadata metadata) {
+        return String.format("%019d|%s", MinioItemMapper.toEpochMilli(metadata.getExpiresAt()), metadata.getFileName());
+    }
+
+    static String sizeKey(FileMetadata metadata) {
+        long size = metadata.getFileSize() != null ? metadata.getFileSize() : 0L;
+        return String.format("%019d|%s", size, metadata.getFileName());
+    }
+
+    private Object lockFor(String bucketName) {
+        return bucketLocks.computeIfAbsent(bucketName, name -> new Object());
+    }
+
+    private Object reconcileLockFor(String bucketName) {
+        return reconcileLocks.computeIfAbsent(bucketName, name -> new Object());
+    }
+
+    private String write(FileMetadata metadata) {
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (IOException e) {
+            throw new MinioException("Failed to serialize index entry: " + e.getMessage(), e);
+        }
+    }
+
+    private FileMetadata read(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, FileMetadata.class);
+        } catch (IOException e) {
+            throw new MinioException("Failed to read index entry: " + e.getMessage(), e);
+        }
+    }
+
+    private enum Reconciled {
+        ADDED,
+        UPDATED,
+        UNCHANGED
+    }
+}
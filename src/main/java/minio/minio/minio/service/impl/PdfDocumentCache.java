@@ -0,0 +1,179 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.GetObjectArgs;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import minio.minio.minio.exception.SourceChangedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps a few parsed PDFs open, keyed by bucket, object and ETag, so that consecutive page renders
+ * of the same file skip the download and the parse. A document is checked out by one job at a time
+ * since PDFBox documents are not thread-safe, and is closed when unused for a while or evicted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PdfDocumentCache {
+
+    private static final String PRECONDITION_FAILED = "PreconditionFailed";
+
+    private final MinioClient minioClient;
+    private final MinioProperties minioProperties;
+    private final PdfDocumentLoader pdfDocumentLoader;
+    private final Map<String, CachedDocument> documents = new ConcurrentHashMap<>();
+
+    /**
+     * Run the work on the cached document of an object version, downloading and parsing it on first use.
+     * The document is discarded when the work fails, as it may have been left in an unknown state.
+     * Throws {@link SourceChangedException} when the object no longer has this ETag.
+     */
+    public <T> T withDocument(String bucketName, String objectName, String etag,
+                              PdfDocumentLoader.PdfWork<T> work) throws Exception {
+        MinioProperties.Pdf settings = minioProperties.getPdf();
+        if (settings.getDocumentCacheSize() <= 0) {
+            try (InputStream inputStream = download(bucketName, objectName, etag)) {
+                return pdfDocumentLoader.load(inputStream, work);
+            }
+        }
+
+        String key = bucketName + "/" + objectName + "/" + etag;
+        while (true) {
+            CachedDocument entry = documents.computeIfAbsent(key, CachedDocument::new);
+            if (!entry.lock.tryLock(settings.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ProcessingUnavailableException("PDF " + objectName + " is busy, try again later");
+            }
+            boolean loaded = false;
+            try {
+                if (entry.closed) {
+                    // Évincé entre la recherche et le verrouillage
+                    continue;
+                }
+                if (entry.openDocument == null) {
+                    try (InputStream inputStream = download(bucketName, objectName, etag)) {
+                        entry.openDocument = pdfDocumentLoader.open(inputStream);
+                    } catch (Exception e) {
+                        discard(entry);
+                        throw e;
+                    }
+                    loaded = true;
+                }
+                entry.lastUsed = System.nanoTime();
+                try {
+                    return work.apply(entry.openDocument.getDocument());
+                } catch (Exception e) {
+                    discard(entry);
+                    throw e;
+                }
+            } finally {
+                entry.lock.unlock();
+                if (loaded) {
+                    evictOverflow();
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of documents currently cached
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    @Scheduled(initialDelayString = "${minio.pdf.document-cache-sweep-interval:PT15S}",
+            fixedDelayString = "${minio.pdf.document-cache-sweep-interval:PT15S}")
+    public void evictIdle() {
+        long idleNanos = minioProperties.getPdf().getDocumentCacheIdle().toNanos();
+        long now = System.nanoTime();
+        for (CachedDocument entry : documents.values()) {
+            if (now - entry.lastUsed > idleNanos) {
+                evictIfUnused(entry);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void clear() {
+        documents.values().forEach(this::discard);
+    }
+
+    private void evictOverflow() {
+        int maxSize = minioProperties.getPdf().getDocumentCacheSize();
+        while (documents.size() > maxSize) {
+            // Le moins récemment utilisé parmi les documents libres
+            CachedDocument eldest = documents.values().stream()
+                    .filter(entry -> !entry.lock.isLocked())
+                    .min(Comparator.comparingLong(entry -> entry.lastUsed))
+                    .orElse(null);
+            if (eldest == null || !evictIfUnused(eldest)) {
+                return;
+            }
+        }
+    }
+
+    private boolean evictIfUnused(CachedDocument entry) {
+        if (!entry.lock.tryLock()) {
+            return false;
+        }
+        try {
+            discard(entry);
+            log.debug("Closed cached PDF {}", entry.key);
+            return true;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    private void discard(CachedDocument entry) {
+        entry.closed = true;
+        documents.remove(entry.key, entry);
+        if (entry.openDocument != null) {
+            entry.openDocument.close();
+        }
+    }
+
+    private InputStream download(String bucketName, String objectName, String etag) {
+        try {
+            // Le document est mis en cache sous cet ETag : une autre version ne doit pas y être lue
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .matchETag(etag)
+                    .build());
+        } catch (ErrorResponseException e) {
+            if (PRECONDITION_FAILED.equals(e.errorResponse().code())) {
+                throw new SourceChangedException(objectName);
+            }
+            throw new MinioException("Failed to download PDF " + objectName + ": " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new MinioException("Failed to download PDF " + objectName + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static final class CachedDocument {
+        private final String key;
+        private final ReentrantLock lock = new ReentrantLock();
+        private PdfDocumentLoader.OpenDocument openDocument;
+        private volatile long lastUsed = System.nanoTime();
+        private volatile boolean closed;
+
+        private CachedDocument(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package minio.minio.minio.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads PDFs from a temp file with a cap on the main memory of each document and a budget
+ * shared by all concurrent PDF jobs, instead of holding every PDF fully in the heap.
+ */
+@Component
+@Slf4j
+public class PdfDocumentLoader {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private final MinioProperties.Pdf settings;
+    // Un permis par mégaoctet de mémoire principale du budget
+    private final Semaphore memoryBudget;
+    private final int permitsPerDocument;
+
+    public PdfDocumentLoader(MinioProperties minioProperties) {
+        this.settings = minioProperties.getPdf();
+        int budget = (int) Math.max(1, settings.getMemoryBudget().toBytes() / MEGABYTE);
+        this.memoryBudget = new Semaphore(budget, true);
+        this.permitsPerDocument = (int) Math.min(budget, Math.max(1, settings.getMaxMainMemoryPerDocument().toBytes() / MEGABYTE));
+    }
+
+    /**
+     * Spool a PDF to a temp file, load it within its share of the memory budget and run the work on it.
+     * The temp file and the budget share are released when the work returns.
+     */
+    public <T> T load(InputStream inputStream, PdfWork<T> work) throws IOException {
+        return spool(inputStream, file -> load(file, work));
+    }
+
+    /**
+     * Spool a PDF to a temp file that several documents can then be loaded from, deleted when the work returns.
+     * Spooling itself does not take any share of the memory budget.
+     */
+    public <T> T spool(InputStream inputStream, PdfFileWork<T> work) throws IOException {
+        Path file = null;
+        try {
+            file = Files.createTempFile(Files.createDirectories(tempDirectory()), "pdf-", ".pdf");
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            return work.apply(file.toFile());
+        } finally {
+            if (file != null) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    /**
+     * Load a spooled PDF within its share of the memory budget and run the work on it.
+     * Each call opens its own document, so it can be used from several threads on the same file.
+     */
+    public <T> T load(File file, PdfWork<T> work) throws IOException {
+        acquire();
+        try (PDDocument document = Loader.loadPDF(file, memoryUsage(permitsPerDocument).streamCache)) {
+            return work.apply(document);
+        } finally {
+            memoryBudget.release(permitsPerDocument);
+        }
+    }
+
+    /**
+     * Load a spooled PDF with a smaller main memory cap than the per-document one, for short jobs
+     * such as validation that should not hold a full share of the budget
+     */
+    public <T> T load(File file, DataSize maxMainMemory, PdfWork<T> work) throws IOException {
+        int permits = (int) Math.min(permitsPerDocument, Math.max(1, maxMainMemory.toMegabytes()));
+        acquire(permits);
+        try (PDDocument document = Loader.loadPDF(file, memoryUsage(permits).streamCache)) {
+            return work.apply(document);
+        } finally {
+            memoryBudget.release(permits);
+        }
+    }
+
+    /**
+     * Spool a PDF and keep it open beyond a single job, for caches. The document holds its temp file
+     * and its share of the memory budget until the returned handle is closed.
+     */
+    public OpenDocument open(InputStream inputStream) throws IOException {
+        acquire();
+        Path file = null;
+        try {
+            file = Files.createTempFile(Files.createDirectories(tempDirectory()), "pdf-", ".pdf");
+            Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+            return new OpenDocument(Loader.loadPDF(file.toFile(), memoryUsage().streamCache), file);
+        } catch (IOException | RuntimeException e) {
+            if (file != null) {
+                deleteQuietly(file);
+            }
+            memoryBudget.release(permitsPerDocument);
+            throw e;
+        }
+    }
+
+    /**
+     * Load a PDF straight from a random access source within its share of the memory budget,
+     * PDFBox then only reads the parts of the source it needs
+     */
+    public <T> T load(RandomAccessRead source, PdfWork<T> work) throws IOException {
+        acquire();
+        try (PDDocument document = Loader.loadPDF(source, memoryUsage().streamCache)) {
+            return work.apply(document);
+        } finally {
+            memoryBudget.release(permitsPerDocument);
+        }
+    }
+
+    /**
+     * Number of megabytes of the memory budget currently free
+     */
+    public int availableMemoryMegabytes() {
+        return memoryBudget.availablePermits();
+    }
+
+    private void acquire() throws IOException {
+        acquire(permitsPerDocument);
+    }
+
+    private void acquire(int permits) throws IOException {
+        try {
+            if (!memoryBudget.tryAcquire(permits, settings.getAcquireTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ProcessingUnavailableException("Too many PDF documents are being processed, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for PDF memory budget", e);
+        }
+    }
+
+    private MemoryUsageSetting memoryUsage() {
+        return memoryUsage(permitsPerDocument);
+    }
+
+    private MemoryUsageSetting memoryUsage(int permits) {
+        // Au-delà de sa part, PDFBox bascule ses buffers dans un fichier temporaire
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(permits * MEGABYTE);
+        return setting.setTempDir(tempDirectory().toFile());
+    }
+
+    private Path tempDirectory() {
+        String directory = settings.getTempDirectory();
+        return directory == null || directory.isBlank()
+                ? Paths.get(System.getProperty("java.io.tmpdir"))
+                : Paths.get(directory);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete PDF temp file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * A PDF kept open by {@link #open(InputStream)}
+     */
+    public final class OpenDocument implements Closeable {
+
+        private final PDDocument document;
+        private final Path file;
+        private boolean closed;
+
+        private OpenDocument(PDDocument document, Path file) {
+            this.document = document;
+            this.file = file;
+        }
+
+        public PDDocument getDocument() {
+            return document;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                document.close();
+            } catch (IOException e) {
+                log.warn("Could not close PDF document {}: {}", file, e.getMessage());
+            } finally {
+                deleteQuietly(file);
+                memoryBudget.release(permitsPerDocument);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface PdfWork<T> {
+        T apply(PDDocument document) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface PdfFileWork<T> {
+        T apply(File file) throws IOException;
+    }
+}
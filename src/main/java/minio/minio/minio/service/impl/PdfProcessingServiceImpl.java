@@ -1,13 +1,22 @@
 package minio.minio.minio.service.impl;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
 import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.exception.InvalidPdfException;
 import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
 import minio.minio.minio.service.PdfProcessingService;
-import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessRead;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDDocumentInformation;
+import org.apache.pdfbox.pdmodel.encryption.InvalidPasswordException;
 import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.tika.Tika;
@@ -15,18 +24,54 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class PdfProcessingServiceImpl implements PdfProcessingService {
 
+    private final PdfDocumentLoader pdfDocumentLoader;
+    private final MinioProperties minioProperties;
+    private final ProcessingExecutor processingExecutor;
+    private static final byte[] PDF_HEADER = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PDF_EOF = "%%EOF".getBytes(StandardCharsets.US_ASCII);
+    private static final int MARKER_WINDOW = 1024;
+
     private final Tika tika = new Tika();
+    private ForkJoinPool textExtractionPool;
+
+    @PostConstruct
+    public void start() {
+        int parallelism = minioProperties.getPdf().getTextParallelism();
+        textExtractionPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (textExtractionPool != null) {
+            textExtractionPool.shutdownNow();
+        }
+    }
 
     @Override
     public FileMetadata extractPdfMetadata(MultipartFile file) {
@@ -41,54 +86,172 @@ public class PdfProcessingServiceImpl implements PdfProcessingService {
     @Override
     public FileMetadata extractPdfMetadata(InputStream inputStream, String fileName) {
         try {
-            byte[] pdfBytes = inputStream.readAllBytes();
-            try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-                PDDocumentInformation info = document.getDocumentInformation();
-                
-                return FileMetadata.builder()
-                        .fileName(fileName)
-                        .contentType("application/pdf")
-                        .pageCount(document.getNumberOfPages())
-                        .title(info.getTitle())
-                        .author(info.getAuthor())
-                        .subject(info.getSubject())
-                        .creator(info.getCreator())
-                        .producer(info.getProducer())
-                        .keywords(info.getKeywords())
-                        .createdAt(info.getCreationDate() != null ? 
-                            LocalDateTime.ofInstant(info.getCreationDate().toInstant(), ZoneId.systemDefault()) : null)
-                        .lastModified(info.getModificationDate() != null ? 
-                            LocalDateTime.ofInstant(info.getModificationDate().toInstant(), ZoneId.systemDefault()) : null)
-                        .encrypted(document.isEncrypted())
-                        .build();
-            }
+            return pdfDocumentLoader.load(inputStream, document -> toMetadata(document, fileName));
+        } catch (IOException e) {
+            log.error("Error extracting PDF metadata: {}", e.getMessage(), e);
+            throw new MinioException("Failed to extract PDF metadata: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public FileMetadata extractPdfMetadata(RandomAccessRead source, String fileName) {
+        try {
+            return pdfDocumentLoader.load(source, document -> toMetadata(document, fileName));
         } catch (IOException e) {
             log.error("Error extracting PDF metadata: {}", e.getMessage(), e);
             throw new MinioException("Failed to extract PDF metadata: " + e.getMessage(), e);
         }
     }
 
+    private static FileMetadata toMetadata(PDDocument document, String fileName) {
+        PDDocumentInformation info = document.getDocumentInformation();
+        
+        return FileMetadata.builder()
+                .fileName(fileName)
+                .contentType("application/pdf")
+                .pageCount(document.getNumberOfPages())
+                .title(info.getTitle())
+                .author(info.getAuthor())
+                .subject(info.getSubject())
+                .creator(info.getCreator())
+                .producer(info.getProducer())
+                .keywords(info.getKeywords())
+                .createdAt(info.getCreationDate() != null ? 
+                    LocalDateTime.ofInstant(info.getCreationDate().toInstant(), ZoneId.systemDefault()) : null)
+                .lastModified(info.getModificationDate() != null ? 
+                    LocalDateTime.ofInstant(info.getModificationDate().toInstant(), ZoneId.systemDefault()) : null)
+                .encrypted(document.isEncrypted())
+                .build();
+    }
+
     @Override
     public String extractTextFromPdf(InputStream inputStream) {
+        return extractTextFromPdf(inputStream, 1, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public String extractTextFromPdf(InputStream inputStream, int startPage, int endPage) {
+        if (startPage < 1 || endPage < startPage) {
+            throw new IllegalArgumentException("Invalid page range: " + startPage + "-" + endPage);
+        }
+        return processingExecutor.run("pdf-text", minioProperties.getPdf().getTextTimeout(), () -> {
+            try {
+                return pdfDocumentLoader.spool(inputStream, file -> extractText(file, startPage, endPage));
+            } catch (IOException e) {
+                log.error("Error extracting text from PDF: {}", e.getMessage(), e);
+                throw new MinioException("Failed to extract text from PDF: " + e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * Extract the text of a spooled PDF, splitting large page ranges into tasks run on the
+     * extraction pool. PDFBox documents are not thread-safe, so each task loads its own document.
+     */
+    private String extractText(File file, int startPage, int endPage) throws IOException {
+        MinioProperties.Pdf settings = minioProperties.getPdf();
+        int[] lastPage = new int[1];
+        String text = pdfDocumentLoader.load(file, document -> {
+            lastPage[0] = Math.min(endPage, document.getNumberOfPages());
+            // Petite plage : extraction directe sur le document déjà chargé
+            return textExtractionPool == null || lastPage[0] - startPage + 1 <= settings.getParallelTextThreshold()
+                    ? stripPages(document, startPage, lastPage[0])
+                    : null;
+        });
+        if (text != null) {
+            return text;
+        }
+
+        int pagesPerTask = Math.max(1, settings.getPagesPerTextTask());
+        // ForkJoinTask.cancel n'interrompt pas une tâche en cours : les tâches pas encore démarrées
+        // consultent ce drapeau pour s'arrêter sans charger le document
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<ForkJoinTask<String>> tasks = new ArrayList<>();
+        for (int first = startPage; first <= lastPage[0]; first += pagesPerTask) {
+            int from = first;
+            int to = Math.min(lastPage[0], first + pagesPerTask - 1);
+            tasks.add(textExtractionPool.submit(() -> abandoned.get()
+                    ? ""
+                    : pdfDocumentLoader.load(file, document -> stripPages(document, from, to))));
+        }
+        log.debug("Extracting text of pages {}-{} in {} parallel tasks", startPage, lastPage[0], tasks.size());
+
+        // Réassemblage dans l'ordre des pages
+        StringBuilder builder = new StringBuilder();
         try {
-            byte[] pdfBytes = inputStream.readAllBytes();
-            try (PDDocument document = Loader.loadPDF(pdfBytes)) {
-                PDFTextStripper textStripper = new PDFTextStripper();
-                return textStripper.getText(document);
+            for (ForkJoinTask<String> task : tasks) {
+                builder.append(task.get());
             }
-        } catch (IOException e) {
-            log.error("Error extracting text from PDF: {}", e.getMessage(), e);
-            throw new MinioException("Failed to extract text from PDF: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while extracting PDF text", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof MinioException minioException) {
+                throw minioException;
+            }
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            // Le fichier spoolé n'est supprimé qu'au retour : attendre que plus aucune tâche ne le lise
+            abandoned.set(true);
+            tasks.forEach(ForkJoinTask::quietlyJoin);
+        }
+        return builder.toString();
+    }
+
+    private static String stripPages(PDDocument document, int startPage, int endPage) throws IOException {
+        PDFTextStripper textStripper = new PDFTextStripper();
+        textStripper.setStartPage(startPage);
+        textStripper.setEndPage(endPage);
+        return textStripper.getText(document);
+    }
+
+    @Override
+    public int writeTextFromPdf(InputStream inputStream, int startPage, int endPage, Writer writer) {
+        if (startPage < 1 || endPage < startPage) {
+            throw new IllegalArgumentException("Invalid page range: " + startPage + "-" + endPage);
         }
+        // Même créneau et même délai que l'extraction en un bloc : un flux lent ne garde pas un thread indéfiniment
+        return processingExecutor.run("pdf-text-stream", minioProperties.getPdf().getTextTimeout(), () -> {
+            try {
+                return pdfDocumentLoader.load(inputStream, document -> {
+                    int lastPage = Math.min(endPage, document.getNumberOfPages());
+                    PDFTextStripper textStripper = new PDFTextStripper();
+                    // Une page à la fois : seul le texte de la page courante est en mémoire
+                    for (int page = startPage; page <= lastPage; page++) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            throw new InterruptedIOException("Text extraction cancelled at page " + page);
+                        }
+                        textStripper.setStartPage(page);
+                        textStripper.setEndPage(page);
+                        textStripper.writeText(document, writer);
+                        // Échoue dès que le client s'est déconnecté, ce qui arrête l'extraction
+                        writer.flush();
+                    }
+                    return Math.max(0, lastPage - startPage + 1);
+                });
+            } catch (IOException e) {
+                log.warn("Text streaming from PDF stopped: {}", e.getMessage());
+                throw new MinioException("Failed to extract text from PDF: " + e.getMessage(), e);
+            }
+        });
     }
 
     @Override
     public int getPdfPageCount(InputStream inputStream) {
         try {
-            byte[] pdfBytes = inputStream.readAllBytes();
-            try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+            return pdfDocumentLoader.load(inputStream, document -> {
                 return document.getNumberOfPages();
-            }
+            });
+        } catch (IOException e) {
+            log.error("Error getting PDF page count: {}", e.getMessage(), e);
+            throw new MinioException("Failed to get PDF page count: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public int getPdfPageCount(RandomAccessRead source) {
+        try {
+            return pdfDocumentLoader.load(source, PDDocument::getNumberOfPages);
         } catch (IOException e) {
             log.error("Error getting PDF page count: {}", e.getMessage(), e);
             throw new MinioException("Failed to get PDF page count: " + e.getMessage(), e);
@@ -97,36 +260,135 @@ public class PdfProcessingServiceImpl implements PdfProcessingService {
 
     @Override
     public byte[] generatePdfThumbnail(InputStream inputStream, int width, int height) {
+        return generatePdfThumbnail(inputStream, width, height, false);
+    }
+
+    @Override
+    public byte[] generatePdfThumbnail(InputStream inputStream, int width, int height, boolean keepAspectRatio) {
+        return processingExecutor.run("pdf-thumbnail", () -> renderFirstPage(inputStream, width, height, keepAspectRatio));
+    }
+
+    @Override
+    public byte[] generatePdfThumbnail(PDDocument document, int pageIndex, int width, int height, boolean keepAspectRatio) {
+        if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
+            throw new IllegalArgumentException("Page " + (pageIndex + 1) + " does not exist, the document has "
+                    + document.getNumberOfPages() + " pages");
+        }
+        // Rendu sur le thread appelant, qui détient le document : le confier à un autre thread
+        // le laisserait rendre un document fermé entre-temps par son propriétaire
+        try {
+            return toPng(renderThumbnail(document, pageIndex, width, height, keepAspectRatio));
+        } catch (IOException e) {
+            log.error("Error generating PDF thumbnail: {}", e.getMessage(), e);
+            throw new MinioException("Failed to generate PDF thumbnail: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<byte[]> generatePdfThumbnails(InputStream inputStream, List<Integer> pageIndexes, int width, int height,
+                                              boolean keepAspectRatio) {
+        if (pageIndexes.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return pdfDocumentLoader.spool(inputStream, file -> renderPages(file, pageIndexes, width, height, keepAspectRatio));
+        } catch (IOException e) {
+            log.error("Error generating PDF thumbnails: {}", e.getMessage(), e);
+            throw new MinioException("Failed to generate PDF thumbnails: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Render groups of consecutive pages side by side on the processing pool, each group on its own
+     * document loaded from the spooled file since PDFBox documents are not thread-safe
+     */
+    private List<byte[]> renderPages(File file, List<Integer> pageIndexes, int width, int height, boolean keepAspectRatio) {
+        int groups = Math.min(pageIndexes.size(), Math.max(1, minioProperties.getPdf().getThumbnailParallelism()));
+        int groupSize = (pageIndexes.size() + groups - 1) / groups;
+        List<Future<List<byte[]>>> futures = new ArrayList<>();
+        try {
+            for (int from = 0; from < pageIndexes.size(); from += groupSize) {
+                List<Integer> pages = pageIndexes.subList(from, Math.min(pageIndexes.size(), from + groupSize));
+                futures.add(processingExecutor.submit("pdf-thumbnails", () -> pdfDocumentLoader.load(file, document -> {
+                    List<byte[]> thumbnails = new ArrayList<>();
+                    for (int pageIndex : pages) {
+                        if (pageIndex < 0 || pageIndex >= document.getNumberOfPages()) {
+                            throw new IllegalArgumentException("Page " + (pageIndex + 1) + " does not exist, the document has "
+                                    + document.getNumberOfPages() + " pages");
+                        }
+                        thumbnails.add(toPng(renderThumbnail(document, pageIndex, width, height, keepAspectRatio)));
+                    }
+                    return thumbnails;
+                })));
+            }
+            // Réassemblage dans l'ordre des pages demandées
+            List<byte[]> thumbnails = new ArrayList<>();
+            for (Future<List<byte[]>> future : futures) {
+                thumbnails.addAll(processingExecutor.await("pdf-thumbnails", future));
+            }
+            return thumbnails;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private byte[] renderFirstPage(InputStream inputStream, int width, int height, boolean keepAspectRatio) {
         try {
-            byte[] pdfBytes = inputStream.readAllBytes();
-            try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+            return pdfDocumentLoader.load(inputStream, document -> {
                 if (document.getNumberOfPages() == 0) {
                     throw new MinioException("PDF document has no pages");
                 }
-                
-                PDFRenderer renderer = new PDFRenderer(document);
-                BufferedImage image = renderer.renderImageWithDPI(0, 150); // First page at 150 DPI
-                
-                // Resize image to specified dimensions
-                BufferedImage resizedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-                resizedImage.getGraphics().drawImage(image.getScaledInstance(width, height, java.awt.Image.SCALE_SMOOTH), 0, 0, null);
-                
-                // Convert to byte array
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ImageIO.write(resizedImage, "PNG", baos);
-                return baos.toByteArray();
-            }
+                return toPng(renderThumbnail(document, 0, width, height, keepAspectRatio));
+            });
         } catch (IOException e) {
             log.error("Error generating PDF thumbnail: {}", e.getMessage(), e);
             throw new MinioException("Failed to generate PDF thumbnail: " + e.getMessage(), e);
         }
     }
 
+    private static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ImageIO.write(image, "PNG", baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Render a page straight at the scale of the requested box instead of rendering at a fixed DPI
+     * and downscaling. With {@code keepAspectRatio} the page fits inside the box, otherwise it is
+     * stretched to exactly width x height.
+     */
+    static BufferedImage renderThumbnail(PDDocument document, int pageIndex, int width, int height,
+                                         boolean keepAspectRatio) throws IOException {
+        PDPage page = document.getPage(pageIndex);
+        // Le rendu couvre la cropBox, avec largeur et hauteur inversées pour une page tournée
+        PDRectangle cropBox = page.getCropBox();
+        boolean rotated = page.getRotation() % 180 != 0;
+        float pageWidth = rotated ? cropBox.getHeight() : cropBox.getWidth();
+        float pageHeight = rotated ? cropBox.getWidth() : cropBox.getHeight();
+        float scaleX = width / pageWidth;
+        float scaleY = height / pageHeight;
+
+        PDFRenderer renderer = new PDFRenderer(document);
+        if (keepAspectRatio) {
+            return renderer.renderImage(pageIndex, Math.min(scaleX, scaleY), ImageType.RGB);
+        }
+        BufferedImage rendered = renderer.renderImage(pageIndex, Math.max(scaleX, scaleY), ImageType.RGB);
+        if (rendered.getWidth() == width && rendered.getHeight() == height) {
+            return rendered;
+        }
+        // Seul un des deux axes est réduit, sur une image déjà à la taille finale
+        BufferedImage stretched = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = stretched.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(rendered, 0, 0, width, height, null);
+        graphics.dispose();
+        return stretched;
+    }
+
     @Override
     public boolean validatePdfIntegrity(InputStream inputStream) {
         try {
-            byte[] pdfBytes = inputStream.readAllBytes();
-            try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+            return pdfDocumentLoader.load(inputStream, document -> {
                 // Try to access basic document properties
                 document.getNumberOfPages();
                 document.getDocumentInformation();
@@ -138,10 +400,91 @@ public class PdfProcessingServiceImpl implements PdfProcessingService {
                 }
                 
                 return true;
-            }
+            });
+        } catch (ProcessingUnavailableException e) {
+            // Serveur saturé : le PDF n'est pas pour autant invalide
+            throw e;
         } catch (Exception e) {
             log.warn("PDF validation failed: {}", e.getMessage());
             return false;
         }
     }
+
+    @Override
+    public void validatePdfStructure(InputStream inputStream) {
+        MinioProperties.Pdf settings = minioProperties.getPdf();
+        try {
+            pdfDocumentLoader.spool(inputStream, file -> {
+                checkMarkers(file);
+                return processingExecutor.run("pdf-validate", settings.getValidationTimeout(), () -> {
+                    try {
+                        return pdfDocumentLoader.load(file, settings.getValidationMainMemory(), document -> {
+                            checkPageTree(document);
+                            return null;
+                        });
+                    } catch (InvalidPasswordException e) {
+                        throw new InvalidPdfException("the document is password protected", e);
+                    } catch (IOException | IllegalStateException | ClassCastException e) {
+                        // PDFBox signale un arbre de pages incohérent par des exceptions d'exécution
+                        throw new InvalidPdfException("unreadable structure, " + e.getMessage(), e);
+                    }
+                });
+            });
+        } catch (IOException e) {
+            throw new MinioException("Failed to read PDF: " + e.getMessage(), e);
+        }
+    }
+
+    private static void checkMarkers(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            // L'en-tête peut être précédé de quelques octets, la fin de fichier suivie de quelques autres
+            if (!contains(raf, 0, PDF_HEADER)) {
+                throw new InvalidPdfException("missing %PDF- header");
+            }
+            if (!contains(raf, Math.max(0, raf.length() - MARKER_WINDOW), PDF_EOF)) {
+                throw new InvalidPdfException("missing %%EOF marker, the file may be truncated");
+            }
+        }
+    }
+
+    private static boolean contains(RandomAccessFile raf, long offset, byte[] marker) throws IOException {
+        byte[] window = new byte[(int) Math.min(MARKER_WINDOW, raf.length() - offset)];
+        raf.seek(offset);
+        raf.readFully(window);
+        outer:
+        for (int i = 0; i <= window.length - marker.length; i++) {
+            for (int j = 0; j < marker.length; j++) {
+                if (window[i + j] != marker[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static void checkPageTree(PDDocument document) throws IOException {
+        int pageCount = document.getNumberOfPages();
+        if (pageCount <= 0) {
+            throw new InvalidPdfException("the document has no pages");
+        }
+        // Parcourt les dictionnaires de pages sans décoder leur contenu
+        int walked = 0;
+        for (PDPage page : document.getPages()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("PDF validation cancelled");
+            }
+            PDRectangle mediaBox = page.getMediaBox();
+            if (mediaBox.getWidth() <= 0 || mediaBox.getHeight() <= 0) {
+                throw new InvalidPdfException("page " + (walked + 1) + " has an empty media box");
+            }
+            walked++;
+        }
+        if (walked != pageCount) {
+            throw new InvalidPdfException("the page tree declares " + pageCount + " pages but holds " + walked);
+        }
+        if (document.isEncrypted()) {
+            log.debug("PDF is encrypted without a user password, accepted");
+        }
+    }
 }
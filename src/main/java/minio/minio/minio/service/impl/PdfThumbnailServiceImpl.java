@@ -0,0 +1,410 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.ImageRendition;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.exception.FileNotFoundException;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.SourceChangedException;
+import minio.minio.minio.service.PdfProcessingService;
+import minio.minio.minio.service.PdfThumbnailService;
+import minio.minio.minio.util.ETagMatcher;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PdfThumbnailServiceImpl implements PdfThumbnailService {
+
+    private static final String CONTENT_TYPE = "image/png";
+    private static final Set<String> MISSING_CODES = Set.of("NoSuchKey", "NoSuchBucket");
+    private static final String PRECONDITION_FAILED = "PreconditionFailed";
+    // Lectures d'un PDF réécrit en continu avant d'abandonner le rendu
+    private static final int MAX_SOURCE_READS = 3;
+
+    private final MinioClient minioClient;
+    private final MinioProperties minioProperties;
+    private final PdfProcessingService pdfProcessingService;
+    private final PdfDocumentCache pdfDocumentCache;
+    private final ProcessingExecutor processingExecutor;
+    // Les thumbnails les plus demandés restent en mémoire, dans la limite de memoryCacheSize
+    private final LinkedHashMap<String, byte[]> memoryCache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private long memoryCacheBytes;
+    private volatile boolean renditionBucketReady;
+
+    @Override
+    public ImageRendition getThumbnail(String fileName, int page, int width, int height, boolean keepAspectRatio, String ifNoneMatch) {
+        validate(page, width, height);
+
+        String sourceBucket = minioProperties.getBucket().nameFor(FileType.PDF);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return thumbnail(sourceBucket, fileName, page, width, height, keepAspectRatio, ifNoneMatch);
+                } catch (SourceChangedException e) {
+                    // PDF réécrit entre le stat et la lecture : nouveau stat, donc nouvel ETag
+                    if (attempt >= MAX_SOURCE_READS) {
+                        throw e;
+                    }
+                    log.debug("PDF {} changed while rendering, retrying with its new ETag", fileName);
+                }
+            }
+        } catch (MinioException | IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error generating PDF thumbnail for {}: {}", fileName, e.getMessage(), e);
+            throw new MinioException("Failed to generate PDF thumbnail: " + e.getMessage(), e);
+        }
+    }
+
+    private ImageRendition thumbnail(String sourceBucket, String fileName, int page, int width, int height,
+                                     boolean keepAspectRatio, String ifNoneMatch) throws Exception {
+        MinioProperties.Rendition settings = minioProperties.getRendition();
+        String sourceEtag = stripQuotes(statSource(sourceBucket, fileName).etag());
+        String variant = variant(page, width, height, keepAspectRatio);
+        String key = thumbnailKey(sourceBucket, fileName, sourceEtag, variant);
+        String etag = "\"" + sourceEtag + "-" + variant + "\"";
+        ImageRendition.ImageRenditionBuilder thumbnail = ImageRendition.builder()
+                .contentType(CONTENT_TYPE)
+                .etag(etag)
+                .maxAgeSeconds(settings.getCacheMaxAge().toSeconds());
+
+        if (ETagMatcher.matchesIfNoneMatch(ifNoneMatch, etag)) {
+            return thumbnail.notModified(true).build();
+        }
+
+        byte[] content = fromMemory(key);
+        if (content == null) {
+            content = fromBucket(settings.getBucket(), key);
+            if (content == null) {
+                content = renderOnce(key, () -> render(sourceBucket, fileName, sourceEtag, page, width, height, keepAspectRatio,
+                        settings.getBucket(), key));
+            }
+            toMemory(key, content);
+        }
+        return thumbnail
+                .inputStream(new ByteArrayInputStream(content))
+                .size((long) content.length)
+                .build();
+    }
+
+    @Override
+    public Map<Integer, byte[]> getThumbnails(String fileName, int startPage, int endPage, int width, int height, boolean keepAspectRatio) {
+        validate(startPage, width, height);
+        if (endPage < startPage) {
+            throw new IllegalArgumentException("Invalid page range: " + startPage + "-" + endPage);
+        }
+
+        String sourceBucket = minioProperties.getBucket().nameFor(FileType.PDF);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return thumbnails(sourceBucket, fileName, startPage, endPage, width, height, keepAspectRatio);
+                } catch (SourceChangedException e) {
+                    if (attempt >= MAX_SOURCE_READS) {
+                        throw e;
+                    }
+                    log.debug("PDF {} changed while rendering, retrying with its new ETag", fileName);
+                }
+            }
+        } catch (MinioException | IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("Error generating PDF thumbnails for {}: {}", fileName, e.getMessage(), e);
+            throw new MinioException("Failed to generate PDF thumbnails: " + e.getMessage(), e);
+        }
+    }
+
+    private Map<Integer, byte[]> thumbnails(String sourceBucket, String fileName, int startPage, int endPage, int width,
+                                            int height, boolean keepAspectRatio) throws Exception {
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        MinioProperties.Pdf pdf = minioProperties.getPdf();
+        StatObjectResponse stat = statSource(sourceBucket, fileName);
+        String sourceEtag = stripQuotes(stat.etag());
+        int pageCount = pageCount(sourceBucket, fileName, sourceEtag, stat.size());
+        if (startPage > pageCount) {
+            throw new IllegalArgumentException("Page " + startPage + " does not exist, the document has " + pageCount + " pages");
+        }
+        int lastPage = Math.min(endPage, pageCount);
+        // Une plage trop longue est refusée plutôt que tronquée sans que le client le sache
+        if (lastPage - startPage + 1 > pdf.getMaxThumbnailPages()) {
+            throw new IllegalArgumentException("Page range " + startPage + "-" + lastPage + " exceeds the maximum of "
+                    + pdf.getMaxThumbnailPages() + " pages per request, the document has " + pageCount + " pages");
+        }
+
+        Map<Integer, byte[]> thumbnails = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (int page = startPage; page <= lastPage; page++) {
+            String key = thumbnailKey(sourceBucket, fileName, sourceEtag, variant(page, width, height, keepAspectRatio));
+            byte[] content = fromMemory(key);
+            if (content == null) {
+                content = fromBucket(renditionBucket, key);
+            }
+            thumbnails.put(page, content);
+            if (content == null) {
+                missing.add(page - 1);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            long startedAt = System.currentTimeMillis();
+            // Un seul téléchargement du PDF pour toutes les pages manquantes
+            List<byte[]> rendered;
+            try (InputStream inputStream = getSource(sourceBucket, fileName, sourceEtag)) {
+                rendered = pdfProcessingService.generatePdfThumbnails(inputStream, missing, width, height, keepAspectRatio);
+            }
+            for (int i = 0; i < missing.size(); i++) {
+                int page = missing.get(i) + 1;
+                byte[] content = rendered.get(i);
+                store(renditionBucket, thumbnailKey(sourceBucket, fileName, sourceEtag, variant(page, width, height, keepAspectRatio)), content);
+                thumbnails.put(page, content);
+            }
+            log.debug("Rendered {} of {} thumbnails of {} in {} ms", missing.size(), thumbnails.size(), fileName,
+                    System.currentTimeMillis() - startedAt);
+        }
+        thumbnails.forEach((page, content) ->
+                toMemory(thumbnailKey(sourceBucket, fileName, sourceEtag, variant(page, width, height, keepAspectRatio)), content));
+        return thumbnails;
+    }
+
+    @Override
+    public byte[] getContactSheet(String fileName, int startPage, int endPage, int width, int height, int columns) {
+        if (columns < 1) {
+            throw new IllegalArgumentException("Columns must be at least 1");
+        }
+        Map<Integer, byte[]> thumbnails = getThumbnails(fileName, startPage, endPage, width, height, true);
+        int cellColumns = Math.min(columns, thumbnails.size());
+        int rows = (thumbnails.size() + cellColumns - 1) / cellColumns;
+        // Vérifié avant l'allocation : la planche est une image non compressée de 4 octets par pixel
+        long pixels = (long) cellColumns * width * rows * height;
+        long maxPixels = minioProperties.getPdf().getMaxContactSheetPixels();
+        if (pixels > maxPixels) {
+            throw new IllegalArgumentException("Contact sheet of " + thumbnails.size() + " pages at " + width + "x" + height
+                    + " would have " + pixels + " pixels, the maximum is " + maxPixels + ": request fewer pages or smaller thumbnails");
+        }
+        return processingExecutor.run("pdf-contact-sheet", () -> composeSheet(thumbnails, cellColumns, rows, width, height));
+    }
+
+    private static byte[] composeSheet(Map<Integer, byte[]> thumbnails, int cellColumns, int rows, int width, int height) {
+        BufferedImage sheet = new BufferedImage(cellColumns * width, rows * height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = sheet.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, sheet.getWidth(), sheet.getHeight());
+            int cell = 0;
+            for (byte[] content : thumbnails.values()) {
+                BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(content));
+                // Page centrée dans sa cellule, les thumbnails gardant leurs proportions
+                int x = (cell % cellColumns) * width + (width - thumbnail.getWidth()) / 2;
+                int y = (cell / cellColumns) * height + (height - thumbnail.getHeight()) / 2;
+                graphics.drawImage(thumbnail, x, y, null);
+                cell++;
+            }
+        } catch (IOException e) {
+            throw new MinioException("Failed to build PDF contact sheet: " + e.getMessage(), e);
+        } finally {
+            graphics.dispose();
+        }
+        try {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            ImageIO.write(sheet, "PNG", outputStream);
+            return outputStream.toByteArray();
+        } catch (IOException e) {
+            throw new MinioException("Failed to build PDF contact sheet: " + e.getMessage(), e);
+        }
+    }
+
+    private void validate(int page, int width, int height) {
+        int maxDimension = minioProperties.getRendition().getMaxDimension();
+        if (width < 1 || height < 1 || width > maxDimension || height > maxDimension) {
+            throw new IllegalArgumentException("Width and height must be between 1 and " + maxDimension);
+        }
+        if (page < 1) {
+            throw new IllegalArgumentException("Page must be at least 1");
+        }
+    }
+
+    private static String variant(int page, int width, int height, boolean keepAspectRatio) {
+        // La première page garde les clés des thumbnails déjà stockés
+        return (page > 1 ? "p" + page + "-" : "") + "w" + width + "-h" + height + (keepAspectRatio ? "-fit" : "") + ".png";
+    }
+
+    private static String thumbnailKey(String sourceBucket, String fileName, String sourceEtag, String variant) {
+        return thumbnailPrefix(sourceBucket, fileName) + sourceEtag + "/" + variant;
+    }
+
+    /**
+     * Prefix of every stored thumbnail of a PDF in the rendition bucket, whatever its version
+     */
+    static String thumbnailPrefix(String sourceBucket, String fileName) {
+        return "pdf-thumbnails/" + sourceBucket + "/" + fileName + "/";
+    }
+
+    private int pageCount(String bucketName, String fileName, String sourceEtag, long size) {
+        MinioProperties.Pdf pdf = minioProperties.getPdf();
+        // Lecture partielle : seuls le trailer, la xref et l'arbre des pages sont téléchargés
+        try (MinioRangeReader reader = new MinioRangeReader(minioClient, bucketName, fileName, sourceEtag, size,
+                (int) pdf.getRangeBlockSize().toBytes(), pdf.getRangeCacheBlocks())) {
+            return pdfProcessingService.getPdfPageCount(reader);
+        }
+    }
+
+    private StatObjectResponse statSource(String bucketName, String fileName) throws Exception {
+        try {
+            return minioClient.statObject(StatObjectArgs.builder().bucket(bucketName).object(fileName).build());
+        } catch (ErrorResponseException e) {
+            if (MISSING_CODES.contains(e.errorResponse().code())) {
+                throw new FileNotFoundException(fileName);
+            }
+            throw e;
+        }
+    }
+
+    private InputStream getSource(String bucketName, String fileName, String sourceEtag) throws Exception {
+        try {
+            // Les thumbnails sont stockés sous cet ETag : une autre version ne doit pas être rendue
+            return minioClient.getObject(GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(fileName)
+                    .matchETag(sourceEtag)
+                    .build());
+        } catch (ErrorResponseException e) {
+            if (PRECONDITION_FAILED.equals(e.errorResponse().code())) {
+                throw new SourceChangedException(fileName);
+            }
+            if (MISSING_CODES.contains(e.errorResponse().code())) {
+                throw new FileNotFoundException(fileName);
+            }
+            throw e;
+        }
+    }
+
+    private byte[] fromBucket(String bucketName, String key) throws Exception {
+        try (InputStream inputStream = minioClient.getObject(GetObjectArgs.builder().bucket(bucketName).object(key).build())) {
+            return inputStream.readAllBytes();
+        } catch (ErrorResponseException e) {
+            if (MISSING_CODES.contains(e.errorResponse().code())) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private byte[] renderOnce(String key, ThumbnailRenderer renderer) throws Exception {
+        CompletableFuture<byte[]> created = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        }
+        try {
+            byte[] content = renderer.render();
+            created.complete(content);
+            return content;
+        } catch (Exception e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    private byte[] render(String sourceBucket, String fileName, String sourceEtag, int page, int width, int height,
+                          boolean keepAspectRatio, String renditionBucket, String key) throws Exception {
+        long startedAt = System.currentTimeMillis();
+        // Les pages suivantes d'un même PDF réutilisent le document déjà téléchargé et analysé.
+        // Tout le passage par le cache tourne sur le worker : après un timeout, c'est lui qui libère
+        // ou écarte le document, une fois son rendu réellement terminé
+        byte[] content = processingExecutor.run("pdf-thumbnail", () -> pdfDocumentCache.withDocument(sourceBucket, fileName, sourceEtag,
+                document -> pdfProcessingService.generatePdfThumbnail(document, page - 1, width, height, keepAspectRatio)));
+        store(renditionBucket, key, content);
+        log.debug("Rendered PDF thumbnail {} ({} bytes) in {} ms", key, content.length, System.currentTimeMillis() - startedAt);
+        return content;
+    }
+
+    private void store(String renditionBucket, String key, byte[] content) {
+        try {
+            ensureRenditionBucket(renditionBucket);
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(renditionBucket)
+                    .object(key)
+                    .stream(new ByteArrayInputStream(content), content.length, -1)
+                    .contentType(CONTENT_TYPE)
+                    .build());
+        } catch (Exception e) {
+            // Le thumbnail reste servi, il sera simplement régénéré à la prochaine demande
+            log.warn("Could not store PDF thumbnail {}: {}", key, e.getMessage());
+        }
+    }
+
+    private void ensureRenditionBucket(String bucketName) throws Exception {
+        if (renditionBucketReady) {
+            return;
+        }
+        if (!minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucketName).build())) {
+            minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucketName).build());
+            log.info("Created rendition bucket: {}", bucketName);
+        }
+        renditionBucketReady = true;
+    }
+
+    private synchronized byte[] fromMemory(String key) {
+        return memoryCache.get(key);
+    }
+
+    private synchronized void toMemory(String key, byte[] content) {
+        long capacity = minioProperties.getRendition().getThumbnailMemoryCache().toBytes();
+        if (content.length > capacity) {
+            return;
+        }
+        byte[] previous = memoryCache.put(key, content);
+        memoryCacheBytes += content.length - (previous != null ? previous.length : 0);
+        // Éviction des entrées les moins récemment lues
+        Iterator<byte[]> eldest = memoryCache.values().iterator();
+        while (memoryCacheBytes > capacity && eldest.hasNext()) {
+            memoryCacheBytes -= eldest.next().length;
+            eldest.remove();
+        }
+    }
+
+    private static String stripQuotes(String etag) {
+        return etag != null ? etag.replace("\"", "") : "";
+    }
+
+    @FunctionalInterface
+    private interface ThumbnailRenderer {
+        byte[] render() throws Exception;
+    }
+}
@@ -0,0 +1,137 @@
+package minio.minio.minio.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the CPU-heavy PDF and image jobs of requests on a core-sized pool with a bounded queue,
+ * so that a burst of renders cannot take every request thread. A full queue or a job exceeding
+ * its timeout is reported as {@link ProcessingUnavailableException} (503).
+ */
+@Component
+@Slf4j
+public class ProcessingExecutor {
+
+    private final MinioProperties.Processing settings;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor workers;
+
+    public ProcessingExecutor(MinioProperties minioProperties, MeterRegistry meterRegistry) {
+        this.settings = minioProperties.getProcessing();
+        this.meterRegistry = meterRegistry;
+        int threads = settings.getWorkers() > 0 ? settings.getWorkers() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity())), runnable -> {
+                    Thread thread = new Thread(runnable, "processing-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        Gauge.builder("minio.processing.queue.size", workers, executor -> executor.getQueue().size())
+                .description("Processing jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("minio.processing.active", workers, ThreadPoolExecutor::getActiveCount)
+                .description("Processing jobs running")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Run a job on the processing pool and wait for its result, cancelling it on timeout or
+     * when the calling thread is interrupted
+     */
+    public <T> T run(String operation, ProcessingJob<T> job) {
+        return await(operation, submit(operation, job));
+    }
+
+    /**
+     * Run a job with its own timeout instead of the default one, for jobs with a tighter budget
+     */
+    public <T> T run(String operation, Duration timeout, ProcessingJob<T> job) {
+        return await(operation, submit(operation, job), timeout);
+    }
+
+    /**
+     * Queue a job without waiting for it, to run several jobs of one request side by side
+     */
+    public <T> Future<T> submit(String operation, ProcessingJob<T> job) {
+        long submittedAt = System.nanoTime();
+        try {
+            return workers.submit(() -> {
+                long startedAt = System.nanoTime();
+                timer("minio.processing.queue.wait", "Time spent by processing jobs waiting for a worker", operation)
+                        .record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return job.call();
+                } finally {
+                    timer("minio.processing.run", "Run time of processing jobs", operation)
+                            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            meterRegistry.counter("minio.processing.rejected", "operation", operation).increment();
+            throw new ProcessingUnavailableException("Too many processing jobs in progress, try again later");
+        }
+    }
+
+    /**
+     * Wait for a submitted job, cancelling it on timeout or when the calling thread is interrupted
+     */
+    public <T> T await(String operation, Future<T> future) {
+        return await(operation, future, settings.getTimeout());
+    }
+
+    private <T> T await(String operation, Future<T> future, Duration timeout) {
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("minio.processing.timeouts", "operation", operation).increment();
+            log.warn("Processing job {} cancelled after {}", operation, timeout);
+            throw new ProcessingUnavailableException("Processing took longer than " + timeout.toSeconds() + "s, try again later", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MinioException("Interrupted while waiting for " + operation, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new MinioException("Failed to run " + operation + ": " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private Timer timer(String name, String description, String operation) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface ProcessingJob<T> {
+        T call() throws Exception;
+    }
+}
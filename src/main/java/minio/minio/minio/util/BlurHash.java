@@ -0,0 +1,135 @@
+package minio.minio.minio.util;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Encoder of the BlurHash placeholder format (https://blurha.sh): a few DCT components of the
+ * image packed in a short base 83 string that clients decode into a blurred preview.
+ */
+public class BlurHash {
+
+    private static final String ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHash() {
+    }
+
+    /**
+     * Encode an image, which should already be downscaled to a few dozen pixels since the cost
+     * grows with the number of pixels times the number of components
+     */
+    public static String encode(BufferedImage image, int componentsX, int componentsY) {
+        if (componentsX < 1 || componentsX > 9 || componentsY < 1 || componentsY > 9) {
+            throw new IllegalArgumentException("BlurHash components must be between 1 and 9");
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        double[][] linear = toLinear(pixels);
+
+        double[][] factors = new double[componentsX * componentsY][];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                factors[j * componentsX + i] = component(linear, width, height, i, j);
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        encode83((componentsX - 1) + (componentsY - 1) * 9, 1, hash);
+
+        double maximumValue = 1;
+        if (factors.length > 1) {
+            double actualMaximum = 0;
+            for (int k = 1; k < factors.length; k++) {
+                for (double value : factors[k]) {
+                    actualMaximum = Math.max(actualMaximum, Math.abs(value));
+                }
+            }
+            int quantisedMaximum = (int) Math.max(0, Math.min(82, Math.floor(actualMaximum * 166 - 0.5)));
+            maximumValue = (quantisedMaximum + 1) / 166.0;
+            encode83(quantisedMaximum, 1, hash);
+        } else {
+            encode83(0, 1, hash);
+        }
+
+        encode83(encodeDc(factors[0]), 4, hash);
+        for (int k = 1; k < factors.length; k++) {
+            encode83(encodeAc(factors[k], maximumValue), 2, hash);
+        }
+        return hash.toString();
+    }
+
+    /**
+     * Average color of an image as {@code #rrggbb}, averaged in linear light like the BlurHash DC component
+     */
+    public static String averageColor(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double[] average = component(toLinear(image.getRGB(0, 0, width, height, null, 0, width)), width, height, 0, 0);
+        return String.format("#%02x%02x%02x", linearToSrgb(average[0]), linearToSrgb(average[1]), linearToSrgb(average[2]));
+    }
+
+    private static double[][] toLinear(int[] pixels) {
+        double[][] linear = new double[pixels.length][3];
+        for (int p = 0; p < pixels.length; p++) {
+            linear[p][0] = srgbToLinear((pixels[p] >> 16) & 0xff);
+            linear[p][1] = srgbToLinear((pixels[p] >> 8) & 0xff);
+            linear[p][2] = srgbToLinear(pixels[p] & 0xff);
+        }
+        return linear;
+    }
+
+    private static double[] component(double[][] linear, int width, int height, int i, int j) {
+        double normalisation = i == 0 && j == 0 ? 1 : 2;
+        double r = 0;
+        double g = 0;
+        double b = 0;
+        for (int y = 0; y < height; y++) {
+            double basisY = Math.cos(Math.PI * j * y / height);
+            for (int x = 0; x < width; x++) {
+                double basis = normalisation * Math.cos(Math.PI * i * x / width) * basisY;
+                double[] pixel = linear[y * width + x];
+                r += basis * pixel[0];
+                g += basis * pixel[1];
+                b += basis * pixel[2];
+            }
+        }
+        double scale = 1.0 / (width * height);
+        return new double[]{r * scale, g * scale, b * scale};
+    }
+
+    private static int encodeDc(double[] value) {
+        return (linearToSrgb(value[0]) << 16) + (linearToSrgb(value[1]) << 8) + linearToSrgb(value[2]);
+    }
+
+    private static int encodeAc(double[] value, double maximumValue) {
+        int quantR = quantiseAc(value[0] / maximumValue);
+        int quantG = quantiseAc(value[1] / maximumValue);
+        int quantB = quantiseAc(value[2] / maximumValue);
+        return quantR * 19 * 19 + quantG * 19 + quantB;
+    }
+
+    private static int quantiseAc(double value) {
+        double signedRoot = Math.copySign(Math.sqrt(Math.abs(value)), value);
+        return (int) Math.max(0, Math.min(18, Math.floor(signedRoot * 9 + 9.5)));
+    }
+
+    private static double srgbToLinear(int value) {
+        double v = value / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static int linearToSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void encode83(int value, int length, StringBuilder hash) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / (int) Math.pow(83, length - i)) % 83;
+            hash.append(ALPHABET.charAt(digit));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package minio.minio.minio.util;
+
+/**
+ * Evaluates an {@code If-None-Match} header against the ETag of a representation
+ */
+public class ETagMatcher {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETagMatcher() {
+    }
+
+    /**
+     * Check if an {@code If-None-Match} header matches an ETag: a list of ETags, any of which may be
+     * weak, or {@code *}. The comparison is weak, as required for {@code If-None-Match}.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+        String expected = opaqueTag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.strip();
+            if ("*".equals(tag) || (!tag.isEmpty() && opaqueTag(tag).equals(expected))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        String tag = etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            return tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+}
@@ -0,0 +1,136 @@
+package minio.minio.minio.util;
+
+import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Evaluates the filters of a {@link FileQuery} against file metadata
+ */
+public class FileQueryMatcher implements Predicate<FileMetadata> {
+
+    private final FileQuery query;
+    private final Pattern globPattern;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private FileQueryMatcher(FileQuery query) {
+        this.query = query;
+        this.globPattern = query.getGlob() != null ? globToPattern(query.getGlob()) : null;
+    }
+
+    public static FileQueryMatcher of(FileQuery query) {
+        return new FileQueryMatcher(query);
+    }
+
+    @Override
+    public boolean test(FileMetadata metadata) {
+        String fileName = metadata.getFileName();
+        long size = metadata.getFileSize() != null ? metadata.getFileSize() : 0L;
+
+        if (MinioItemMapper.isExpired(metadata, now)) {
+            return false;
+        }
+        if (query.getPrefix() != null && !fileName.startsWith(query.getPrefix())) {
+            return false;
+        }
+        if (globPattern != null && !globPattern.matcher(fileName).matches()) {
+            return false;
+        }
+        if (query.getMinSize() != null && size < query.getMinSize()) {
+            return false;
+        }
+        if (query.getMaxSize() != null && size > query.getMaxSize()) {
+            return false;
+        }
+        if (query.getModifiedAfter() != null
+                && (metadata.getLastModified() == null || metadata.getLastModified().isBefore(query.getModifiedAfter()))) {
+            return false;
+        }
+        if (query.getModifiedBefore() != null
+                && (metadata.getLastModified() == null || metadata.getLastModified().isAfter(query.getModifiedBefore()))) {
+            return false;
+        }
+        return query.getContentType() == null || contentTypeMatches(query.getContentType(), metadata.getContentType());
+    }
+
+    /**
+     * Order of the query results, names break ties so that the order is stable
+     */
+    public Comparator<FileMetadata> comparator() {
+        Comparator<FileMetadata> byName = Comparator.comparing(FileMetadata::getFileName);
+        Comparator<FileMetadata> comparator = switch (query.getSort()) {
+            case SIZE -> Comparator.comparing((FileMetadata metadata) ->
+                    metadata.getFileSize() != null ? metadata.getFileSize() : 0L).thenComparing(byName);
+            case LAST_MODIFIED -> Comparator.comparing((FileMetadata metadata) ->
+                    MinioItemMapper.toEpochMilli(metadata.getLastModified())).thenComparing(byName);
+            case NAME -> byName;
+        };
+        return query.isDescending() ? comparator.reversed() : comparator;
+    }
+
+    /**
+     * K-way merge of per-bucket results already sorted by {@link #comparator()}, stopping at the query limit
+     */
+    public List<FileMetadata> merge(List<List<FileMetadata>> sortedLists) {
+        Comparator<FileMetadata> comparator = comparator();
+        // Chaque entrée de la file est la tête d'une liste : {index de la liste, position}
+        PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) ->
+                comparator.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        List<FileMetadata> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < query.getLimit()) {
+            int[] head = heads.poll();
+            List<FileMetadata> source = sortedLists.get(head[0]);
+            merged.add(source.get(head[1]));
+            if (head[1] + 1 < source.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return merged;
+    }
+
+    static boolean contentTypeMatches(String expected, String actual) {
+        if (actual == null) {
+            return false;
+        }
+        if (expected.endsWith("/*")) {
+            return actual.regionMatches(true, 0, expected, 0, expected.length() - 1);
+        }
+        return expected.equalsIgnoreCase(actual);
+    }
+
+    /**
+     * Translate a glob ('*' any sequence, '?' any character) into a regular expression
+     */
+    static Pattern globToPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            if (c == '*' || c == '?') {
+                if (!literal.isEmpty()) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(c == '*' ? ".*" : ".");
+            } else {
+                literal.append(c);
+            }
+        }
+        if (!literal.isEmpty()) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+}
@@ -0,0 +1,28 @@
+package minio.minio.minio.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque continuation cursor of paginated listings, wrapping the last object name of a page
+ */
+public class ListingCursor {
+
+    private ListingCursor() {
+    }
+
+    public static String encode(String lastObjectName) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastObjectName.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid listing cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package minio.minio.minio.util;
+
+import io.minio.messages.Item;
+import minio.minio.minio.dto.FileMetadata;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+public class MinioItemMapper {
+
+    /**
+     * User metadata holding the expiry instant (ISO-8601) of objects uploaded with a TTL
+     */
+    public static final String EXPIRES_AT = "expires-at";
+
+    /**
+     * User metadata holding the BlurHash placeholder of an image
+     */
+    public static final String PLACEHOLDER = "blurhash";
+
+    /**
+     * User metadata holding the dominant color (#rrggbb) of an image
+     */
+    public static final String DOMINANT_COLOR = "dominant-color";
+
+    private MinioItemMapper() {
+    }
+
+    /**
+     * Build the metadata of a listed object. The content type is only known when the
+     * listing was requested with user metadata (MinIO extension), otherwise it is null.
+     */
+    public static FileMetadata toFileMetadata(String bucketName, Item item) {
+        LocalDateTime lastModified = toLocalDateTime(item.lastModified());
+        return FileMetadata.builder()
+                .fileName(item.objectName())
+                .bucketName(bucketName)
+                .fileSize(item.size())
+                .contentType(userMetadataValue(item.userMetadata(), "content-type"))
+                .createdAt(lastModified)
+                .lastModified(lastModified)
+                .etag(stripQuotes(item.etag()))
+                .expiresAt(expiresAt(item.userMetadata()))
+                .placeholder(userMetadataValue(item.userMetadata(), PLACEHOLDER))
+                .dominantColor(userMetadataValue(item.userMetadata(), DOMINANT_COLOR))
+                .build();
+    }
+
+    /**
+     * Expiry of an object from its user metadata, null when it has none or it is unreadable
+     */
+    public static LocalDateTime expiresAt(Map<String, String> userMetadata) {
+        String value = userMetadataValue(userMetadata, EXPIRES_AT);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.ofInstant(Instant.parse(value), ZoneId.systemDefault());
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    public static boolean isExpired(FileMetadata metadata, LocalDateTime now) {
+        return metadata.getExpiresAt() != null && !metadata.getExpiresAt().isAfter(now);
+    }
+
+    public static LocalDateTime toLocalDateTime(ZonedDateTime dateTime) {
+        return dateTime != null ? LocalDateTime.ofInstant(dateTime.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    public static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    /**
+     * Case-insensitive lookup in the user metadata returned by MinIO, with or without the x-amz-meta- prefix
+     */
+    public static String userMetadataValue(Map<String, String> userMetadata, String key) {
+        if (userMetadata == null || userMetadata.isEmpty()) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : userMetadata.entrySet()) {
+            String name = entry.getKey();
+            if (name.equalsIgnoreCase(key) || name.equalsIgnoreCase("x-amz-meta-" + key)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String stripQuotes(String etag) {
+        if (etag != null && etag.length() >= 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            return etag.substring(1, etag.length() - 1);
+        }
+        return etag;
+    }
+}
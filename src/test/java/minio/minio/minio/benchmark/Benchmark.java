@@ -0,0 +1,21 @@
+package minio.minio.minio.benchmark;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a benchmark: a plain JUnit test skipped by the regular build, so that it runs against the
+ * real Spring wiring and package-private code without a separate JMH module. Results are
+ * indicative only (no fork, short warm-up) and are logged, never asserted. Run one with
+ * {@code mvn test -Dtest=<class> -Dbenchmark=true}; sizes and iteration counts are read from
+ * {@code benchmark.*} system properties, see {@link Benchmarks#intProperty}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public @interface Benchmark {
+}
@@ -0,0 +1,79 @@
+package minio.minio.minio.benchmark;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Helpers shared by the {@link Benchmark} tests
+ */
+public class Benchmarks {
+
+    private static final int LINES_PER_PAGE = 60;
+
+    private Benchmarks() {
+    }
+
+    /**
+     * Read the {@code benchmark.<name>} system property, e.g. {@code -Dbenchmark.iterations=50}
+     */
+    public static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    /**
+     * Average duration of a run in milliseconds, after untimed warm-up runs
+     */
+    public static double millisPerRun(int warmups, int iterations, Run run) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            run.run();
+        }
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            run.run();
+        }
+        return (System.nanoTime() - startedAt) / 1e6 / iterations;
+    }
+
+    /**
+     * A4 document of full pages of Helvetica text
+     */
+    public static PDDocument textDocument(int pages) throws IOException {
+        PDDocument document = new PDDocument();
+        for (int pageIndex = 0; pageIndex < pages; pageIndex++) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
+                for (int line = 0; line < LINES_PER_PAGE; line++) {
+                    contentStream.beginText();
+                    contentStream.newLineAtOffset(40, 800 - line * 12);
+                    contentStream.showText("Page " + pageIndex + " line " + line + " of a benchmark document with enough words to process");
+                    contentStream.endText();
+                }
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Saved bytes of {@link #textDocument(int)}
+     */
+    public static byte[] textPdf(int pages) throws IOException {
+        try (PDDocument document = textDocument(pages); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            document.save(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    @FunctionalInterface
+    public interface Run {
+        void run() throws Exception;
+    }
+}
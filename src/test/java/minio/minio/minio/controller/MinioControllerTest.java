@@ -1,12 +1,23 @@
 package minio.minio.minio.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import minio.minio.minio.dto.BucketStatistics;
+import minio.minio.minio.dto.BulkDeleteResponse;
 import minio.minio.minio.dto.FileDownloadResponse;
+import minio.minio.minio.dto.FileListPage;
 import minio.minio.minio.dto.FileMetadata;
 import minio.minio.minio.dto.FileUploadResponse;
+import minio.minio.minio.dto.ImageRendition;
+import minio.minio.minio.enums.FitMode;
+import minio.minio.minio.enums.FileSortField;
 import minio.minio.minio.enums.FileType;
 import minio.minio.minio.exception.FileNotFoundException;
 import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.dto.FileSearchResponse;
+import minio.minio.minio.dto.FileSearchResult;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.service.ImageRenditionService;
+import minio.minio.minio.service.PdfThumbnailService;
 import minio.minio.minio.service.MinioService;
 import minio.minio.minio.service.PdfProcessingService;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,12 +29,20 @@ import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -41,6 +60,15 @@ class MinioControllerTest {
     @MockBean
     private PdfProcessingService pdfProcessingService;
 
+    @MockBean
+    private FullTextSearchService fullTextSearchService;
+
+    @MockBean
+    private ImageRenditionService imageRenditionService;
+
+    @MockBean
+    private PdfThumbnailService pdfThumbnailService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -122,6 +150,23 @@ class MinioControllerTest {
         verify(minioService).uploadFile(any(), eq(FileType.IMAGE), eq(customFileName));
     }
 
+    @Test
+    void uploadFile_WithTtl_PassesDuration() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "export.csv", "text/csv", "a,b".getBytes());
+        when(minioService.uploadFile(any(), eq(FileType.FILE), isNull(), eq(java.time.Duration.ofSeconds(3600))))
+                .thenReturn(mockUploadResponse);
+
+        // When & Then
+        mockMvc.perform(multipart("/api/files/upload/FILE")
+                        .file(file)
+                        .param("ttlSeconds", "3600"))
+                .andExpect(status().isOk());
+
+        verify(minioService, never()).uploadFile(any(), any(), any());
+    }
+
     @Test
     void uploadFile_InvalidFileType_ThrowsException() throws Exception {
         // Given
@@ -245,6 +290,293 @@ class MinioControllerTest {
         verify(minioService).getFileMetadata(fileName, FileType.IMAGE);
     }
 
+    @Test
+    void countFiles_Success() throws Exception {
+        // Given
+        when(minioService.countFiles(FileType.IMAGE)).thenReturn(3L);
+
+        // When & Then
+        mockMvc.perform(get("/api/files/count/IMAGE"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3"));
+
+        verify(minioService).countFiles(FileType.IMAGE);
+    }
+
+    @Test
+    void listFilesPage_Success() throws Exception {
+        // Given
+        FileListPage page = FileListPage.builder()
+                .items(List.of(mockMetadata))
+                .nextCursor("dGVzdC5qcGc")
+                .truncated(true)
+                .build();
+        when(minioService.listFiles(FileType.IMAGE, null, null, "YQ", 1)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/files/list/IMAGE").param("limit", "1").param("cursor", "YQ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].fileName").value("test.jpg"))
+                .andExpect(jsonPath("$.nextCursor").value("dGVzdC5qcGc"))
+                .andExpect(jsonPath("$.truncated").value(true));
+
+        verify(minioService, never()).listFiles(FileType.IMAGE);
+    }
+
+    @Test
+    void listFilesPage_LimitOverPageSize_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/files/list/IMAGE").param("limit", "1000"))
+                .andExpect(status().isBadRequest());
+
+        verify(minioService, never()).listFiles(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void listFilesPage_WithPrefixAndDelimiter_ReturnsCommonPrefixes() throws Exception {
+        // Given
+        FileListPage page = FileListPage.builder()
+                .prefix("albums/")
+                .commonPrefixes(List.of("albums/2024/", "albums/2025/"))
+                .items(List.of(mockMetadata))
+                .build();
+        when(minioService.listFiles(FileType.IMAGE, "albums/", "/", null, 100)).thenReturn(page);
+
+        // When & Then
+        mockMvc.perform(get("/api/files/list/IMAGE")
+                        .param("limit", "100")
+                        .param("prefix", "albums/")
+                        .param("delimiter", "/"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.commonPrefixes.length()").value(2))
+                .andExpect(jsonPath("$.commonPrefixes[0]").value("albums/2024/"))
+                .andExpect(jsonPath("$.items[0].fileName").value("test.jpg"));
+    }
+
+    @Test
+    void queryAllFiles_PassesFiltersAndLimit() throws Exception {
+        // Given
+        when(minioService.queryAllFiles(any())).thenReturn(List.of(mockMetadata));
+
+        // When & Then
+        mockMvc.perform(get("/api/files/query")
+                        .param("glob", "*.jpg")
+                        .param("sort", "LAST_MODIFIED")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fileName").value("test.jpg"));
+
+        verify(minioService).queryAllFiles(argThat(query -> "*.jpg".equals(query.getGlob())
+                && query.getSort() == FileSortField.LAST_MODIFIED
+                && query.getLimit() == 20));
+    }
+
+    @Test
+    void deleteFile_Async_ReturnsAccepted() throws Exception {
+        // Given
+        when(minioService.deleteFilesAsync(FileType.IMAGE, List.of("test.jpg")))
+                .thenReturn(BulkDeleteResponse.builder().requested(1).queued(1).build());
+
+        // When & Then
+        mockMvc.perform(delete("/api/files/IMAGE/test.jpg").param("async", "true"))
+                .andExpect(status().isAccepted());
+
+        verify(minioService, never()).deleteFile(anyString(), any());
+    }
+
+    @Test
+    void deleteFiles_ReturnsPerKeyErrors() throws Exception {
+        // Given
+        BulkDeleteResponse response = BulkDeleteResponse.builder()
+                .requested(2)
+                .deleted(1)
+                .errors(List.of(BulkDeleteResponse.DeleteError.builder()
+                        .fileName("locked.jpg")
+                        .code("AccessDenied")
+                        .build()))
+                .build();
+        when(minioService.deleteFiles(FileType.IMAGE, List.of("a.jpg", "locked.jpg"), null)).thenReturn(response);
+
+        // When & Then
+        mockMvc.perform(post("/api/files/delete/IMAGE")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fileNames\":[\"a.jpg\",\"locked.jpg\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.errors[0].fileName").value("locked.jpg"));
+    }
+
+    @Test
+    void renderImage_ReturnsRenditionWithCacheHeaders() throws Exception {
+        // Given
+        ImageRendition rendition = ImageRendition.builder()
+                .inputStream(new ByteArrayInputStream(new byte[]{1, 2, 3}))
+                .contentType("image/jpeg")
+                .size(3L)
+                .etag("\"abc-w200\"")
+                .maxAgeSeconds(3600)
+                .build();
+        when(imageRenditionService.getRendition(eq(FileType.IMAGE), eq("photo.jpg"),
+                argThat(spec -> spec.getWidth() == 200 && spec.getFit() == FitMode.COVER), isNull()))
+                .thenReturn(rendition);
+
+        // When & Then
+        mockMvc.perform(get("/api/files/render/IMAGE/photo.jpg")
+                        .param("width", "200")
+                        .param("height", "200")
+                        .param("fit", "COVER"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/jpeg"))
+                .andExpect(header().string("ETag", "\"abc-w200\""))
+                .andExpect(header().string("Cache-Control", "max-age=3600, public, immutable"));
+    }
+
+    @Test
+    void renderImage_MatchingEtag_ReturnsNotModified() throws Exception {
+        // Given
+        when(imageRenditionService.getRendition(eq(FileType.IMAGE), eq("photo.jpg"), any(), eq("\"abc-w200\"")))
+                .thenReturn(ImageRendition.builder().etag("\"abc-w200\"").notModified(true).build());
+
+        // When & Then
+        mockMvc.perform(get("/api/files/render/IMAGE/photo.jpg")
+                        .param("width", "200")
+                        .header("If-None-Match", "\"abc-w200\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void backfillRenditions_ReturnsQueuedCount() throws Exception {
+        // Given
+        when(imageRenditionService.backfill(FileType.PHOTO)).thenReturn(42);
+
+        // When & Then
+        mockMvc.perform(post("/api/files/render/PHOTO/backfill"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.queued").value(42));
+    }
+
+    @Test
+    void getStatistics_ReturnsBucketUsage() throws Exception {
+        // Given
+        BucketStatistics statistics = BucketStatistics.builder()
+                .bucketName("file-service-images")
+                .objectCount(2)
+                .totalBytes(3000L)
+                .sizeHistogram(java.util.Map.of("64KB", 2L))
+                .build();
+        when(minioService.getStatistics(FileType.IMAGE)).thenReturn(statistics);
+
+        // When & Then
+        mockMvc.perform(get("/api/files/stats/IMAGE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.objectCount").value(2))
+                .andExpect(jsonPath("$.totalBytes").value(3000))
+                .andExpect(jsonPath("$.sizeHistogram.64KB").value(2));
+    }
+
+    @Test
+    void streamFileList_WritesOneJsonObjectPerLine() throws Exception {
+        // Given
+        FileMetadata second = FileMetadata.builder().fileName("second.jpg").build();
+        when(minioService.forEachFile(eq(FileType.IMAGE), any())).thenAnswer(invocation -> {
+            Predicate<FileMetadata> consumer = invocation.getArgument(1);
+            consumer.test(mockMetadata);
+            consumer.test(second);
+            return 2L;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/files/list/IMAGE/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("test.jpg", objectMapper.readTree(lines[0]).get("fileName").asText());
+        assertEquals("second.jpg", objectMapper.readTree(lines[1]).get("fileName").asText());
+    }
+
+    @Test
+    void queryFiles_Success() throws Exception {
+        // Given
+        when(minioService.queryFiles(eq(FileType.PDF), any())).thenReturn(List.of(mockMetadata));
+
+        // When & Then
+        mockMvc.perform(get("/api/files/query/PDF")
+                        .param("minSize", "10485760")
+                        .param("modifiedAfter", "2025-01-01T00:00:00")
+                        .param("sort", "SIZE")
+                        .param("descending", "true")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fileName").value("test.jpg"));
+
+        verify(minioService).queryFiles(eq(FileType.PDF), argThat(query ->
+                query.getMinSize() == 10485760L
+                        && query.getModifiedAfter().equals(LocalDateTime.of(2025, 1, 1, 0, 0))
+                        && query.getSort() == FileSortField.SIZE
+                        && query.isDescending()
+                        && query.getLimit() == 20));
+    }
+
+    @Test
+    void queryAllFiles_NoParameters_UsesQueryDefaults() throws Exception {
+        // Given
+        when(minioService.queryAllFiles(any())).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/files/query"))
+                .andExpect(status().isOk());
+        verify(minioService).queryAllFiles(argThat(query -> query.getSort() == FileSortField.NAME
+                && !query.isDescending()
+                && query.getLimit() == 100));
+    }
+
+    @Test
+    void queryFiles_LimitTooLarge_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/files/query/PDF").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+
+        verify(minioService, never()).queryFiles(any(), any());
+    }
+
+    @Test
+    void searchFiles_Success() throws Exception {
+        // Given
+        FileSearchResponse searchResponse = FileSearchResponse.builder()
+                .query("invoice")
+                .totalHits(1)
+                .results(List.of(FileSearchResult.builder()
+                        .fileName("report.pdf")
+                        .bucketName("file-service-documents")
+                        .hits(List.of(FileSearchResult.PageHit.builder().page(3).snippet("<em>invoice</em> total").build()))
+                        .build()))
+                .build();
+        when(fullTextSearchService.search("invoice", 5)).thenReturn(searchResponse);
+
+        // When & Then
+        mockMvc.perform(get("/api/files/search").param("q", "invoice").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].fileName").value("report.pdf"))
+                .andExpect(jsonPath("$.results[0].hits[0].page").value(3));
+
+        verify(fullTextSearchService).search("invoice", 5);
+    }
+
+    @Test
+    void searchFiles_LimitOutOfRange_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/files/search").param("q", "invoice").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/files/search").param("q", "invoice").param("limit", "300000000"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(fullTextSearchService);
+    }
+
     @Test
     void listFiles_Success() throws Exception {
         // Given
@@ -260,6 +592,14 @@ class MinioControllerTest {
         verify(minioService).listFiles(FileType.IMAGE);
     }
 
+    @Test
+    void listFiles_PrefixWithoutLimit_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/files/list/IMAGE").param("prefix", "albums/"))
+                .andExpect(status().isBadRequest());
+
+        verify(minioService, never()).listFiles(any(FileType.class));
+    }
+
     @Test
     void fileExists_True() throws Exception {
         // Given
@@ -340,21 +680,77 @@ class MinioControllerTest {
         // Given
         String fileName = "test.pdf";
         byte[] thumbnailData = "thumbnail data".getBytes();
-        byte[] fileContent = "pdf content".getBytes();
         
-        when(minioService.getFileContentAsBytes(fileName, FileType.PDF))
-                .thenReturn(fileContent);
-        when(pdfProcessingService.generatePdfThumbnail(any(), eq(200), eq(200)))
-                .thenReturn(thumbnailData);
+        when(pdfThumbnailService.getThumbnail(fileName, 1, 200, 200, false, null))
+                .thenReturn(thumbnail(thumbnailData));
 
         // When & Then
         mockMvc.perform(get("/api/files/pdf/thumbnail/{fileName}", fileName))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "image/png"))
-                .andExpect(header().string("Content-Disposition", "inline; filename=\"test.pdf_thumbnail.png\""));
+                .andExpect(header().string("Content-Disposition", "inline; filename=\"test.pdf_thumbnail.png\""))
+                .andExpect(header().string("ETag", "\"etag-w200-h200.png\""))
+                .andExpect(header().string("Cache-Control", "max-age=3600, public, immutable"))
+                .andExpect(content().bytes(thumbnailData));
+
+        verify(pdfThumbnailService).getThumbnail(fileName, 1, 200, 200, false, null);
+        verify(minioService, never()).getFileContentAsBytes(any(), any());
+    }
+
+    @Test
+    void generatePdfThumbnails_Zip_ContainsOneEntryPerPage() throws Exception {
+        // Given
+        Map<Integer, byte[]> thumbnails = new LinkedHashMap<>();
+        thumbnails.put(2, new byte[]{2});
+        thumbnails.put(3, new byte[]{3});
+        when(pdfThumbnailService.getThumbnails("test.pdf", 2, Integer.MAX_VALUE, 200, 200, false)).thenReturn(thumbnails);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/files/pdf/thumbnails/{fileName}", "test.pdf").param("startPage", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        byte[] zip = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/zip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            for (ZipEntry entry; (entry = zipInputStream.getNextEntry()) != null; ) {
+                entries.add(entry.getName());
+            }
+        }
+        assertEquals(List.of("page-0002.png", "page-0003.png"), entries);
+    }
+
+    @Test
+    void generatePdfThumbnails_Sprite_ReturnsContactSheet() throws Exception {
+        // Given
+        byte[] sheet = "sheet".getBytes();
+        when(pdfThumbnailService.getContactSheet("test.pdf", 1, 10, 100, 100, 4)).thenReturn(sheet);
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/files/pdf/thumbnails/{fileName}", "test.pdf")
+                        .param("endPage", "10")
+                        .param("width", "100")
+                        .param("height", "100")
+                        .param("format", "sprite")
+                        .param("columns", "4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "image/png"))
+                .andExpect(content().bytes(sheet));
+    }
 
-        verify(minioService).getFileContentAsBytes(fileName, FileType.PDF);
-        verify(pdfProcessingService).generatePdfThumbnail(any(), eq(200), eq(200));
+    @Test
+    void generatePdfThumbnails_UnknownFormat_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/files/pdf/thumbnails/{fileName}", "test.pdf").param("format", "gif"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -364,12 +760,9 @@ class MinioControllerTest {
         int width = 300;
         int height = 400;
         byte[] thumbnailData = "thumbnail data".getBytes();
-        byte[] fileContent = "pdf content".getBytes();
         
-        when(minioService.getFileContentAsBytes(fileName, FileType.PDF))
-                .thenReturn(fileContent);
-        when(pdfProcessingService.generatePdfThumbnail(any(), eq(width), eq(height)))
-                .thenReturn(thumbnailData);
+        when(pdfThumbnailService.getThumbnail(fileName, 1, width, height, false, null))
+                .thenReturn(thumbnail(thumbnailData));
 
         // When & Then
         mockMvc.perform(get("/api/files/pdf/thumbnail/{fileName}", fileName)
@@ -378,14 +771,26 @@ class MinioControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "image/png"));
 
-        verify(pdfProcessingService).generatePdfThumbnail(any(), eq(width), eq(height));
+        verify(pdfThumbnailService).getThumbnail(fileName, 1, width, height, false, null);
+    }
+
+    @Test
+    void generatePdfThumbnail_MatchingEtag_ReturnsNotModified() throws Exception {
+        // Given
+        when(pdfThumbnailService.getThumbnail("test.pdf", 1, 200, 200, false, "\"etag-w200-h200.png\""))
+                .thenReturn(ImageRendition.builder().etag("\"etag-w200-h200.png\"").notModified(true).build());
+
+        // When & Then
+        mockMvc.perform(get("/api/files/pdf/thumbnail/{fileName}", "test.pdf")
+                        .header("If-None-Match", "\"etag-w200-h200.png\""))
+                .andExpect(status().isNotModified());
     }
 
     @Test
     void generatePdfThumbnail_FileNotFound_ReturnsBadRequest() throws Exception {
         // Given
         String fileName = "nonexistent.pdf";
-        when(minioService.getFileContentAsBytes(fileName, FileType.PDF))
+        when(pdfThumbnailService.getThumbnail(fileName, 1, 200, 200, false, null))
                 .thenThrow(new FileNotFoundException("File not found"));
 
         // When & Then
@@ -398,10 +803,7 @@ class MinioControllerTest {
         // Given
         String fileName = "test.pdf";
         String extractedText = "This is extracted text from PDF";
-        byte[] fileContent = "pdf content".getBytes();
-        
-        when(minioService.getFileContentAsBytes(fileName, FileType.PDF))
-                .thenReturn(fileContent);
+        when(minioService.downloadFile(fileName, FileType.PDF)).thenReturn(pdfDownload(fileName));
         when(pdfProcessingService.extractTextFromPdf(any()))
                 .thenReturn(extractedText);
 
@@ -411,7 +813,8 @@ class MinioControllerTest {
                 .andExpect(header().string("Content-Type", "text/plain;charset=UTF-8"))
                 .andExpect(content().string(extractedText));
 
-        verify(minioService).getFileContentAsBytes(fileName, FileType.PDF);
+        verify(minioService).downloadFile(fileName, FileType.PDF);
+        verify(minioService, never()).getFileContentAsBytes(any(), any());
         verify(pdfProcessingService).extractTextFromPdf(any());
     }
 
@@ -419,7 +822,7 @@ class MinioControllerTest {
     void extractPdfText_FileNotFound_ReturnsBadRequest() throws Exception {
         // Given
         String fileName = "nonexistent.pdf";
-        when(minioService.getFileContentAsBytes(fileName, FileType.PDF))
+        when(minioService.downloadFile(fileName, FileType.PDF))
                 .thenThrow(new FileNotFoundException("File not found"));
 
         // When & Then
@@ -431,10 +834,7 @@ class MinioControllerTest {
     void extractPdfText_ProcessingError_ReturnsBadRequest() throws Exception {
         // Given
         String fileName = "corrupted.pdf";
-        byte[] fileContent = "corrupted pdf content".getBytes();
-        
-        when(minioService.getFileContentAsBytes(fileName, FileType.PDF))
-                .thenReturn(fileContent);
+        when(minioService.downloadFile(fileName, FileType.PDF)).thenReturn(pdfDownload(fileName));
         when(pdfProcessingService.extractTextFromPdf(any()))
                 .thenThrow(new RuntimeException("PDF processing error"));
 
@@ -442,4 +842,89 @@ class MinioControllerTest {
         mockMvc.perform(get("/api/files/pdf/text/{fileName}", fileName))
                 .andExpect(status().isBadRequest());
     }
+
+    @Test
+    void extractPdfText_PageRange_ExtractsRequestedPages() throws Exception {
+        // Given
+        when(minioService.downloadFile("test.pdf", FileType.PDF)).thenReturn(pdfDownload("test.pdf"));
+        when(pdfProcessingService.extractTextFromPdf(any(), eq(2), eq(Integer.MAX_VALUE))).thenReturn("page two");
+
+        // When & Then
+        mockMvc.perform(get("/api/files/pdf/text/{fileName}", "test.pdf").param("startPage", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("page two"));
+    }
+
+    @Test
+    void extractPdfText_InvalidPageRange_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/files/pdf/text/{fileName}", "test.pdf")
+                        .param("startPage", "5")
+                        .param("endPage", "2"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(pdfProcessingService);
+    }
+
+    @Test
+    void extractPdfText_Stream_WritesTextAsExtracted() throws Exception {
+        // Given
+        FileDownloadResponse download = FileDownloadResponse.builder()
+                .fileName("test.pdf")
+                .contentType("application/pdf")
+                .inputStream(new ByteArrayInputStream("pdf content".getBytes()))
+                .build();
+        when(minioService.downloadFile("test.pdf", FileType.PDF)).thenReturn(download);
+        when(pdfProcessingService.writeTextFromPdf(any(), eq(1), eq(3), any())).thenAnswer(invocation -> {
+            java.io.Writer writer = invocation.getArgument(3);
+            writer.write("page one\n");
+            writer.flush();
+            writer.write("page two\n");
+            writer.flush();
+            return 2;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/api/files/pdf/text/{fileName}", "test.pdf")
+                        .param("endPage", "3")
+                        .param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/plain;charset=UTF-8"))
+                .andExpect(content().string("page one\npage two\n"));
+        verify(minioService, never()).getFileContentAsBytes(any(), any());
+    }
+
+    @Test
+    void getPdfPageCount_Success() throws Exception {
+        // Given
+        when(minioService.getPdfPageCount("test.pdf")).thenReturn(12);
+
+        // When & Then
+        mockMvc.perform(get("/api/files/pdf/page-count/{fileName}", "test.pdf"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fileName").value("test.pdf"))
+                .andExpect(jsonPath("$.pageCount").value(12));
+    }
+
+    private ImageRendition thumbnail(byte[] content) {
+        return ImageRendition.builder()
+                .inputStream(new ByteArrayInputStream(content))
+                .contentType("image/png")
+                .size((long) content.length)
+                .etag("\"etag-w200-h200.png\"")
+                .maxAgeSeconds(3600)
+                .build();
+    }
+
+    private FileDownloadResponse pdfDownload(String fileName) {
+        return FileDownloadResponse.builder()
+                .fileName(fileName)
+                .contentType("application/pdf")
+                .inputStream(new ByteArrayInputStream("pdf content".getBytes()))
+                .build();
+    }
 }
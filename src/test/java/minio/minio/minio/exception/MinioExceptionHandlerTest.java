@@ -2,6 +2,9 @@ package minio.minio.minio.exception;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import minio.minio.minio.controller.MinioController;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.service.ImageRenditionService;
+import minio.minio.minio.service.PdfThumbnailService;
 import minio.minio.minio.service.MinioService;
 import minio.minio.minio.service.PdfProcessingService;
 import org.junit.jupiter.api.Test;
@@ -16,6 +19,8 @@ import org.springframework.web.multipart.MaxUploadSizeExceededException;
 import java.io.FileNotFoundException;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +38,15 @@ class MinioExceptionHandlerTest {
     @MockBean
     private PdfProcessingService pdfProcessingService;
 
+    @MockBean
+    private FullTextSearchService fullTextSearchService;
+
+    @MockBean
+    private ImageRenditionService imageRenditionService;
+
+    @MockBean
+    private PdfThumbnailService pdfThumbnailService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -73,6 +87,23 @@ class MinioExceptionHandlerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @Test
+    void handleInvalidPdfException_ReturnsBadRequest() throws Exception {
+        // Given
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "broken.pdf", "application/pdf", "%PDF-1.4".getBytes());
+        
+        when(minioService.uploadFile(any(), any(), any()))
+                .thenThrow(new InvalidPdfException("the document has no pages"));
+
+        // When & Then
+        mockMvc.perform(multipart("/api/files/upload/PDF")
+                        .file(file))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_PDF"))
+                .andExpect(jsonPath("$.message").value("Invalid PDF: the document has no pages"));
+    }
+
     @Test
     void handleMinioException_ReturnsInternalServerError() throws Exception {
         // Given
@@ -90,6 +121,19 @@ class MinioExceptionHandlerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @Test
+    void handleProcessingUnavailableException_ReturnsServiceUnavailable() throws Exception {
+        // Given
+        when(pdfThumbnailService.getThumbnail(eq("test.pdf"), anyInt(), anyInt(), anyInt(), anyBoolean(), any()))
+                .thenThrow(new ProcessingUnavailableException("Too many processing jobs in progress, try again later"));
+
+        // When & Then
+        mockMvc.perform(get("/api/files/pdf/thumbnail/{fileName}", "test.pdf"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.errorCode").value("PROCESSING_UNAVAILABLE"));
+    }
+
     @Test
     void handleMaxUploadSizeExceededException_ReturnsBadRequest() throws Exception {
         // Given
@@ -0,0 +1,91 @@
+package minio.minio.minio.integration;
+
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.benchmark.Benchmark;
+import minio.minio.minio.benchmark.Benchmarks;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.BulkDeleteResponse;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.service.MinioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Objects deleted per second, single-object path versus multi-object delete (needs Docker)
+ */
+@Slf4j
+@Benchmark
+@SpringBootTest
+@Testcontainers
+class BulkDeleteBenchmarkTest {
+
+    private static final int OBJECT_COUNT = Benchmarks.intProperty("objects", 2000);
+
+    @Container
+    static MinIOContainer minioContainer = new MinIOContainer("minio/minio:RELEASE.2023-09-04T19-57-37Z")
+            .withUserName("testuser")
+            .withPassword("testpassword");
+
+    @Autowired
+    private MinioService minioService;
+
+    @Autowired
+    private MinioClient minioClient;
+
+    @Autowired
+    private MinioProperties minioProperties;
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("minio.url", minioContainer::getS3URL);
+        registry.add("minio.access-key", minioContainer::getUserName);
+        registry.add("minio.secret-key", minioContainer::getPassword);
+    }
+
+    @Test
+    void deleteThroughput_SingleVersusBulk() throws Exception {
+        String bucketName = minioProperties.getBucket().getFiles();
+
+        // Single-object path
+        createObjects(bucketName, "single/");
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            assertTrue(minioService.deleteFile("single/object-" + i, FileType.FILE));
+        }
+        double singlePerSecond = OBJECT_COUNT / ((System.nanoTime() - startedAt) / 1e9);
+
+        // Multi-object delete by prefix
+        createObjects(bucketName, "bulk/");
+        startedAt = System.nanoTime();
+        BulkDeleteResponse response = minioService.deleteFiles(FileType.FILE, null, "bulk/");
+        double bulkPerSecond = OBJECT_COUNT / ((System.nanoTime() - startedAt) / 1e9);
+
+        assertEquals(OBJECT_COUNT, response.getDeleted());
+        assertTrue(response.getErrors().isEmpty());
+        log.info(String.format("Deleted %d objects: single %.0f objects/s, bulk %.0f objects/s (x%.1f)",
+                OBJECT_COUNT, singlePerSecond, bulkPerSecond, bulkPerSecond / singlePerSecond));
+    }
+
+    private void createObjects(String bucketName, String prefix) throws Exception {
+        byte[] content = "benchmark".getBytes();
+        for (int i = 0; i < OBJECT_COUNT; i++) {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(prefix + "object-" + i)
+                    .stream(new ByteArrayInputStream(content), content.length, -1)
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package minio.minio.minio.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Item;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.BucketStatistics;
+import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.service.ObjectIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BucketStatisticsServiceImplTest {
+
+    private static final String BUCKET = "file-service-images";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private ObjectIndexService objectIndexService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BucketStatisticsServiceImpl bucketStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        bucketStatisticsService = new BucketStatisticsServiceImpl(minioClient, new MinioProperties(), meterRegistry, objectIndexService);
+        bucketStatisticsService.registerGauges();
+    }
+
+    @Test
+    void recordUpload_UpdatesCountsHistogramAndContentTypes() {
+        // When
+        bucketStatisticsService.recordUpload(file("a.jpg", 500L, "image/jpeg"), null);
+        bucketStatisticsService.recordUpload(file("b.png", 2L << 20, "image/png"), null);
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(2, statistics.getObjectCount());
+        assertEquals(500L + (2L << 20), statistics.getTotalBytes());
+        assertEquals(1L, statistics.getSizeHistogram().get("1KB"));
+        assertEquals(1L, statistics.getSizeHistogram().get("16MB"));
+        assertEquals(1L, statistics.getContentTypes().get("image/png").getObjectCount());
+        assertEquals(2.0, meterRegistry.get("minio.bucket.objects").tag("bucket", BUCKET).gauge().value());
+        assertEquals(500.0, meterRegistry.get("minio.bucket.content.type.size")
+                .tags("bucket", BUCKET, "content_type", "image/jpeg").gauge().value());
+    }
+
+    @Test
+    void recordUpload_ReplacingObject_CountsItOnce() {
+        // Given
+        FileMetadata first = file("a.jpg", 100L, "image/jpeg");
+        bucketStatisticsService.recordUpload(first, null);
+
+        // When
+        bucketStatisticsService.recordUpload(file("a.jpg", 300L, "image/jpeg"), first);
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(1, statistics.getObjectCount());
+        assertEquals(300L, statistics.getTotalBytes());
+    }
+
+    @Test
+    void recordDelete_RemovesEmptyContentType() {
+        // Given
+        FileMetadata metadata = file("a.jpg", 100L, "image/jpeg");
+        bucketStatisticsService.recordUpload(metadata, null);
+
+        // When
+        bucketStatisticsService.recordDelete(metadata);
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(0, statistics.getObjectCount());
+        assertEquals(0L, statistics.getTotalBytes());
+        assertTrue(statistics.getContentTypes().isEmpty());
+    }
+
+    @Test
+    void getStatistics_Excluded_LeavesCountersUnchanged() {
+        // Given
+        FileMetadata expired = file("a.jpg", 100L, "image/jpeg");
+        bucketStatisticsService.recordUpload(expired, null);
+        bucketStatisticsService.recordUpload(file("b.jpg", 200L, "image/jpeg"), null);
+
+        // When
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET, List.of(expired).iterator());
+
+        // Then
+        assertEquals(1, statistics.getObjectCount());
+        assertEquals(200L, statistics.getTotalBytes());
+        assertEquals(2, bucketStatisticsService.getStatistics(BUCKET).getObjectCount());
+    }
+
+    @Test
+    void reconcile_ReplacesIncrementalCounters() throws Exception {
+        // Given
+        bucketStatisticsService.recordUpload(file("stale.jpg", 100L, "image/jpeg"), null);
+        List<Result<Item>> listing = List.of(listedItem("a.jpg", 10L), listedItem("b.jpg", 20L));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        bucketStatisticsService.reconcile(BUCKET);
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(2, statistics.getObjectCount());
+        assertEquals(30L, statistics.getTotalBytes());
+        assertEquals(2L, statistics.getContentTypes().get("image/jpeg").getObjectCount());
+        assertNotNull(statistics.getReconciledAt());
+        assertEquals(30.0, meterRegistry.get("minio.bucket.size").tag("bucket", BUCKET).gauge().value());
+    }
+
+    @Test
+    void reconcile_IndexReady_CountsIndexedEntriesWithoutListing() throws Exception {
+        // Given
+        when(objectIndexService.isReady(BUCKET)).thenReturn(true);
+        when(objectIndexService.iterate(BUCKET)).thenReturn(List.of(
+                file("a.jpg", 10L, "image/jpeg"), file("b.pdf", 20L, "application/pdf")).iterator());
+
+        // When
+        bucketStatisticsService.reconcile(BUCKET);
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(2, statistics.getObjectCount());
+        assertEquals(30L, statistics.getTotalBytes());
+        verify(minioClient, never()).listObjects(any(ListObjectsArgs.class));
+    }
+
+    @Test
+    void reconcile_ChangesDuringListing_AreCountedOnce() throws Exception {
+        // Given
+        FileMetadata deleted = file("a.jpg", 10L, "image/jpeg");
+        bucketStatisticsService.recordUpload(deleted, null);
+        Result<Item> second = listedItem("b.jpg", 20L);
+        Item secondItem = second.get();
+        when(second.get()).thenAnswer(invocation -> {
+            // a.jpg est déjà compté par le listing, c.jpg ne l'est pas encore
+            bucketStatisticsService.recordDelete(deleted);
+            bucketStatisticsService.recordUpload(file("c.jpg", 30L, "image/jpeg"), null);
+            return secondItem;
+        });
+        List<Result<Item>> listing = List.of(listedItem("a.jpg", 10L), second, listedItem("c.jpg", 30L));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        bucketStatisticsService.reconcile(BUCKET);
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(2, statistics.getObjectCount());
+        assertEquals(50L, statistics.getTotalBytes());
+    }
+
+    @Test
+    void putAndRecord_ReconcileFromIndexMeanwhile_CountsUploadOnce() throws Exception {
+        // Given : l'index ne contient l'objet qu'une fois put() passé
+        List<FileMetadata> index = new CopyOnWriteArrayList<>();
+        CountDownLatch indexed = new CountDownLatch(1);
+        FileMetadata uploaded = file("a.jpg", 10L, "image/jpeg");
+        when(objectIndexService.isReady(BUCKET)).thenReturn(true);
+        when(objectIndexService.iterate(BUCKET)).thenAnswer(invocation -> List.copyOf(index).iterator());
+        when(objectIndexService.put(uploaded)).thenAnswer(invocation -> {
+            index.add(uploaded);
+            indexed.countDown();
+            // Laisse à la réconciliation le temps de lire l'index avant que l'upload soit compté
+            Thread.sleep(200);
+            return null;
+        });
+
+        // When
+        Thread upload = new Thread(() -> bucketStatisticsService.putAndRecord(uploaded));
+        upload.start();
+        assertTrue(indexed.await(5, TimeUnit.SECONDS));
+        bucketStatisticsService.reconcile(BUCKET);
+        upload.join();
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(1, statistics.getObjectCount());
+        assertEquals(10L, statistics.getTotalBytes());
+    }
+
+    @Test
+    void removeAndRecord_ReconcileFromIndexMeanwhile_SubtractsDeleteOnce() throws Exception {
+        // Given
+        FileMetadata deleted = file("a.jpg", 10L, "image/jpeg");
+        FileMetadata kept = file("b.jpg", 20L, "image/jpeg");
+        List<FileMetadata> index = new CopyOnWriteArrayList<>(List.of(deleted, kept));
+        when(objectIndexService.put(any())).thenAnswer(invocation -> null);
+        bucketStatisticsService.putAndRecord(deleted);
+        bucketStatisticsService.putAndRecord(kept);
+        CountDownLatch removed = new CountDownLatch(1);
+        when(objectIndexService.isReady(BUCKET)).thenReturn(true);
+        when(objectIndexService.iterate(BUCKET)).thenAnswer(invocation -> List.copyOf(index).iterator());
+        when(objectIndexService.remove(BUCKET, "a.jpg")).thenAnswer(invocation -> {
+            index.remove(deleted);
+            removed.countDown();
+            Thread.sleep(200);
+            return deleted;
+        });
+
+        // When
+        Thread delete = new Thread(() -> bucketStatisticsService.removeAndRecord(BUCKET, "a.jpg"));
+        delete.start();
+        assertTrue(removed.await(5, TimeUnit.SECONDS));
+        bucketStatisticsService.reconcile(BUCKET);
+        delete.join();
+
+        // Then
+        BucketStatistics statistics = bucketStatisticsService.getStatistics(BUCKET);
+        assertEquals(1, statistics.getObjectCount());
+        assertEquals(20L, statistics.getTotalBytes());
+    }
+
+    @Test
+    void sizeSlot_UpperBoundIsInclusive() {
+        assertEquals(0, BucketStatisticsServiceImpl.sizeSlot(1024L));
+        assertEquals(1, BucketStatisticsServiceImpl.sizeSlot(1025L));
+        assertEquals(5, BucketStatisticsServiceImpl.sizeSlot(1L << 30));
+    }
+
+    private FileMetadata file(String name, long size, String contentType) {
+        return FileMetadata.builder()
+                .fileName(name)
+                .bucketName(BUCKET)
+                .fileSize(size)
+                .contentType(contentType)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result<Item> listedItem(String name, long size) throws Exception {
+        Item item = mock(Item.class);
+        when(item.objectName()).thenReturn(name);
+        when(item.size()).thenReturn(size);
+        when(item.lastModified()).thenReturn(ZonedDateTime.now());
+        when(item.userMetadata()).thenReturn(Map.of("X-Amz-Meta-Content-Type", "image/jpeg"));
+        Result<Item> result = mock(Result.class);
+        when(result.get()).thenReturn(item);
+        return result;
+    }
+}
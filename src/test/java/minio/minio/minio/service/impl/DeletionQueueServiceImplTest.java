@@ -0,0 +1,224 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.MinioClient;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.messages.DeleteError;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.service.BucketStatisticsService;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.service.ImageRenditionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeletionQueueServiceImplTest {
+
+    private static final String BUCKET = "test-documents";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private BucketStatisticsService bucketStatisticsService;
+
+    @Mock
+    private FullTextSearchService fullTextSearchService;
+
+    @Mock
+    private ImageRenditionService imageRenditionService;
+
+    @TempDir
+    Path tempDir;
+
+    private MinioProperties minioProperties;
+    private DeletionQueueServiceImpl deletionQueueService;
+
+    @BeforeEach
+    void setUp() {
+        minioProperties = new MinioProperties();
+        minioProperties.getDeletion().setPath(tempDir.resolve("journal.mv.db").toString());
+        deletionQueueService = newService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        deletionQueueService.close();
+    }
+
+    @Test
+    void drain_DeletesQueuedFilesAndCleansIndexes() {
+        // Given
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of());
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf", "b.pdf"));
+
+        // When
+        deletionQueueService.drain();
+
+        // Then
+        assertEquals(0, deletionQueueService.pendingCount());
+        verify(minioClient, times(1)).removeObjects(any(RemoveObjectsArgs.class));
+        verify(bucketStatisticsService).removeAndRecord(BUCKET, "a.pdf");
+        verify(fullTextSearchService).removeFiles(BUCKET, List.of("a.pdf", "b.pdf"));
+        verify(imageRenditionService).deleteRenditions(FileType.PDF, BUCKET, List.of("a.pdf", "b.pdf"));
+    }
+
+    @Test
+    void drain_TransientFailure_RetriesAfterBackoff() throws Exception {
+        // Given
+        DeleteError error = mock(DeleteError.class);
+        when(error.objectName()).thenReturn("a.pdf");
+        when(error.code()).thenReturn("SlowDown");
+        Result<DeleteError> errorResult = mock(Result.class);
+        when(errorResult.get()).thenReturn(error);
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of(errorResult));
+        minioProperties.getDeletion().setInitialBackoff(Duration.ofMinutes(1));
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf"));
+
+        // When
+        deletionQueueService.drain();
+        deletionQueueService.drain();
+
+        // Then: still pending, and not retried before its backoff expires
+        assertEquals(1, deletionQueueService.pendingCount());
+        verify(minioClient, times(1)).removeObjects(any(RemoveObjectsArgs.class));
+        verify(bucketStatisticsService, never()).removeAndRecord(any(), any());
+    }
+
+    @Test
+    void drain_MissingObject_CountsAsDeleted() throws Exception {
+        // Given
+        DeleteError error = mock(DeleteError.class);
+        when(error.code()).thenReturn("NoSuchKey");
+        Result<DeleteError> errorResult = mock(Result.class);
+        when(errorResult.get()).thenReturn(error);
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of(errorResult));
+        deletionQueueService.enqueue(BUCKET, FileType.FILE, List.of("gone.bin"));
+
+        // When
+        deletionQueueService.drain();
+
+        // Then
+        assertEquals(0, deletionQueueService.pendingCount());
+    }
+
+    @Test
+    void drain_EntryInBackoff_DoesNotHoldBackLaterEntries() throws Exception {
+        // Given : a.pdf échoue une fois et part en backoff, le lot ne prend qu'une entrée
+        DeleteError error = mock(DeleteError.class);
+        when(error.objectName()).thenReturn("a.pdf");
+        when(error.code()).thenReturn("SlowDown");
+        Result<DeleteError> errorResult = mock(Result.class);
+        when(errorResult.get()).thenReturn(error);
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of(errorResult), List.of());
+        minioProperties.getDeletion().setBatchSize(1);
+        minioProperties.getDeletion().setInitialBackoff(Duration.ofMinutes(1));
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf"));
+        deletionQueueService.drain();
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("b.pdf"));
+
+        // When
+        deletionQueueService.drain();
+
+        // Then
+        assertEquals(1, deletionQueueService.pendingCount());
+        verify(bucketStatisticsService).removeAndRecord(BUCKET, "b.pdf");
+        verify(bucketStatisticsService, never()).removeAndRecord(BUCKET, "a.pdf");
+    }
+
+    @Test
+    void drain_BatchSizeAboveS3Limit_SendsAtMost1000Keys() {
+        // Given
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of());
+        minioProperties.getDeletion().setBatchSize(5000);
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) {
+            fileNames.add("file-" + i + ".bin");
+        }
+        deletionQueueService.enqueue(BUCKET, FileType.FILE, fileNames);
+
+        // When
+        deletionQueueService.drain();
+
+        // Then
+        assertEquals(1, deletionQueueService.pendingCount());
+    }
+
+    @Test
+    void enqueue_AlreadyPending_NotQueuedTwice() {
+        // Given
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of());
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf"));
+
+        // When
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf", "b.pdf"));
+
+        // Then
+        assertEquals(2, deletionQueueService.pendingCount());
+        deletionQueueService.drain();
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf"));
+        assertEquals(1, deletionQueueService.pendingCount());
+    }
+
+    @Test
+    void cancel_PendingEntry_NotDeletedByDrain() {
+        // Given
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenReturn(List.of());
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf", "b.pdf"));
+
+        // When
+        assertTrue(deletionQueueService.cancel(BUCKET, "a.pdf"));
+        deletionQueueService.drain();
+
+        // Then
+        assertFalse(deletionQueueService.cancel(BUCKET, "a.pdf"));
+        assertEquals(0, deletionQueueService.pendingCount());
+        verify(bucketStatisticsService, never()).removeAndRecord(BUCKET, "a.pdf");
+        verify(bucketStatisticsService).removeAndRecord(BUCKET, "b.pdf");
+    }
+
+    @Test
+    void enqueue_JournalSurvivesRestart() {
+        // Given
+        deletionQueueService.enqueue(BUCKET, FileType.PDF, List.of("a.pdf", "b.pdf"));
+
+        // When
+        deletionQueueService.close();
+        deletionQueueService = newService();
+
+        // Then
+        assertEquals(2, deletionQueueService.pendingCount());
+    }
+
+    @Test
+    void backoffMillis_DoublesUpToMaximum() {
+        Duration initial = Duration.ofSeconds(1);
+        Duration max = Duration.ofSeconds(10);
+
+        assertEquals(1000, DeletionQueueServiceImpl.backoffMillis(1, initial, max));
+        assertEquals(4000, DeletionQueueServiceImpl.backoffMillis(3, initial, max));
+        assertEquals(10000, DeletionQueueServiceImpl.backoffMillis(8, initial, max));
+    }
+
+    private DeletionQueueServiceImpl newService() {
+        DeletionQueueServiceImpl service = new DeletionQueueServiceImpl(minioClient, minioProperties,
+                bucketStatisticsService, fullTextSearchService, imageRenditionService);
+        service.open();
+        return service;
+    }
+}
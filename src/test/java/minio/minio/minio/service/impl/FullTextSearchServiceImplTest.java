@@ -0,0 +1,183 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.FileSearchResponse;
+import minio.minio.minio.dto.FileSearchResult;
+import okhttp3.Headers;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextSearchServiceImplTest {
+
+    private static final String BUCKET = "test-documents";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @TempDir
+    Path tempDir;
+
+    private FullTextSearchServiceImpl fullTextSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getSearch().setPath(tempDir.toString());
+        fullTextSearchService = new FullTextSearchServiceImpl(minioClient, minioProperties, new PdfDocumentLoader(minioProperties));
+        fullTextSearchService.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fullTextSearchService.close();
+    }
+
+    @Test
+    void search_PdfFile_ReturnsMatchingPagesWithSnippets() throws Exception {
+        // Given
+        byte[] pdf = pdf("Introduction to the service", "The quarterly invoice is attached");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(objectResponse(pdf));
+        fullTextSearchService.indexFile(BUCKET, "report.pdf", "application/pdf", "etag-1");
+
+        // When
+        FileSearchResponse response = fullTextSearchService.search("invoice", 10);
+
+        // Then
+        assertEquals(1, response.getResults().size());
+        FileSearchResult result = response.getResults().get(0);
+        assertEquals("report.pdf", result.getFileName());
+        assertEquals(BUCKET, result.getBucketName());
+        assertEquals(1, result.getHits().size());
+        assertEquals(2, result.getHits().get(0).getPage());
+        assertTrue(result.getHits().get(0).getSnippet().contains("<em>invoice</em>"));
+    }
+
+    @Test
+    void search_TextDocument_ReturnsWholeDocumentHit() throws Exception {
+        // Given
+        when(minioClient.getObject(any(GetObjectArgs.class)))
+                .thenReturn(objectResponse("meeting notes about the budget".getBytes()));
+        fullTextSearchService.indexFile(BUCKET, "notes.txt", "text/plain", "etag-1");
+
+        // When
+        FileSearchResponse response = fullTextSearchService.search("budget", 10);
+
+        // Then
+        assertEquals(1, response.getResults().size());
+        assertEquals(0, response.getResults().get(0).getHits().get(0).getPage());
+    }
+
+    @Test
+    void removeFile_FileNoLongerFound() throws Exception {
+        // Given
+        when(minioClient.getObject(any(GetObjectArgs.class)))
+                .thenReturn(objectResponse("meeting notes about the budget".getBytes()));
+        fullTextSearchService.indexFile(BUCKET, "notes.txt", "text/plain", "etag-1");
+
+        // When
+        fullTextSearchService.removeFile(BUCKET, "notes.txt");
+
+        // Then
+        assertTrue(fullTextSearchService.search("budget", 10).getResults().isEmpty());
+    }
+
+    @Test
+    void indexFile_SameFileTwice_ReplacesPreviousVersion() throws Exception {
+        // Given
+        when(minioClient.getObject(any(GetObjectArgs.class)))
+                .thenReturn(objectResponse("first version".getBytes()))
+                .thenReturn(objectResponse("second version".getBytes()));
+        fullTextSearchService.indexFile(BUCKET, "notes.txt", "text/plain", "etag-1");
+
+        // When
+        fullTextSearchService.indexFile(BUCKET, "notes.txt", "text/plain", "etag-2");
+
+        // Then
+        assertTrue(fullTextSearchService.search("first", 10).getResults().isEmpty());
+        assertEquals(1, fullTextSearchService.search("version", 10).getResults().size());
+    }
+
+    @Test
+    void commit_PersistsChangesAlreadyVisibleToSearch() throws Exception {
+        // Given
+        when(minioClient.getObject(any(GetObjectArgs.class)))
+                .thenReturn(objectResponse("meeting notes about the budget".getBytes()));
+        fullTextSearchService.indexFile(BUCKET, "notes.txt", "text/plain", "etag-1");
+        assertEquals(1, fullTextSearchService.search("budget", 10).getResults().size());
+        assertEquals(0, committedDocs());
+
+        // When
+        fullTextSearchService.commit();
+
+        // Then
+        assertEquals(1, committedDocs());
+    }
+
+    @Test
+    void search_EmptyQuery_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> fullTextSearchService.search(" ", 10));
+    }
+
+    @Test
+    void search_InvalidQuery_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> fullTextSearchService.search("invoice AND (", 10));
+    }
+
+    private int committedDocs() throws Exception {
+        try (Directory directory = FSDirectory.open(tempDir)) {
+            if (!DirectoryReader.indexExists(directory)) {
+                return 0;
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                return reader.numDocs();
+            }
+        }
+    }
+
+    private GetObjectResponse objectResponse(byte[] content) {
+        return new GetObjectResponse(Headers.of(), BUCKET, "", "object", new ByteArrayInputStream(content));
+    }
+
+    private byte[] pdf(String... pageTexts) throws Exception {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            for (String text : pageTexts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                    contentStream.beginText();
+                    contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    contentStream.newLineAtOffset(72, 700);
+                    contentStream.showText(text);
+                    contentStream.endText();
+                }
+            }
+            document.save(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+}
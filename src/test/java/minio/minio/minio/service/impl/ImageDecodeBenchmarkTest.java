@@ -0,0 +1,104 @@
+package minio.minio.minio.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.benchmark.Benchmark;
+import minio.minio.minio.benchmark.Benchmarks;
+import minio.minio.minio.dto.ImageRenditionSpec;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Peak heap and latency of a 200 px thumbnail of a large image, full decode versus subsampled decode
+ */
+@Slf4j
+@Benchmark
+class ImageDecodeBenchmarkTest {
+
+    private static final int WIDTH = Benchmarks.intProperty("width", 8000);
+    private static final int HEIGHT = Benchmarks.intProperty("height", 6000);
+    private static final int ITERATIONS = Benchmarks.intProperty("iterations", 3);
+    private static final ImageRenditionSpec THUMBNAIL = ImageRenditionSpec.builder().width(200).build();
+
+    @Test
+    void thumbnail_FullVersusSubsampledDecode() throws Exception {
+        BufferedImage image = sample();
+        for (String format : List.of("jpeg", "png", "tiff")) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            assertTrue(ImageIO.write(image, format, outputStream), "No ImageIO writer for " + format);
+            byte[] content = outputStream.toByteArray();
+
+            measure(format, "full", content, false);
+            measure(format, "subsampled", content, true);
+        }
+    }
+
+    private void measure(String format, String mode, byte[] content, boolean subsampled) throws Exception {
+        long totalNanos = 0;
+        long peakHeap = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            System.gc();
+            long baseline = resetPeakHeap();
+            long startedAt = System.nanoTime();
+            BufferedImage decoded;
+            if (subsampled) {
+                try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+                    decoded = ImageRenditionServiceImpl.decode(input, List.of(THUMBNAIL));
+                }
+            } else {
+                decoded = ImageIO.read(new ByteArrayInputStream(content));
+            }
+            BufferedImage thumbnail = ImageRenditionServiceImpl.resize(decoded, THUMBNAIL);
+            totalNanos += System.nanoTime() - startedAt;
+            peakHeap = Math.max(peakHeap, peakHeap() - baseline);
+            assertEquals(200, thumbnail.getWidth());
+        }
+        log.info(String.format("%-5s %-10s %dx%d: %6d ms/thumbnail, peak heap +%d MB", format, mode, WIDTH, HEIGHT,
+                totalNanos / ITERATIONS / 1_000_000, peakHeap / (1024 * 1024)));
+    }
+
+    private static long resetPeakHeap() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            pool.resetPeakUsage();
+            used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools()) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+
+    private static BufferedImage sample() {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.ORANGE, WIDTH, HEIGHT, Color.BLUE));
+        graphics.fillRect(0, 0, WIDTH, HEIGHT);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,353 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.ErrorResponse;
+import io.minio.messages.Item;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.ImagePlaceholder;
+import minio.minio.minio.dto.ImageRendition;
+import minio.minio.minio.dto.ImageRenditionSpec;
+import minio.minio.minio.enums.FileType;
+import minio.minio.minio.enums.FitMode;
+import okhttp3.Headers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageRenditionServiceImplTest {
+
+    @Mock
+    private MinioClient minioClient;
+
+    private MinioProperties minioProperties;
+    private ImageRenditionServiceImpl imageRenditionService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minioProperties = new MinioProperties();
+        imageRenditionService = new ImageRenditionServiceImpl(minioClient, minioProperties,
+                new ProcessingExecutor(minioProperties, new SimpleMeterRegistry()));
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        lenient().when(stat.etag()).thenReturn("\"source-etag\"");
+        lenient().when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageRenditionService.shutdown();
+    }
+
+    @Test
+    void getRendition_NotCached_GeneratesAndStoresDerivative() throws Exception {
+        // Given
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        ErrorResponseException noSuchKey = mock(ErrorResponseException.class);
+        ErrorResponse errorResponse = mock(ErrorResponse.class);
+        when(errorResponse.code()).thenReturn("NoSuchKey");
+        when(noSuchKey.errorResponse()).thenReturn(errorResponse);
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && renditionBucket.equals(args.bucket()))))
+                .thenThrow(noSuchKey);
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && !renditionBucket.equals(args.bucket()))))
+                .thenReturn(objectResponse(png(800, 400)));
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+
+        // When
+        ImageRendition rendition = imageRenditionService.getRendition(FileType.IMAGE, "photo.png",
+                ImageRenditionSpec.builder().width(200).build(), null);
+
+        // Then
+        BufferedImage image = ImageIO.read(rendition.getInputStream());
+        assertEquals(200, image.getWidth());
+        assertEquals(100, image.getHeight());
+        assertEquals("image/jpeg", rendition.getContentType());
+        assertEquals("\"source-etag-w200-hauto-contain-q85.jpeg\"", rendition.getEtag());
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> renditionBucket.equals(args.bucket())
+                && args.object().startsWith(minioProperties.getBucket().getImages() + "/photo.png/source-etag/")));
+    }
+
+    @Test
+    void getRendition_SourceOverwrittenBeforeRead_RetriesWithNewEtag() throws Exception {
+        // Given : la source est remplacée entre le premier stat et sa lecture
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        StatObjectResponse oldStat = mock(StatObjectResponse.class);
+        when(oldStat.etag()).thenReturn("\"old-etag\"");
+        StatObjectResponse newStat = mock(StatObjectResponse.class);
+        when(newStat.etag()).thenReturn("\"new-etag\"");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(oldStat, newStat);
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        ErrorResponseException preconditionFailed = errorResponse("PreconditionFailed");
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && renditionBucket.equals(args.bucket()))))
+                .thenThrow(noSuchKey);
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && "old-etag".equals(args.matchETag()))))
+                .thenThrow(preconditionFailed);
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && "new-etag".equals(args.matchETag()))))
+                .thenReturn(objectResponse(png(800, 400)));
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+
+        // When
+        ImageRendition rendition = imageRenditionService.getRendition(FileType.IMAGE, "photo.png",
+                ImageRenditionSpec.builder().width(200).build(), null);
+
+        // Then: rien n'est stocké sous l'ancien ETag
+        assertEquals("\"new-etag-w200-hauto-contain-q85.jpeg\"", rendition.getEtag());
+        verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> args.object().contains("/new-etag/")));
+    }
+
+    @Test
+    void getRendition_Cached_ServesDerivativeWithoutDecoding() throws Exception {
+        // Given
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(objectResponse(new byte[]{1, 2, 3}));
+
+        // When
+        ImageRendition rendition = imageRenditionService.getRendition(FileType.PHOTO, "photo.png",
+                ImageRenditionSpec.builder().width(200).build(), null);
+
+        // Then
+        assertArrayEquals(new byte[]{1, 2, 3}, rendition.getInputStream().readAllBytes());
+        verify(minioClient, times(1)).getObject(any(GetObjectArgs.class));
+        verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+    }
+
+    @Test
+    void getRendition_MatchingEtag_ReturnsNotModifiedWithoutReading() throws Exception {
+        // When
+        ImageRendition rendition = imageRenditionService.getRendition(FileType.IMAGE, "photo.png",
+                ImageRenditionSpec.builder().width(200).build(), "\"source-etag-w200-hauto-contain-q85.jpeg\"");
+
+        // Then
+        assertTrue(rendition.isNotModified());
+        verify(minioClient, never()).getObject(any(GetObjectArgs.class));
+    }
+
+    @Test
+    void getRendition_WeakEtagInList_ReturnsNotModified() throws Exception {
+        // When
+        ImageRendition rendition = imageRenditionService.getRendition(FileType.IMAGE, "photo.png",
+                ImageRenditionSpec.builder().width(200).build(), "\"other\", W/\"source-etag-w200-hauto-contain-q85.jpeg\"");
+
+        // Then
+        assertTrue(rendition.isNotModified());
+    }
+
+    @Test
+    void pregenerate_ImageWithPresets_ReturnsUrlsAndStoresMissingRenditions() throws Exception {
+        // Given
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        minioProperties.getRendition().getPresets().put(FileType.IMAGE, List.of(preset("small", 64), preset("large", 1024)));
+        imageRenditionService.start();
+        ErrorResponseException noSuchKey = mock(ErrorResponseException.class);
+        ErrorResponse errorResponse = mock(ErrorResponse.class);
+        when(errorResponse.code()).thenReturn("NoSuchKey");
+        when(noSuchKey.errorResponse()).thenReturn(errorResponse);
+        when(minioClient.statObject(argThat((StatObjectArgs args) -> args != null && renditionBucket.equals(args.bucket())
+                && args.object().endsWith("w64-hauto-contain-q85.jpeg"))))
+                .thenThrow(noSuchKey);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(objectResponse(png(800, 400)));
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+
+        // When
+        Map<String, String> urls = imageRenditionService.pregenerate(FileType.IMAGE, "my photo.png", "\"source-etag\"");
+
+        // Then
+        assertEquals("/api/files/render/IMAGE/my%20photo.png?width=64&fit=CONTAIN&format=jpeg&quality=85", urls.get("small"));
+        assertTrue(urls.containsKey("large"));
+        // Seul le rendu absent du bucket dérivé est généré
+        verify(minioClient, timeout(5000)).putObject(argThat((PutObjectArgs args) -> args.object().endsWith("w64-hauto-contain-q85.jpeg")));
+        verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+    }
+
+    @Test
+    void pregenerate_NonImageType_ReturnsNoRendition() {
+        assertTrue(imageRenditionService.pregenerate(FileType.PDF, "a.pdf", "etag").isEmpty());
+        verifyNoInteractions(minioClient);
+    }
+
+    @Test
+    void getRendition_NotAnImageType_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> imageRenditionService.getRendition(FileType.PDF, "a.pdf",
+                ImageRenditionSpec.builder().width(200).build(), null));
+    }
+
+    @Test
+    void resize_Cover_CropsToExactBox() {
+        BufferedImage resized = ImageRenditionServiceImpl.resize(new BufferedImage(800, 400, BufferedImage.TYPE_INT_RGB),
+                ImageRenditionSpec.builder().width(100).height(100).fit(FitMode.COVER).build());
+
+        assertEquals(100, resized.getWidth());
+        assertEquals(100, resized.getHeight());
+    }
+
+    @Test
+    void resize_Contain_NeverUpscales() {
+        BufferedImage source = new BufferedImage(80, 40, BufferedImage.TYPE_INT_RGB);
+
+        assertSame(source, ImageRenditionServiceImpl.resize(source, ImageRenditionSpec.builder().width(200).height(200).build()));
+    }
+
+    @Test
+    void subsampling_KeepsTwiceTheLargestRendition() {
+        List<ImageRenditionSpec> specs = List.of(
+                ImageRenditionSpec.builder().width(200).build(),
+                ImageRenditionSpec.builder().width(500).build());
+
+        assertEquals(8, ImageRenditionServiceImpl.subsampling(8000, 6000, specs));
+        assertEquals(1, ImageRenditionServiceImpl.subsampling(600, 400, specs));
+    }
+
+    @Test
+    void decode_LargeImage_DecodesSubsampledPixels() throws Exception {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(png(4000, 2000)))) {
+            BufferedImage decoded = ImageRenditionServiceImpl.decode(input, List.of(ImageRenditionSpec.builder().width(200).build()));
+
+            assertEquals(400, decoded.getWidth());
+            assertEquals(200, decoded.getHeight());
+        }
+    }
+
+    @Test
+    void decode_Cover_DecodesOnlyCroppedRegion() throws Exception {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(png(4000, 2000)))) {
+            BufferedImage decoded = ImageRenditionServiceImpl.decode(input,
+                    List.of(ImageRenditionSpec.builder().width(100).height(100).fit(FitMode.COVER).build()));
+
+            assertEquals(decoded.getWidth(), decoded.getHeight());
+            assertTrue(decoded.getWidth() >= 200 && decoded.getWidth() < 2000);
+        }
+    }
+
+    @Test
+    void createPlaceholder_Image_ReturnsBlurhashAndDominantColor() throws Exception {
+        // Given
+        BufferedImage image = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        java.awt.Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new java.awt.Color(200, 40, 40));
+        graphics.fillRect(0, 0, 1200, 800);
+        graphics.dispose();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", outputStream);
+
+        // When
+        ImagePlaceholder placeholder = imageRenditionService.createPlaceholder(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        // Then
+        assertEquals(28, placeholder.getBlurhash().length());
+        assertEquals("#c82828", placeholder.getDominantColor());
+    }
+
+    @Test
+    void createPlaceholder_NotAnImage_ReturnsNull() {
+        assertNull(imageRenditionService.createPlaceholder(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    @Test
+    void createPlaceholder_PoolSaturated_ReturnsNull() {
+        // Given : un worker et une file d'une place, tous deux occupés
+        minioProperties.getProcessing().setWorkers(1);
+        minioProperties.getProcessing().setQueueCapacity(1);
+        ProcessingExecutor saturated = new ProcessingExecutor(minioProperties, new SimpleMeterRegistry());
+        ImageRenditionServiceImpl service = new ImageRenditionServiceImpl(minioClient, minioProperties, saturated);
+        CountDownLatch release = new CountDownLatch(1);
+        saturated.submit("busy", () -> release.await(5, TimeUnit.SECONDS));
+        saturated.submit("busy", () -> true);
+
+        try {
+            // When & Then
+            assertNull(service.createPlaceholder(new ByteArrayInputStream(new byte[]{1})));
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void removeDerived_RemovesEveryVersionButNotRenditionsOfNestedObjects() throws Exception {
+        // Given
+        String prefix = minioProperties.getBucket().getImages() + "/photo.png/";
+        List<Result<Item>> listing = new ArrayList<>();
+        for (String key : List.of(prefix + "etag-1/w200.jpeg", prefix + "etag-2/w100.png", prefix + "thumbs/a.png/etag-3/w200.jpeg")) {
+            Item item = mock(Item.class);
+            when(item.objectName()).thenReturn(key);
+            Result<Item> result = mock(Result.class);
+            when(result.get()).thenReturn(item);
+            listing.add(result);
+        }
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+        List<Integer> removed = new ArrayList<>();
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenAnswer(invocation -> {
+            RemoveObjectsArgs args = invocation.getArgument(0);
+            int count = 0;
+            for (DeleteObject ignored : args.objects()) {
+                count++;
+            }
+            removed.add(count);
+            return List.of();
+        });
+
+        // When
+        imageRenditionService.removeDerived(List.of(prefix));
+
+        // Then
+        assertEquals(List.of(2), removed);
+        verify(minioClient).listObjects(argThat((ListObjectsArgs args) -> prefix.equals(args.prefix())
+                && minioProperties.getRendition().getBucket().equals(args.bucket())));
+    }
+
+    private MinioProperties.Preset preset(String name, int width) {
+        MinioProperties.Preset preset = new MinioProperties.Preset();
+        preset.setName(name);
+        preset.setWidth(width);
+        return preset;
+    }
+
+    private GetObjectResponse objectResponse(byte[] content) {
+        return new GetObjectResponse(Headers.of(), "bucket", "", "object", new ByteArrayInputStream(content));
+    }
+
+    private byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private static ErrorResponseException errorResponse(String code) {
+        ErrorResponseException exception = mock(ErrorResponseException.class);
+        ErrorResponse errorResponse = mock(ErrorResponse.class);
+        lenient().when(errorResponse.code()).thenReturn(code);
+        lenient().when(exception.errorResponse()).thenReturn(errorResponse);
+        return exception;
+    }
+}
@@ -0,0 +1,174 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.exception.SourceChangedException;
+import okhttp3.Headers;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MinioRangeReaderTest {
+
+    private static final String BUCKET = "test-documents";
+    private static final String ETAG = "etag-1";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @TempDir
+    Path tempDir;
+
+    private PdfDocumentLoader pdfDocumentLoader;
+    private String currentEtag = ETAG;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getPdf().setTempDirectory(tempDir.toString());
+        pdfDocumentLoader = new PdfDocumentLoader(minioProperties);
+    }
+
+    @Test
+    void load_PageCount_FetchesOnlyTouchedBlocks() throws Exception {
+        // Given
+        byte[] pdf = pdfWithLargeImage(8);
+        serveRanges(pdf);
+
+        // When
+        int pages;
+        long fetched;
+        try (MinioRangeReader reader = new MinioRangeReader(minioClient, BUCKET, "large.pdf", ETAG, pdf.length, 4096, 16)) {
+            pages = pdfDocumentLoader.load(reader, PDDocument::getNumberOfPages);
+            fetched = reader.getBytesFetched();
+            assertTrue(reader.getRequests() > 0);
+        }
+
+        // Then
+        assertEquals(8, pages);
+        assertTrue(fetched < pdf.length / 4, "fetched " + fetched + " of " + pdf.length);
+    }
+
+    @Test
+    void read_AcrossBlocks_ReturnsObjectContent() throws Exception {
+        // Given
+        byte[] content = new byte[10_000];
+        new Random(1).nextBytes(content);
+        serveRanges(content);
+
+        try (MinioRangeReader reader = new MinioRangeReader(minioClient, BUCKET, "data.bin", ETAG, content.length, 1024, 2)) {
+            // When
+            reader.seek(1000);
+            byte[] buffer = new byte[3000];
+            int read = reader.read(buffer, 0, buffer.length);
+
+            // Then
+            assertEquals(3000, read);
+            for (int i = 0; i < read; i++) {
+                assertEquals(content[1000 + i], buffer[i]);
+            }
+            assertEquals(4000, reader.getPosition());
+            assertEquals(4, reader.getRequests());
+
+            reader.seek(content.length);
+            assertTrue(reader.isEOF());
+            assertEquals(-1, reader.read());
+        }
+    }
+
+    @Test
+    void read_ObjectReplacedBetweenBlocks_ThrowsSourceChanged() throws Exception {
+        // Given
+        byte[] content = new byte[4096];
+        serveRanges(content);
+
+        try (MinioRangeReader reader = new MinioRangeReader(minioClient, BUCKET, "data.bin", ETAG, content.length, 1024, 2)) {
+            reader.read(new byte[1024], 0, 1024);
+
+            // When : l'objet est réécrit, les blocs suivants viendraient d'une autre version
+            currentEtag = "etag-2";
+
+            // Then
+            assertThrows(SourceChangedException.class, () -> reader.read(new byte[1024], 0, 1024));
+        }
+    }
+
+    @Test
+    void read_AfterClose_ThrowsException() throws Exception {
+        MinioRangeReader reader = new MinioRangeReader(minioClient, BUCKET, "data.bin", ETAG, 10, 1024, 2);
+        reader.close();
+
+        assertThrows(IOException.class, reader::read);
+    }
+
+    private void serveRanges(byte[] content) throws Exception {
+        ErrorResponseException preconditionFailed = errorResponse("PreconditionFailed");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            if (!currentEtag.equals(args.matchETag())) {
+                throw preconditionFailed;
+            }
+            int offset = args.offset().intValue();
+            int length = args.length().intValue();
+            return new GetObjectResponse(Headers.of(), BUCKET, "", args.object(),
+                    new ByteArrayInputStream(content, offset, length));
+        });
+    }
+
+    private byte[] pdfWithLargeImage(int pageCount) throws Exception {
+        // Image de bruit incompressible sur la première page pour grossir le fichier
+        BufferedImage noise = new BufferedImage(400, 400, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < noise.getHeight(); y++) {
+            for (int x = 0; x < noise.getWidth(); x++) {
+                noise.setRGB(x, y, random.nextInt(0xffffff));
+            }
+        }
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pageCount; i++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                if (i == 0) {
+                    try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                        contentStream.drawImage(LosslessFactory.createFromImage(document, noise), 0, 0);
+                    }
+                }
+            }
+            document.save(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    private static ErrorResponseException errorResponse(String code) {
+        ErrorResponseException exception = mock(ErrorResponseException.class);
+        ErrorResponse errorResponse = mock(ErrorResponse.class);
+        lenient().when(errorResponse.code()).thenReturn(code);
+        lenient().when(exception.errorResponse()).thenReturn(errorResponse);
+        return exception;
+    }
+}
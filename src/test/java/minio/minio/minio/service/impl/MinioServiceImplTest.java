@@ -1,31 +1,52 @@
 package minio.minio.minio.service.impl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.minio.*;
 import io.minio.errors.ErrorResponseException;
 import io.minio.messages.Item;
 import minio.minio.minio.config.MinioProperties;
 import minio.minio.minio.dto.FileDownloadResponse;
+import minio.minio.minio.dto.FileListPage;
 import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
+import minio.minio.minio.enums.FileSortField;
 import minio.minio.minio.dto.FileUploadResponse;
+import minio.minio.minio.dto.ImagePlaceholder;
 import minio.minio.minio.enums.FileType;
 import minio.minio.minio.exception.FileNotFoundException;
 import minio.minio.minio.exception.InvalidFileTypeException;
+import minio.minio.minio.exception.InvalidPdfException;
 import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import minio.minio.minio.service.BucketStatisticsService;
+import minio.minio.minio.service.DeletionQueueService;
+import minio.minio.minio.service.FullTextSearchService;
+import minio.minio.minio.service.ImageRenditionService;
+import minio.minio.minio.service.ObjectIndexService;
 import minio.minio.minio.service.PdfProcessingService;
+import minio.minio.minio.util.ListingCursor;
+import org.apache.pdfbox.io.RandomAccessRead;
 import org.apache.tika.Tika;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -44,6 +65,24 @@ class MinioServiceImplTest {
     @Mock
     private PdfProcessingService pdfProcessingService;
 
+    @Mock
+    private ObjectIndexService objectIndexService;
+
+    @Mock
+    private FullTextSearchService fullTextSearchService;
+
+    @Mock
+    private BucketStatisticsService bucketStatisticsService;
+
+    @Mock
+    private DeletionQueueService deletionQueueService;
+
+    @Mock
+    private ImageRenditionService imageRenditionService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private MultipartFile multipartFile;
 
@@ -102,6 +141,52 @@ class MinioServiceImplTest {
         verify(minioClient).putObject(any(PutObjectArgs.class));
     }
 
+    @Test
+    void uploadFile_PendingDeletion_CancelledBeforeWrite() throws Exception {
+        // Given
+        givenJpegUpload();
+        ObjectWriteResponse writeResponse = mock(ObjectWriteResponse.class);
+        when(writeResponse.etag()).thenReturn("test-etag");
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenReturn(writeResponse);
+        when(deletionQueueService.cancel(bucket.getImages(), "photo.jpg")).thenReturn(true);
+
+        // When
+        minioService.uploadFile(multipartFile, FileType.IMAGE, "photo.jpg");
+
+        // Then: le drain ne peut plus supprimer le nouvel objet
+        var inOrder = inOrder(deletionQueueService, minioClient);
+        inOrder.verify(deletionQueueService).cancel(bucket.getImages(), "photo.jpg");
+        inOrder.verify(minioClient).putObject(any(PutObjectArgs.class));
+        verify(deletionQueueService, never()).enqueue(any(), any(), any());
+    }
+
+    @Test
+    void uploadFile_WriteFailsAfterCancellingDeletion_QueuesDeletionAgain() throws Exception {
+        // Given
+        givenJpegUpload();
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenThrow(new RuntimeException("connection reset"));
+        when(deletionQueueService.cancel(bucket.getImages(), "photo.jpg")).thenReturn(true);
+
+        // When
+        assertThrows(MinioException.class, () -> minioService.uploadFile(multipartFile, FileType.IMAGE, "photo.jpg"));
+
+        // Then: l'ancien objet est toujours là, sa suppression reste due
+        verify(deletionQueueService).enqueue(bucket.getImages(), FileType.IMAGE, List.of("photo.jpg"));
+    }
+
+    private void givenJpegUpload() throws Exception {
+        byte[] fileContent = new byte[]{
+            (byte)0xFF, (byte)0xD8, (byte)0xFF, (byte)0xE0, 0x00, 0x10, 0x4A, 0x46, 0x49, 0x46, 0x00, 0x01,
+            0x01, 0x01, 0x00, 0x48, 0x00, 0x48, 0x00, 0x00, (byte)0xFF, (byte)0xD9
+        };
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getSize()).thenReturn((long) fileContent.length);
+        lenient().when(multipartFile.getOriginalFilename()).thenReturn("photo.jpg");
+        when(multipartFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(fileContent));
+        lenient().when(multipartFile.getContentType()).thenReturn("image/jpeg");
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+    }
+
     @Test
     void uploadFile_EmptyFile_ThrowsException() {
         // Given
@@ -200,6 +285,210 @@ class MinioServiceImplTest {
         // Then
         assertTrue(result);
         verify(minioClient).removeObject(any(RemoveObjectArgs.class));
+        verify(imageRenditionService).deleteRenditions(fileType, bucket.getImages(), List.of(fileName));
+    }
+
+    @Test
+    void deleteFiles_SplitsIntoBatchesAndReportsErrors() throws Exception {
+        // Given
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            fileNames.add("doc-" + i + ".pdf");
+        }
+        io.minio.messages.DeleteError error = mock(io.minio.messages.DeleteError.class);
+        when(error.objectName()).thenReturn("doc-7.pdf");
+        when(error.code()).thenReturn("AccessDenied");
+        Result<io.minio.messages.DeleteError> errorResult = mock(Result.class);
+        when(errorResult.get()).thenReturn(error);
+        // Les lots partent en parallèle : seul le premier lot (1000 clés, dont doc-7.pdf) renvoie l'erreur
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenAnswer(invocation -> {
+            RemoveObjectsArgs args = invocation.getArgument(0);
+            long size = java.util.stream.StreamSupport.stream(args.objects().spliterator(), false).count();
+            return size == 1000 ? List.of(errorResult) : List.of();
+        });
+
+        // When
+        var response = minioService.deleteFiles(FileType.PDF, fileNames, null);
+
+        // Then
+        assertEquals(1500, response.getRequested());
+        assertEquals(1499, response.getDeleted());
+        assertEquals("doc-7.pdf", response.getErrors().get(0).getFileName());
+        verify(minioClient, times(2)).removeObjects(any(RemoveObjectsArgs.class));
+        verify(bucketStatisticsService, never()).removeAndRecord(bucket.getDocuments(), "doc-7.pdf");
+        verify(bucketStatisticsService).removeAndRecord(bucket.getDocuments(), "doc-8.pdf");
+    }
+
+    @Test
+    void deleteFiles_BatchFails_WaitsForRunningBatchesBeforeThrowing() throws Exception {
+        // Given
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            fileNames.add(String.format("doc-%04d.pdf", i));
+        }
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        when(minioClient.removeObjects(any(RemoveObjectsArgs.class))).thenAnswer(invocation -> {
+            if (started.getAndIncrement() == 0) {
+                completed.incrementAndGet();
+                throw new IllegalStateException("connection reset");
+            }
+            Thread.sleep(200);
+            completed.incrementAndGet();
+            return List.of();
+        });
+
+        // When
+        assertThrows(MinioException.class, () -> minioService.deleteFiles(FileType.PDF, fileNames, null));
+
+        // Then: aucun lot ne supprime encore une fois l'erreur remontée
+        assertEquals(started.get(), completed.get());
+    }
+
+    @Test
+    void deleteFilesAsync_JournalEnabled_QueuesWithoutCallingMinio() throws Exception {
+        // Given
+        when(deletionQueueService.isEnabled()).thenReturn(true);
+
+        // When
+        var response = minioService.deleteFilesAsync(FileType.IMAGE, List.of("a.jpg"));
+
+        // Then
+        assertEquals(1, response.getQueued());
+        verify(deletionQueueService).enqueue(bucket.getImages(), FileType.IMAGE, List.of("a.jpg"));
+        verify(minioClient, never()).removeObjects(any(RemoveObjectsArgs.class));
+    }
+
+    @Test
+    void uploadFile_BrokenPdf_RejectedBeforeStoring() throws Exception {
+        // Given
+        byte[] fileContent = "%PDF-1.4\n1 0 obj\n<<\n/Type /Catalog".getBytes();
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getSize()).thenReturn((long) fileContent.length);
+        when(multipartFile.getOriginalFilename()).thenReturn("broken.pdf");
+        when(multipartFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(fileContent));
+        when(minioProperties.getPdf()).thenReturn(new MinioProperties.Pdf());
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        doThrow(new InvalidPdfException("missing %%EOF marker, the file may be truncated"))
+                .when(pdfProcessingService).validatePdfStructure(any(InputStream.class));
+
+        // When & Then
+        assertThrows(InvalidPdfException.class, () ->
+            minioService.uploadFile(multipartFile, FileType.PDF));
+        verify(minioClient, never()).putObject(any(PutObjectArgs.class));
+    }
+
+    @Test
+    void uploadFile_WithTtl_StoresExpiryWithObject() throws Exception {
+        // Given
+        byte[] fileContent = new byte[]{
+            (byte)0xFF, (byte)0xD8, (byte)0xFF, (byte)0xE0, 0x00, 0x10, 0x4A, 0x46, 0x49, 0x46, 0x00, 0x01,
+            0x01, 0x01, 0x00, 0x48, 0x00, 0x48, 0x00, 0x00, (byte)0xFF, (byte)0xD9
+        };
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getSize()).thenReturn((long) fileContent.length);
+        when(multipartFile.getOriginalFilename()).thenReturn("preview.jpg");
+        when(multipartFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(fileContent));
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        ObjectWriteResponse writeResponse = mock(ObjectWriteResponse.class);
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenReturn(writeResponse);
+
+        // When
+        FileUploadResponse response = minioService.uploadFile(multipartFile, FileType.IMAGE, null, java.time.Duration.ofHours(1));
+
+        // Then
+        assertNotNull(response.getExpiresAt());
+        ArgumentCaptor<PutObjectArgs> args = ArgumentCaptor.forClass(PutObjectArgs.class);
+        verify(minioClient).putObject(args.capture());
+        assertNotNull(args.getValue().userMetadata().get("X-Amz-Meta-expires-at"));
+        verify(bucketStatisticsService).putAndRecord(argThat(metadata -> metadata.getExpiresAt() != null));
+    }
+
+    @Test
+    void uploadFile_Image_StoresPlaceholderWithObject() throws Exception {
+        // Given
+        byte[] fileContent = new byte[]{
+            (byte)0xFF, (byte)0xD8, (byte)0xFF, (byte)0xE0, 0x00, 0x10, 0x4A, 0x46, 0x49, 0x46, 0x00, 0x01,
+            0x01, 0x01, 0x00, 0x48, 0x00, 0x48, 0x00, 0x00, (byte)0xFF, (byte)0xD9
+        };
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getSize()).thenReturn((long) fileContent.length);
+        when(multipartFile.getOriginalFilename()).thenReturn("preview.jpg");
+        when(multipartFile.getInputStream()).thenAnswer(invocation -> new ByteArrayInputStream(fileContent));
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        ObjectWriteResponse writeResponse = mock(ObjectWriteResponse.class);
+        when(minioClient.putObject(any(PutObjectArgs.class))).thenReturn(writeResponse);
+        when(imageRenditionService.createPlaceholder(any(InputStream.class)))
+                .thenReturn(ImagePlaceholder.builder().blurhash("LEHV6nWB2yk8").dominantColor("#a0b0c0").build());
+
+        // When
+        FileUploadResponse response = minioService.uploadFile(multipartFile, FileType.IMAGE);
+
+        // Then
+        assertEquals("LEHV6nWB2yk8", response.getPlaceholder());
+        assertEquals("#a0b0c0", response.getDominantColor());
+        ArgumentCaptor<PutObjectArgs> args = ArgumentCaptor.forClass(PutObjectArgs.class);
+        verify(minioClient).putObject(args.capture());
+        assertTrue(args.getValue().userMetadata().values().contains("LEHV6nWB2yk8"));
+        verify(bucketStatisticsService).putAndRecord(argThat(metadata -> "#a0b0c0".equals(metadata.getDominantColor())));
+    }
+
+    @Test
+    void listFiles_IndexReady_HidesExpiredFiles() throws Exception {
+        // Given
+        when(objectIndexService.isReady(bucket.getFiles())).thenReturn(true);
+        when(objectIndexService.list(bucket.getFiles())).thenReturn(List.of(
+                FileMetadata.builder().fileName("kept.csv").build(),
+                FileMetadata.builder().fileName("expired.csv").expiresAt(java.time.LocalDateTime.now().minusMinutes(1)).build()));
+
+        // When
+        List<FileMetadata> files = minioService.listFiles(FileType.FILE);
+
+        // Then
+        assertEquals(List.of("kept.csv"), files.stream().map(FileMetadata::getFileName).toList());
+    }
+
+    @Test
+    void sweepExpiredFiles_QueuesExpiredFilesOncePerBucket() throws Exception {
+        // Given
+        when(minioProperties.getExpiry()).thenReturn(new MinioProperties.Expiry());
+        when(objectIndexService.isReady(anyString())).thenReturn(true);
+        when(objectIndexService.findExpired(anyString(), any(), anyInt())).thenReturn(List.of());
+        when(objectIndexService.findExpired(eq(bucket.getFiles()), any(), eq(1000))).thenReturn(List.of("export.zip"));
+        when(deletionQueueService.isEnabled()).thenReturn(true);
+
+        // When
+        minioService.sweepExpiredFiles();
+
+        // Then
+        verify(deletionQueueService).enqueue(bucket.getFiles(), FileType.FILE, List.of("export.zip"));
+        verify(objectIndexService, times(bucket.distinctNames().size())).findExpired(anyString(), any(), anyInt());
+    }
+
+    @Test
+    void sweepExpiredFiles_IndexNotReady_SweepsByListingOncePerInterval() throws Exception {
+        // Given
+        when(minioProperties.getExpiry()).thenReturn(new MinioProperties.Expiry());
+        when(deletionQueueService.isEnabled()).thenReturn(true);
+        Result<Item> expired = listedItem("old.csv", 10);
+        when(expired.get().userMetadata()).thenReturn(Map.of("X-Amz-Meta-expires-at", Instant.now().minusSeconds(60).toString()));
+        Result<Item> kept = listedItem("kept.csv", 10);
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(List.of());
+        when(minioClient.listObjects(argThat((ListObjectsArgs args) -> args != null && bucket.getFiles().equals(args.bucket()))))
+                .thenReturn(List.of(expired, kept));
+
+        // When
+        minioService.sweepExpiredFiles();
+        minioService.sweepExpiredFiles();
+
+        // Then
+        verify(deletionQueueService).enqueue(bucket.getFiles(), FileType.FILE, List.of("old.csv"));
+        verify(minioClient, times(bucket.distinctNames().size())).listObjects(any(ListObjectsArgs.class));
+    }
+
+    @Test
+    void deleteFiles_NeitherNamesNorPrefix_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> minioService.deleteFiles(FileType.IMAGE, List.of(), null));
     }
 
     @Test
@@ -269,6 +558,282 @@ class MinioServiceImplTest {
         assertEquals("test.jpg", files.get(0).getFileName());
     }
 
+    @Test
+    void listFiles_IndexReady_ServedFromIndex() throws Exception {
+        // Given
+        FileMetadata indexed = FileMetadata.builder().fileName("indexed.jpg").bucketName(bucket.getImages()).build();
+        when(objectIndexService.isReady(bucket.getImages())).thenReturn(true);
+        when(objectIndexService.list(bucket.getImages())).thenReturn(List.of(indexed));
+
+        // When
+        List<FileMetadata> files = minioService.listFiles(FileType.IMAGE);
+
+        // Then
+        assertEquals(List.of(indexed), files);
+        verify(minioClient, never()).listObjects(any(ListObjectsArgs.class));
+    }
+
+    @Test
+    void listFilesPage_MoreObjects_ReturnsCursorOfLastItem() throws Exception {
+        // Given
+        List<Result<Item>> listing = List.of(listedItem("a.jpg", 1L), listedItem("b.jpg", 1L), listedItem("c.jpg", 1L));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        FileListPage page = minioService.listFiles(FileType.IMAGE, null, 2);
+
+        // Then
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isTruncated());
+        assertEquals("b.jpg", ListingCursor.decode(page.getNextCursor()));
+
+        ArgumentCaptor<ListObjectsArgs> args = ArgumentCaptor.forClass(ListObjectsArgs.class);
+        verify(minioClient).listObjects(args.capture());
+        assertEquals(3, args.getValue().maxKeys());
+        assertNull(args.getValue().startAfter());
+    }
+
+    @Test
+    void listFilesPage_LimitOverOneRequest_FetchesSinglePage() throws Exception {
+        // Given
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(List.of());
+
+        // When
+        minioService.listFiles(FileType.IMAGE, null, 5000);
+
+        // Then
+        ArgumentCaptor<ListObjectsArgs> args = ArgumentCaptor.forClass(ListObjectsArgs.class);
+        verify(minioClient).listObjects(args.capture());
+        assertEquals(1000, args.getValue().maxKeys());
+    }
+
+    @Test
+    void listFilesPage_WithCursor_StartsAfterLastObject() throws Exception {
+        // Given
+        List<Result<Item>> listing = List.of(listedItem("c.jpg", 1L));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        FileListPage page = minioService.listFiles(FileType.IMAGE, ListingCursor.encode("b.jpg"), 2);
+
+        // Then
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isTruncated());
+        assertNull(page.getNextCursor());
+
+        ArgumentCaptor<ListObjectsArgs> args = ArgumentCaptor.forClass(ListObjectsArgs.class);
+        verify(minioClient).listObjects(args.capture());
+        assertEquals("b.jpg", args.getValue().startAfter());
+    }
+
+    @Test
+    void listFilesPage_WithDelimiter_SeparatesCommonPrefixes() throws Exception {
+        // Given
+        Item folder = mock(Item.class);
+        when(folder.isDir()).thenReturn(true);
+        when(folder.objectName()).thenReturn("albums/2024/");
+        Result<Item> folderResult = mock(Result.class);
+        when(folderResult.get()).thenReturn(folder);
+        List<Result<Item>> listing = List.of(folderResult, listedItem("albums/cover.jpg", 1L));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        FileListPage page = minioService.listFiles(FileType.IMAGE, "albums/", "/", null, 10);
+
+        // Then
+        assertEquals(List.of("albums/2024/"), page.getCommonPrefixes());
+        assertEquals(1, page.getItems().size());
+        assertEquals("albums/cover.jpg", page.getItems().get(0).getFileName());
+
+        ArgumentCaptor<ListObjectsArgs> args = ArgumentCaptor.forClass(ListObjectsArgs.class);
+        verify(minioClient).listObjects(args.capture());
+        assertEquals("albums/", args.getValue().prefix());
+        assertEquals("/", args.getValue().delimiter());
+    }
+
+    @Test
+    void listFilesPage_InvalidCursor_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () ->
+            minioService.listFiles(FileType.IMAGE, "not a cursor!", 10));
+    }
+
+    @Test
+    void forEachFile_ConsumerStops_StopsIteration() throws Exception {
+        // Given
+        List<Result<Item>> listing = List.of(listedItem("a.jpg", 1L), listedItem("b.jpg", 1L), listedItem("c.jpg", 1L));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+        List<String> visited = new ArrayList<>();
+
+        // When
+        long count = minioService.forEachFile(FileType.IMAGE, metadata -> {
+            visited.add(metadata.getFileName());
+            return visited.size() < 2;
+        });
+
+        // Then
+        assertEquals(2, count);
+        assertEquals(List.of("a.jpg", "b.jpg"), visited);
+        verify(listing.get(2), never()).get();
+    }
+
+    @Test
+    void queryFiles_IndexReady_DelegatesToIndex() throws Exception {
+        // Given
+        FileQuery query = FileQuery.builder().minSize(10L).build();
+        when(objectIndexService.isReady(bucket.getImages())).thenReturn(true);
+        when(objectIndexService.query(bucket.getImages(), query)).thenReturn(List.of());
+
+        // When
+        minioService.queryFiles(FileType.IMAGE, query);
+
+        // Then
+        verify(objectIndexService).query(bucket.getImages(), query);
+        verify(minioClient, never()).listObjects(any(ListObjectsArgs.class));
+    }
+
+    @Test
+    void queryFiles_IndexNotReady_FiltersAndSortsMinioListing() throws Exception {
+        // Given
+        List<Result<Item>> listing = List.of(listedItem("small.jpg", 10L), listedItem("big.jpg", 5000L),
+                listedItem("medium.jpg", 800L));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        List<FileMetadata> files = minioService.queryFiles(FileType.IMAGE, FileQuery.builder()
+                .minSize(100L)
+                .sort(FileSortField.SIZE)
+                .descending(true)
+                .limit(1)
+                .build());
+
+        // Then
+        assertEquals(1, files.size());
+        assertEquals("big.jpg", files.get(0).getFileName());
+    }
+
+    @Test
+    void queryFiles_NameOrder_StopsMinioListingAtLimit() throws Exception {
+        // Given
+        Result<Item> first = listedItem("a.jpg", 10L);
+        Result<Item> second = listedItem("b.jpg", 10L);
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(List.of(first, second));
+
+        // When
+        List<FileMetadata> files = minioService.queryFiles(FileType.IMAGE, FileQuery.builder().limit(1).build());
+
+        // Then
+        assertEquals(1, files.size());
+        verify(second, never()).get();
+    }
+
+    @Test
+    void queryAllFiles_MergesBucketsInSortOrder() throws Exception {
+        // Given
+        FileQuery query = FileQuery.builder().limit(3).build();
+        when(minioProperties.getIndex()).thenReturn(new MinioProperties.Index());
+        when(objectIndexService.isReady(anyString())).thenReturn(true);
+        when(objectIndexService.query(anyString(), eq(query))).thenReturn(List.of());
+        when(objectIndexService.query(eq(bucket.getSongs()), eq(query))).thenReturn(List.of(
+                FileMetadata.builder().fileName("a.mp3").bucketName(bucket.getSongs()).build(),
+                FileMetadata.builder().fileName("c.mp3").bucketName(bucket.getSongs()).build()));
+        when(objectIndexService.query(eq(bucket.getImages()), eq(query))).thenReturn(List.of(
+                FileMetadata.builder().fileName("b.jpg").bucketName(bucket.getImages()).build(),
+                FileMetadata.builder().fileName("d.jpg").bucketName(bucket.getImages()).build()));
+
+        // When
+        List<FileMetadata> files = minioService.queryAllFiles(query);
+
+        // Then
+        assertEquals(List.of("a.mp3", "b.jpg", "c.mp3"), files.stream().map(FileMetadata::getFileName).toList());
+        verify(objectIndexService, times(bucket.distinctNames().size())).query(anyString(), eq(query));
+    }
+
+    @Test
+    void queryAllFiles_BucketFails_FailsInsteadOfDroppingIt() {
+        // Given
+        FileQuery query = FileQuery.builder().limit(3).build();
+        when(minioProperties.getIndex()).thenReturn(new MinioProperties.Index());
+        when(objectIndexService.isReady(anyString())).thenReturn(true);
+        when(objectIndexService.query(anyString(), eq(query))).thenReturn(List.of());
+        when(objectIndexService.query(eq(bucket.getImages()), eq(query)))
+                .thenThrow(new MinioException("index unavailable"));
+
+        // When & Then
+        MinioException exception = assertThrows(MinioException.class, () -> minioService.queryAllFiles(query));
+        assertEquals("index unavailable", exception.getMessage());
+    }
+
+    @Test
+    void queryAllFiles_BucketTooSlow_FailsAfterTimeout() {
+        // Given
+        FileQuery query = FileQuery.builder().limit(3).build();
+        MinioProperties.Index index = new MinioProperties.Index();
+        index.setQueryTimeout(java.time.Duration.ofMillis(100));
+        when(minioProperties.getIndex()).thenReturn(index);
+        when(objectIndexService.isReady(anyString())).thenReturn(true);
+        when(objectIndexService.query(anyString(), eq(query))).thenReturn(List.of());
+        when(objectIndexService.query(eq(bucket.getSongs()), eq(query))).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return List.of();
+        });
+
+        // When & Then
+        long startedAt = System.nanoTime();
+        assertThrows(ProcessingUnavailableException.class, () -> minioService.queryAllFiles(query));
+        assertTrue(System.nanoTime() - startedAt < java.time.Duration.ofSeconds(5).toNanos());
+    }
+
+    @Test
+    void countFiles_IndexReady_ServedFromIndex() throws Exception {
+        // Given
+        when(objectIndexService.isReady(bucket.getImages())).thenReturn(true);
+        when(objectIndexService.count(bucket.getImages())).thenReturn(42L);
+
+        // When
+        long count = minioService.countFiles(FileType.IMAGE);
+
+        // Then
+        assertEquals(42L, count);
+        verify(minioClient, never()).listObjects(any(ListObjectsArgs.class));
+    }
+
+    @Test
+    void countFiles_IndexReady_ExcludesExpiredFiles() {
+        // Given
+        when(objectIndexService.isReady(bucket.getImages())).thenReturn(true);
+        when(objectIndexService.count(bucket.getImages())).thenReturn(42L);
+        when(objectIndexService.countExpired(eq(bucket.getImages()), any())).thenReturn(2L);
+
+        // When & Then
+        assertEquals(40L, minioService.countFiles(FileType.IMAGE));
+        verify(objectIndexService, never()).findExpired(any(), any(), anyInt());
+    }
+
+    @Test
+    void getStatistics_IndexReady_ExcludesExpiredFiles() {
+        // Given
+        FileMetadata expired = FileMetadata.builder().bucketName(bucket.getImages()).fileName("a.jpg").fileSize(10L).build();
+        when(objectIndexService.isReady(bucket.getImages())).thenReturn(true);
+        Iterator<FileMetadata> expiredEntries = List.of(expired).iterator();
+        when(objectIndexService.iterateExpired(eq(bucket.getImages()), any())).thenReturn(expiredEntries);
+
+        // When
+        minioService.getStatistics(FileType.IMAGE);
+
+        // Then
+        verify(bucketStatisticsService).getStatistics(bucket.getImages(), expiredEntries);
+        verify(objectIndexService, never()).findExpired(any(), any(), anyInt());
+    }
+
+    @Test
+    void deleteFile_Success_RemovesIndexEntry() throws Exception {
+        // When
+        minioService.deleteFile("test.jpg", FileType.IMAGE);
+
+        // Then
+        verify(bucketStatisticsService).removeAndRecord(bucket.getImages(), "test.jpg");
+    }
+
     @Test
     void fileExists_True() throws Exception {
         // Given
@@ -442,4 +1007,85 @@ class MinioServiceImplTest {
         // Then
         assertNull(fileName);
     }
+
+    @SuppressWarnings("unchecked")
+    private Result<Item> listedItem(String name, long size) throws Exception {
+        Item item = mock(Item.class);
+        lenient().when(item.objectName()).thenReturn(name);
+        lenient().when(item.size()).thenReturn(size);
+        lenient().when(item.lastModified()).thenReturn(ZonedDateTime.now());
+        lenient().when(item.etag()).thenReturn("etag-" + name);
+        Result<Item> result = mock(Result.class);
+        lenient().when(result.get()).thenReturn(item);
+        return result;
+    }
+
+    @Test
+    void getPdfPageCount_ReadsRangesAndRecordsFetchedBytes() throws Exception {
+        // Given
+        MinioProperties.Pdf pdf = new MinioProperties.Pdf();
+        when(minioProperties.getPdf()).thenReturn(pdf);
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.size()).thenReturn(1000L);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            return new GetObjectResponse(okhttp3.Headers.of(), "pdfs", "", args.object(),
+                    new ByteArrayInputStream(new byte[args.length().intValue()]));
+        });
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenAnswer(invocation -> {
+            RandomAccessRead source = invocation.getArgument(0);
+            source.seek(900);
+            source.read();
+            return 7;
+        });
+
+        // When
+        int pageCount = minioService.getPdfPageCount("doc.pdf");
+
+        // Then
+        assertEquals(7, pageCount);
+        assertEquals(1000.0, meterRegistry.get("minio.pdf.range.bytes")
+                .tag("operation", "page-count")
+                .summary()
+                .totalAmount());
+        verify(minioClient, times(1)).getObject(any(GetObjectArgs.class));
+    }
+
+    @Test
+    void getPdfPageCount_ObjectReplacedDuringRead_RetriesWithNewEtag() throws Exception {
+        // Given : le PDF est réécrit entre le premier stat et la lecture de ses blocs
+        MinioProperties.Pdf pdf = new MinioProperties.Pdf();
+        when(minioProperties.getPdf()).thenReturn(pdf);
+        StatObjectResponse oldVersion = mock(StatObjectResponse.class);
+        when(oldVersion.size()).thenReturn(1000L);
+        when(oldVersion.etag()).thenReturn("etag-1");
+        StatObjectResponse newVersion = mock(StatObjectResponse.class);
+        when(newVersion.size()).thenReturn(2000L);
+        when(newVersion.etag()).thenReturn("etag-2");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(oldVersion, newVersion);
+        ErrorResponseException preconditionFailed = mock(ErrorResponseException.class);
+        when(preconditionFailed.errorResponse()).thenReturn(mock(io.minio.messages.ErrorResponse.class));
+        when(preconditionFailed.errorResponse().code()).thenReturn("PreconditionFailed");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            if (!"etag-2".equals(args.matchETag())) {
+                throw preconditionFailed;
+            }
+            return new GetObjectResponse(okhttp3.Headers.of(), "pdfs", "", args.object(),
+                    new ByteArrayInputStream(new byte[args.length().intValue()]));
+        });
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenAnswer(invocation -> {
+            RandomAccessRead source = invocation.getArgument(0);
+            source.read();
+            return (int) source.length() / 100;
+        });
+
+        // When
+        int pageCount = minioService.getPdfPageCount("doc.pdf");
+
+        // Then
+        assertEquals(20, pageCount);
+        verify(minioClient, times(2)).statObject(any(StatObjectArgs.class));
+    }
 }
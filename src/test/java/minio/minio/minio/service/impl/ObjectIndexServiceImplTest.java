@@ -0,0 +1,438 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.ListObjectsArgs;
+import io.minio.MinioClient;
+import io.minio.Result;
+import io.minio.messages.Item;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
+import minio.minio.minio.enums.FileSortField;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ObjectIndexServiceImplTest {
+
+    private static final String BUCKET = "test-images";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @TempDir
+    Path tempDir;
+
+    private MinioProperties minioProperties;
+    private ObjectIndexServiceImpl objectIndexService;
+
+    @BeforeEach
+    void setUp() {
+        minioProperties = new MinioProperties();
+        minioProperties.getIndex().setPath(tempDir.resolve("index.mv.db").toString());
+        objectIndexService = new ObjectIndexServiceImpl(minioClient, minioProperties);
+        objectIndexService.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        objectIndexService.close();
+    }
+
+    @Test
+    void putAndFind_ReturnsStoredEntry() {
+        // Given
+        FileMetadata metadata = entry("a.jpg", 10L, "etag-a");
+
+        // When
+        FileMetadata previous = objectIndexService.put(metadata);
+
+        // Then
+        assertNull(previous);
+        FileMetadata found = objectIndexService.find(BUCKET, "a.jpg").orElseThrow();
+        assertEquals(10L, found.getFileSize());
+        assertEquals("etag-a", found.getEtag());
+        assertEquals("image/jpeg", found.getContentType());
+        assertEquals(1, objectIndexService.count(BUCKET));
+    }
+
+    @Test
+    void put_ExistingEntry_ReturnsPrevious() {
+        // Given
+        objectIndexService.put(entry("a.jpg", 10L, "etag-1"));
+
+        // When
+        FileMetadata previous = objectIndexService.put(entry("a.jpg", 20L, "etag-2"));
+
+        // Then
+        assertEquals("etag-1", previous.getEtag());
+        assertEquals(1, objectIndexService.count(BUCKET));
+        assertEquals(20L, objectIndexService.find(BUCKET, "a.jpg").orElseThrow().getFileSize());
+    }
+
+    @Test
+    void remove_DeletesEntry() {
+        // Given
+        objectIndexService.put(entry("a.jpg", 10L, "etag-a"));
+
+        // When
+        FileMetadata removed = objectIndexService.remove(BUCKET, "a.jpg");
+
+        // Then
+        assertNotNull(removed);
+        assertTrue(objectIndexService.find(BUCKET, "a.jpg").isEmpty());
+        assertEquals(0, objectIndexService.count(BUCKET));
+    }
+
+    @Test
+    void list_ReturnsEntriesOrderedByName() {
+        // Given
+        objectIndexService.put(entry("b.jpg", 1L, "b"));
+        objectIndexService.put(entry("a.jpg", 1L, "a"));
+
+        // When
+        List<FileMetadata> files = objectIndexService.list(BUCKET);
+
+        // Then
+        assertEquals(List.of("a.jpg", "b.jpg"), files.stream().map(FileMetadata::getFileName).toList());
+    }
+
+    @Test
+    void iterate_IgnoresEntriesAddedAfterwards() {
+        // Given
+        objectIndexService.put(entry("b.jpg", 2L, "etag-b"));
+        objectIndexService.put(entry("a.jpg", 1L, "etag-a"));
+
+        // When
+        Iterator<FileMetadata> entries = objectIndexService.iterate(BUCKET);
+        objectIndexService.put(entry("c.jpg", 3L, "etag-c"));
+
+        // Then
+        List<String> names = new ArrayList<>();
+        entries.forEachRemaining(metadata -> names.add(metadata.getFileName()));
+        assertEquals(List.of("a.jpg", "b.jpg"), names);
+    }
+
+    @Test
+    void query_SortedBySizeDescending_ReturnsLargestInRange() {
+        // Given
+        objectIndexService.put(entry("small.jpg", 10L, "1"));
+        objectIndexService.put(entry("medium.jpg", 500L, "2"));
+        objectIndexService.put(entry("large.jpg", 5_000L, "3"));
+        objectIndexService.put(entry("huge.jpg", 50_000L, "4"));
+
+        // When
+        List<FileMetadata> files = objectIndexService.query(BUCKET, FileQuery.builder()
+                .minSize(100L)
+                .maxSize(10_000L)
+                .sort(FileSortField.SIZE)
+                .descending(true)
+                .limit(10)
+                .build());
+
+        // Then
+        assertEquals(List.of("large.jpg", "medium.jpg"), names(files));
+    }
+
+    @Test
+    void query_SortedByLastModified_AppliesDateRangeAndLimit() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        for (int day = 1; day <= 5; day++) {
+            FileMetadata metadata = entry("day" + day + ".jpg", 1L, "e" + day);
+            metadata.setLastModified(now.minusDays(day));
+            objectIndexService.put(metadata);
+        }
+
+        // When
+        List<FileMetadata> files = objectIndexService.query(BUCKET, FileQuery.builder()
+                .modifiedAfter(now.minusDays(4).minusHours(1))
+                .sort(FileSortField.LAST_MODIFIED)
+                .descending(true)
+                .limit(2)
+                .build());
+
+        // Then
+        assertEquals(List.of("day1.jpg", "day2.jpg"), names(files));
+    }
+
+    @Test
+    void query_ByPrefixGlobAndContentType_FiltersEntries() {
+        // Given
+        objectIndexService.put(entry("reports/2024.jpg", 1L, "1"));
+        objectIndexService.put(entry("reports/2025.jpg", 1L, "2"));
+        objectIndexService.put(entry("reports/2025.png", 1L, "3"));
+        objectIndexService.put(entry("other/2025.jpg", 1L, "4"));
+
+        // When
+        List<FileMetadata> files = objectIndexService.query(BUCKET, FileQuery.builder()
+                .prefix("reports/")
+                .glob("*2025*")
+                .contentType("image/*")
+                .descending(true)
+                .build());
+
+        // Then
+        assertEquals(List.of("reports/2025.png", "reports/2025.jpg"), names(files));
+    }
+
+    @Test
+    void query_AfterUpdate_DoesNotReturnStaleSecondaryKeys() {
+        // Given
+        objectIndexService.put(entry("a.jpg", 10L, "1"));
+        objectIndexService.put(entry("a.jpg", 20_000L, "2"));
+
+        // When
+        List<FileMetadata> files = objectIndexService.query(BUCKET, FileQuery.builder()
+                .maxSize(100L)
+                .sort(FileSortField.SIZE)
+                .build());
+
+        // Then
+        assertTrue(files.isEmpty());
+    }
+
+    @Test
+    void isReady_BeforeReconcile_ReturnsFalse() {
+        assertFalse(objectIndexService.isReady(BUCKET));
+    }
+
+    @Test
+    void reconcile_AddsMissingAndRemovesStaleEntries() throws Exception {
+        // Given
+        FileMetadata stale = entry("stale.jpg", 5L, "stale");
+        stale.setLastModified(LocalDateTime.now().minusDays(1));
+        objectIndexService.put(stale);
+        List<Result<Item>> listing = List.of(result(item("new.jpg", 7L, "new")));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        objectIndexService.reconcile(BUCKET);
+
+        // Then
+        assertTrue(objectIndexService.isReady(BUCKET));
+        assertTrue(objectIndexService.find(BUCKET, "stale.jpg").isEmpty());
+        FileMetadata added = objectIndexService.find(BUCKET, "new.jpg").orElseThrow();
+        assertEquals(7L, added.getFileSize());
+        assertEquals("image/png", added.getContentType());
+    }
+
+    @Test
+    void reconcile_UnchangedObject_KeepsExtractedMetadata() throws Exception {
+        // Given
+        FileMetadata indexed = entry("doc.pdf", 7L, "same");
+        indexed.setPageCount(12);
+        objectIndexService.put(indexed);
+        List<Result<Item>> listing = List.of(result(item("doc.pdf", 7L, "\"same\"")));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        objectIndexService.reconcile(BUCKET);
+
+        // Then
+        assertEquals(12, objectIndexService.find(BUCKET, "doc.pdf").orElseThrow().getPageCount());
+    }
+
+    @Test
+    void reconcile_InterleavedStaleEntries_AreRemoved() throws Exception {
+        // Given
+        for (String name : List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg")) {
+            FileMetadata indexed = entry(name, 1L, "etag-" + name);
+            indexed.setLastModified(LocalDateTime.now().minusDays(1));
+            objectIndexService.put(indexed);
+        }
+        List<Result<Item>> listing = List.of(result(item("a.jpg", 1L, "etag-a.jpg")), result(item("c.jpg", 1L, "etag-c.jpg")));
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(listing);
+
+        // When
+        objectIndexService.reconcile(BUCKET);
+
+        // Then
+        assertEquals(List.of("a.jpg", "c.jpg"), names(objectIndexService.list(BUCKET)));
+    }
+
+    @Test
+    void reconcile_ObjectDeletedAfterListing_IsNotReinserted() throws Exception {
+        // Given
+        Item listed = item("gone.jpg", 7L, "gone");
+        Result<Item> result = result(listed);
+        when(result.get()).thenAnswer(invocation -> {
+            // Suppression concurrente entre le listing et la mise à jour de l'index
+            objectIndexService.remove(BUCKET, "gone.jpg");
+            return listed;
+        });
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(List.of(result));
+
+        // When
+        objectIndexService.reconcile(BUCKET);
+
+        // Then
+        assertTrue(objectIndexService.find(BUCKET, "gone.jpg").isEmpty());
+    }
+
+    @Test
+    void reconcile_ObjectReplacedAfterListing_KeepsNewerEntry() throws Exception {
+        // Given
+        objectIndexService.put(entry("doc.pdf", 7L, "old"));
+        Item listed = item("doc.pdf", 7L, "old-listed");
+        when(listed.lastModified()).thenReturn(ZonedDateTime.now().minusMinutes(5));
+        Result<Item> result = result(listed);
+        when(result.get()).thenAnswer(invocation -> {
+            // Upload concurrent enregistré après le listing
+            objectIndexService.put(entry("doc.pdf", 9L, "new"));
+            return listed;
+        });
+        when(minioClient.listObjects(any(ListObjectsArgs.class))).thenReturn(List.of(result));
+
+        // When
+        objectIndexService.reconcile(BUCKET);
+
+        // Then
+        assertEquals("new", objectIndexService.find(BUCKET, "doc.pdf").orElseThrow().getEtag());
+    }
+
+    @Test
+    void index_SurvivesReopen() {
+        // Given
+        objectIndexService.put(entry("a.jpg", 10L, "etag-a"));
+        objectIndexService.close();
+
+        // When
+        objectIndexService = new ObjectIndexServiceImpl(minioClient, minioProperties);
+        objectIndexService.open();
+
+        // Then
+        assertTrue(objectIndexService.find(BUCKET, "a.jpg").isPresent());
+    }
+
+    @Test
+    void disabledIndex_IsNeverReady() {
+        // Given
+        objectIndexService.close();
+        minioProperties.getIndex().setEnabled(false);
+        objectIndexService = new ObjectIndexServiceImpl(minioClient, minioProperties);
+        objectIndexService.open();
+
+        // When
+        objectIndexService.put(entry("a.jpg", 10L, "etag-a"));
+
+        // Then
+        assertFalse(objectIndexService.isReady(BUCKET));
+        assertTrue(objectIndexService.find(BUCKET, "a.jpg").isEmpty());
+    }
+
+    private List<String> names(List<FileMetadata> files) {
+        return files.stream().map(FileMetadata::getFileName).toList();
+    }
+
+    @Test
+    void findExpired_ReturnsOnlyExpiredEntries() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        FileMetadata expired = entry("old.tmp", 1L, "etag-1");
+        expired.setExpiresAt(now.minusMinutes(5));
+        FileMetadata alive = entry("new.tmp", 1L, "etag-2");
+        alive.setExpiresAt(now.plusHours(1));
+        objectIndexService.put(expired);
+        objectIndexService.put(alive);
+        objectIndexService.put(entry("forever.jpg", 1L, "etag-3"));
+
+        // When
+        List<String> names = objectIndexService.findExpired(BUCKET, now, 10);
+
+        // Then
+        assertEquals(List.of("old.tmp"), names);
+        objectIndexService.remove(BUCKET, "old.tmp");
+        assertTrue(objectIndexService.findExpired(BUCKET, now, 10).isEmpty());
+    }
+
+    @Test
+    void countExpired_CountsOnlyExpiredEntries() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            FileMetadata expired = entry("old-" + i + ".tmp", 1L, "etag-old-" + i);
+            expired.setExpiresAt(now.minusMinutes(i + 1));
+            objectIndexService.put(expired);
+        }
+        FileMetadata alive = entry("new.tmp", 1L, "etag-new");
+        alive.setExpiresAt(now.plusHours(1));
+        objectIndexService.put(alive);
+        objectIndexService.put(entry("forever.jpg", 1L, "etag-forever"));
+
+        // When & Then
+        assertEquals(5L, objectIndexService.countExpired(BUCKET, now));
+        objectIndexService.remove(BUCKET, "old-0.tmp");
+        assertEquals(4L, objectIndexService.countExpired(BUCKET, now));
+        assertEquals(0L, objectIndexService.countExpired(BUCKET, now.minusHours(1)));
+    }
+
+    @Test
+    void iterateExpired_WalksExpiredEntriesOldestFirst() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        FileMetadata older = entry("older.tmp", 10L, "etag-1");
+        older.setExpiresAt(now.minusHours(2));
+        FileMetadata old = entry("old.tmp", 20L, "etag-2");
+        old.setExpiresAt(now.minusMinutes(5));
+        FileMetadata alive = entry("new.tmp", 30L, "etag-3");
+        alive.setExpiresAt(now.plusHours(1));
+        objectIndexService.put(old);
+        objectIndexService.put(older);
+        objectIndexService.put(alive);
+
+        // When
+        List<FileMetadata> expired = new ArrayList<>();
+        objectIndexService.iterateExpired(BUCKET, now).forEachRemaining(expired::add);
+
+        // Then
+        assertEquals(List.of("older.tmp", "old.tmp"), names(expired));
+        assertEquals(10L, expired.get(0).getFileSize());
+    }
+
+    private FileMetadata entry(String fileName, long size, String etag) {
+        LocalDateTime now = LocalDateTime.now();
+        return FileMetadata.builder()
+                .fileName(fileName)
+                .bucketName(BUCKET)
+                .fileSize(size)
+                .contentType("image/jpeg")
+                .createdAt(now)
+                .lastModified(now)
+                .etag(etag)
+                .build();
+    }
+
+    private Item item(String name, long size, String etag) {
+        Item item = mock(Item.class);
+        lenient().when(item.objectName()).thenReturn(name);
+        lenient().when(item.size()).thenReturn(size);
+        lenient().when(item.etag()).thenReturn(etag);
+        lenient().when(item.lastModified()).thenReturn(ZonedDateTime.now());
+        lenient().when(item.userMetadata()).thenReturn(Map.of("content-type", "image/png"));
+        return item;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Result<Item> result(Item item) throws Exception {
+        Result<Item> result = mock(Result.class);
+        when(result.get()).thenReturn(item);
+        return result;
+    }
+}
@@ -0,0 +1,165 @@
+package minio.minio.minio.service.impl;
+
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.exception.SourceChangedException;
+import okhttp3.Headers;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PdfDocumentCacheTest {
+
+    private static final String BUCKET = "test-documents";
+
+    @Mock
+    private MinioClient minioClient;
+
+    @TempDir
+    Path tempDir;
+
+    private MinioProperties minioProperties;
+    private PdfDocumentLoader pdfDocumentLoader;
+    private PdfDocumentCache pdfDocumentCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        minioProperties = new MinioProperties();
+        minioProperties.getPdf().setTempDirectory(tempDir.toString());
+        minioProperties.getPdf().setMemoryBudget(DataSize.ofMegabytes(64));
+        minioProperties.getPdf().setMaxMainMemoryPerDocument(DataSize.ofMegabytes(16));
+        minioProperties.getPdf().setDocumentCacheSize(2);
+        pdfDocumentLoader = new PdfDocumentLoader(minioProperties);
+        pdfDocumentCache = new PdfDocumentCache(minioClient, minioProperties, pdfDocumentLoader);
+        byte[] pdf = pdf(3);
+        lenient().when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> new GetObjectResponse(
+                Headers.of(), BUCKET, "", "object", new ByteArrayInputStream(pdf)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pdfDocumentCache.clear();
+    }
+
+    @Test
+    void withDocument_SameVersion_DownloadsAndParsesOnce() throws Exception {
+        // When
+        PDDocument first = pdfDocumentCache.withDocument(BUCKET, "report.pdf", "etag-1", document -> document);
+        int pages = pdfDocumentCache.withDocument(BUCKET, "report.pdf", "etag-1", document -> {
+            assertSame(first, document);
+            return document.getNumberOfPages();
+        });
+
+        // Then
+        assertEquals(3, pages);
+        verify(minioClient, times(1)).getObject(any(GetObjectArgs.class));
+        assertEquals(48, pdfDocumentLoader.availableMemoryMegabytes());
+    }
+
+    @Test
+    void withDocument_ObjectChangedSinceStat_ThrowsAndCachesNothing() throws Exception {
+        // Given
+        ErrorResponseException preconditionFailed = mock(ErrorResponseException.class);
+        ErrorResponse errorResponse = mock(ErrorResponse.class);
+        when(errorResponse.code()).thenReturn("PreconditionFailed");
+        when(preconditionFailed.errorResponse()).thenReturn(errorResponse);
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenThrow(preconditionFailed);
+
+        // When & Then
+        assertThrows(SourceChangedException.class,
+                () -> pdfDocumentCache.withDocument(BUCKET, "report.pdf", "etag-1", PDDocument::getNumberOfPages));
+        assertEquals(0, pdfDocumentCache.size());
+        verify(minioClient).getObject(argThat((GetObjectArgs args) -> "etag-1".equals(args.matchETag())));
+    }
+
+    @Test
+    void withDocument_NewVersion_LoadsAgain() throws Exception {
+        // When
+        pdfDocumentCache.withDocument(BUCKET, "report.pdf", "etag-1", PDDocument::getNumberOfPages);
+        pdfDocumentCache.withDocument(BUCKET, "report.pdf", "etag-2", PDDocument::getNumberOfPages);
+
+        // Then
+        verify(minioClient, times(2)).getObject(any(GetObjectArgs.class));
+        assertEquals(2, pdfDocumentCache.size());
+    }
+
+    @Test
+    void withDocument_CacheFull_ClosesLeastRecentlyUsed() throws Exception {
+        // Given
+        pdfDocumentCache.withDocument(BUCKET, "a.pdf", "etag", PDDocument::getNumberOfPages);
+        pdfDocumentCache.withDocument(BUCKET, "b.pdf", "etag", PDDocument::getNumberOfPages);
+        pdfDocumentCache.withDocument(BUCKET, "a.pdf", "etag", PDDocument::getNumberOfPages);
+
+        // When
+        pdfDocumentCache.withDocument(BUCKET, "c.pdf", "etag", PDDocument::getNumberOfPages);
+
+        // Then : b.pdf évincé, a.pdf toujours en cache
+        assertEquals(2, pdfDocumentCache.size());
+        assertEquals(32, pdfDocumentLoader.availableMemoryMegabytes());
+        pdfDocumentCache.withDocument(BUCKET, "a.pdf", "etag", PDDocument::getNumberOfPages);
+        verify(minioClient, times(3)).getObject(any(GetObjectArgs.class));
+    }
+
+    @Test
+    void evictIdle_ClosesDocumentsAndDeletesTempFiles() throws Exception {
+        // Given
+        minioProperties.getPdf().setDocumentCacheIdle(Duration.ZERO);
+        pdfDocumentCache.withDocument(BUCKET, "report.pdf", "etag-1", PDDocument::getNumberOfPages);
+
+        // When
+        pdfDocumentCache.evictIdle();
+
+        // Then
+        assertEquals(0, pdfDocumentCache.size());
+        assertEquals(64, pdfDocumentLoader.availableMemoryMegabytes());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void withDocument_WorkFails_DiscardsDocument() throws Exception {
+        // When
+        assertThrows(IOException.class, () -> pdfDocumentCache.withDocument(BUCKET, "report.pdf", "etag-1", document -> {
+            throw new IOException("render failed");
+        }));
+
+        // Then
+        assertEquals(0, pdfDocumentCache.size());
+        assertEquals(64, pdfDocumentLoader.availableMemoryMegabytes());
+    }
+
+    private byte[] pdf(int pageCount) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pageCount; i++) {
+                document.addPage(new PDPage());
+            }
+            document.save(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+}
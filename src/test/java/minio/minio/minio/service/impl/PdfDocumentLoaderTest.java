@@ -0,0 +1,88 @@
+package minio.minio.minio.service.impl;
+
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfDocumentLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private PdfDocumentLoader pdfDocumentLoader;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getPdf().setTempDirectory(tempDir.toString());
+        minioProperties.getPdf().setMemoryBudget(DataSize.ofMegabytes(32));
+        minioProperties.getPdf().setMaxMainMemoryPerDocument(DataSize.ofMegabytes(16));
+        minioProperties.getPdf().setAcquireTimeout(Duration.ofMillis(50));
+        pdfDocumentLoader = new PdfDocumentLoader(minioProperties);
+    }
+
+    @Test
+    void load_DeletesTempFileAndReleasesBudget() throws Exception {
+        // When
+        int pages = pdfDocumentLoader.load(new ByteArrayInputStream(pdf(3)), document -> {
+            assertEquals(16, pdfDocumentLoader.availableMemoryMegabytes());
+            try (var files = Files.list(tempDir)) {
+                assertEquals(1, files.count());
+            }
+            return document.getNumberOfPages();
+        });
+
+        // Then
+        assertEquals(3, pages);
+        assertEquals(32, pdfDocumentLoader.availableMemoryMegabytes());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void load_BudgetExhausted_ThrowsAfterTimeout() throws Exception {
+        byte[] content = pdf(1);
+
+        // Deux documents occupent tout le budget, le troisième attend puis échoue
+        pdfDocumentLoader.load(new ByteArrayInputStream(content), first ->
+                pdfDocumentLoader.load(new ByteArrayInputStream(content), second -> {
+                    assertThrows(ProcessingUnavailableException.class, () ->
+                            pdfDocumentLoader.load(new ByteArrayInputStream(content), third -> null));
+                    return null;
+                }));
+
+        assertEquals(32, pdfDocumentLoader.availableMemoryMegabytes());
+    }
+
+    @Test
+    void load_InvalidPdf_ReleasesBudget() {
+        assertThrows(Exception.class, () ->
+                pdfDocumentLoader.load(new ByteArrayInputStream("not a pdf".getBytes()), PDDocument::getNumberOfPages));
+
+        assertEquals(32, pdfDocumentLoader.availableMemoryMegabytes());
+    }
+
+    private byte[] pdf(int pageCount) throws Exception {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            for (int i = 0; i < pageCount; i++) {
+                document.addPage(new PDPage());
+            }
+            document.save(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+}
@@ -1,18 +1,41 @@
 package minio.minio.minio.service.impl;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import minio.minio.minio.config.MinioProperties;
 import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.exception.InvalidPdfException;
 import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.encryption.AccessPermission;
+import org.apache.pdfbox.pdmodel.encryption.StandardProtectionPolicy;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,7 +46,7 @@ class PdfProcessingServiceImplTest {
     @Mock
     private MultipartFile multipartFile;
 
-    @InjectMocks
+    private MinioProperties minioProperties;
     private PdfProcessingServiceImpl pdfProcessingService;
 
     private byte[] validPdfContent;
@@ -31,6 +54,11 @@ class PdfProcessingServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        minioProperties = new MinioProperties();
+        pdfProcessingService = new PdfProcessingServiceImpl(new PdfDocumentLoader(minioProperties), minioProperties,
+                new ProcessingExecutor(minioProperties, new SimpleMeterRegistry()));
+        pdfProcessingService.start();
+
         // Minimal valid PDF content (PDF header)
         validPdfContent = "%PDF-1.4\n1 0 obj\n<<\n/Type /Catalog\n/Pages 2 0 R\n>>\nendobj\n2 0 obj\n<<\n/Type /Pages\n/Kids [3 0 R]\n/Count 1\n>>\nendobj\n3 0 obj\n<<\n/Type /Page\n/Parent 2 0 R\n/MediaBox [0 0 612 792]\n>>\nendobj\nxref\n0 4\n0000000000 65535 f \n0000000010 00000 n \n0000000079 00000 n \n0000000173 00000 n \ntrailer\n<<\n/Size 4\n/Root 1 0 R\n>>\nstartxref\n253\n%%EOF".getBytes();
         
@@ -38,6 +66,11 @@ class PdfProcessingServiceImplTest {
         invalidPdfContent = "This is not a PDF file".getBytes();
     }
 
+    @AfterEach
+    void tearDown() {
+        pdfProcessingService.shutdown();
+    }
+
     @Test
     void extractPdfMetadata_FromMultipartFile_Success() throws IOException {
         // Given
@@ -131,6 +164,189 @@ class PdfProcessingServiceImplTest {
             pdfProcessingService.extractTextFromPdf(inputStream));
     }
 
+    @Test
+    void writeTextFromPdf_PageRange_WritesOnlyRequestedPages() throws IOException {
+        // Given
+        byte[] pdf = textPdf("first page", "second page", "third page", "fourth page");
+        StringWriter writer = new StringWriter();
+
+        // When
+        int pages = pdfProcessingService.writeTextFromPdf(new ByteArrayInputStream(pdf), 2, 3, writer);
+
+        // Then
+        assertEquals(2, pages);
+        String text = writer.toString();
+        assertFalse(text.contains("first"));
+        assertTrue(text.indexOf("second page") < text.indexOf("third page"));
+        assertFalse(text.contains("fourth"));
+    }
+
+    @Test
+    void extractTextFromPdf_EndPageBeyondDocument_StopsAtLastPage() throws IOException {
+        // Given
+        byte[] pdf = textPdf("first page", "second page");
+
+        // When
+        String text = pdfProcessingService.extractTextFromPdf(new ByteArrayInputStream(pdf), 2, 50);
+
+        // Then
+        assertEquals("second page", text.strip());
+    }
+
+    @Test
+    void extractTextFromPdf_LargeDocument_ReassemblesParallelRangesInOrder() throws IOException {
+        // Given
+        minioProperties.getPdf().setParallelTextThreshold(2);
+        minioProperties.getPdf().setPagesPerTextTask(2);
+        String[] pageTexts = new String[9];
+        for (int i = 0; i < pageTexts.length; i++) {
+            pageTexts[i] = "page number " + (i + 1);
+        }
+        byte[] pdf = textPdf(pageTexts);
+
+        // When
+        String text = pdfProcessingService.extractTextFromPdf(new ByteArrayInputStream(pdf));
+
+        // Then
+        int previous = -1;
+        for (String pageText : pageTexts) {
+            int index = text.indexOf(pageText + System.lineSeparator());
+            assertTrue(index > previous, pageText + " out of order in: " + text);
+            previous = index;
+        }
+        assertEquals(pdfProcessingService.extractTextFromPdf(new ByteArrayInputStream(pdf), 1, 9), text);
+    }
+
+    @Test
+    void extractTextFromPdf_Timeout_WaitsForRangeTasksBeforeCleanup(@TempDir Path tempDir) throws Exception {
+        // Given
+        minioProperties.getPdf().setTempDirectory(tempDir.toString());
+        minioProperties.getPdf().setParallelTextThreshold(2);
+        minioProperties.getPdf().setPagesPerTextTask(1);
+        minioProperties.getPdf().setTextTimeout(Duration.ofMillis(50));
+        PdfDocumentLoader loader = new PdfDocumentLoader(minioProperties);
+        int budget = loader.availableMemoryMegabytes();
+        PdfProcessingServiceImpl service = new PdfProcessingServiceImpl(loader, minioProperties,
+                new ProcessingExecutor(minioProperties, new SimpleMeterRegistry()));
+        service.start();
+        String[] pageTexts = new String[300];
+        Arrays.fill(pageTexts, "some text to strip");
+        byte[] pdf = textPdf(pageTexts);
+
+        try {
+            // When
+            assertThrows(ProcessingUnavailableException.class,
+                    () -> service.extractTextFromPdf(new ByteArrayInputStream(pdf)));
+
+            // Then : les tâches abandonnées finissent, rendent leur budget puis le fichier est supprimé
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (loader.availableMemoryMegabytes() < budget || tempDir.toFile().list().length > 0) {
+                assertTrue(System.currentTimeMillis() < deadline, "range tasks still running");
+                Thread.sleep(20);
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void writeTextFromPdf_ClientDisconnected_StopsExtraction() throws IOException {
+        // Given : le client se déconnecte après la première page
+        byte[] pdf = textPdf("first page", "second page", "third page");
+        AtomicInteger flushes = new AtomicInteger();
+        Writer disconnected = new StringWriter() {
+            @Override
+            public void flush() {
+                if (flushes.incrementAndGet() > 1) {
+                    throw new UncheckedIOException(new IOException("Broken pipe"));
+                }
+            }
+        };
+
+        // When & Then
+        assertThrows(UncheckedIOException.class, () -> pdfProcessingService.writeTextFromPdf(
+                new ByteArrayInputStream(pdf), 1, 3, disconnected));
+        assertEquals(2, flushes.get());
+    }
+
+    @Test
+    void writeTextFromPdf_Timeout_CancelsExtraction() throws Exception {
+        // Given
+        minioProperties.getPdf().setTextTimeout(Duration.ofMillis(100));
+        String[] pageTexts = new String[300];
+        Arrays.fill(pageTexts, "some text to strip");
+        byte[] pdf = textPdf(pageTexts);
+        AtomicInteger flushes = new AtomicInteger();
+        Writer slowClient = new StringWriter() {
+            @Override
+            public void flush() {
+                flushes.incrementAndGet();
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        // When
+        assertThrows(ProcessingUnavailableException.class, () -> pdfProcessingService.writeTextFromPdf(
+                new ByteArrayInputStream(pdf), 1, 300, slowClient));
+
+        // Then : la tâche annulée s'arrête à la page suivante
+        Thread.sleep(200);
+        int written = flushes.get();
+        Thread.sleep(200);
+        assertEquals(written, flushes.get());
+        assertTrue(written < 300);
+    }
+
+    @Test
+    void writeTextFromPdf_InvalidRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> pdfProcessingService.writeTextFromPdf(
+                new ByteArrayInputStream(validPdfContent), 3, 2, new StringWriter()));
+    }
+
+    @Test
+    void generatePdfThumbnail_LoadedDocument_RendersRequestedPage() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+            document.addPage(new PDPage(new PDRectangle(400, 200)));
+
+            byte[] png = pdfProcessingService.generatePdfThumbnail(document, 1, 100, 100, true);
+            BufferedImage image = javax.imageio.ImageIO.read(new ByteArrayInputStream(png));
+
+            assertEquals(100, image.getWidth());
+            assertEquals(50, image.getHeight());
+            assertThrows(IllegalArgumentException.class,
+                    () -> pdfProcessingService.generatePdfThumbnail(document, 2, 100, 100, true));
+        }
+    }
+
+    @Test
+    void generatePdfThumbnails_SeveralGroups_ReturnsThumbnailsInRequestedOrder() throws IOException {
+        // Given : largeur de page différente par page pour reconnaître chaque thumbnail
+        minioProperties.getPdf().setThumbnailParallelism(2);
+        byte[] pdf;
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            for (int i = 1; i <= 5; i++) {
+                document.addPage(new PDPage(new PDRectangle(100 * i, 500)));
+            }
+            document.save(outputStream);
+            pdf = outputStream.toByteArray();
+        }
+
+        // When
+        List<byte[]> thumbnails = pdfProcessingService.generatePdfThumbnails(
+                new ByteArrayInputStream(pdf), List.of(4, 0, 2), 100, 100, true);
+
+        // Then
+        assertEquals(3, thumbnails.size());
+        assertEquals(100, javax.imageio.ImageIO.read(new ByteArrayInputStream(thumbnails.get(0))).getWidth());
+        assertEquals(20, javax.imageio.ImageIO.read(new ByteArrayInputStream(thumbnails.get(1))).getWidth());
+        assertEquals(60, javax.imageio.ImageIO.read(new ByteArrayInputStream(thumbnails.get(2))).getWidth());
+    }
+
     @Test
     void getPdfPageCount_Success() {
         // Given
@@ -215,6 +431,64 @@ class PdfProcessingServiceImplTest {
         assertFalse(isValid);
     }
 
+    @Test
+    void validatePdfStructure_ValidPdf_Passes() throws IOException {
+        assertDoesNotThrow(() -> pdfProcessingService.validatePdfStructure(new ByteArrayInputStream(validPdfContent)));
+        assertDoesNotThrow(() -> pdfProcessingService.validatePdfStructure(new ByteArrayInputStream(textPdf("one", "two"))));
+    }
+
+    @Test
+    void validatePdfStructure_NotAPdf_ThrowsInvalidPdf() {
+        InvalidPdfException exception = assertThrows(InvalidPdfException.class,
+                () -> pdfProcessingService.validatePdfStructure(new ByteArrayInputStream(invalidPdfContent)));
+
+        assertTrue(exception.getMessage().contains("header"));
+    }
+
+    @Test
+    void validatePdfStructure_TruncatedPdf_ThrowsInvalidPdf() throws IOException {
+        // Given
+        byte[] pdf = textPdf("one", "two", "three");
+        byte[] truncated = Arrays.copyOf(pdf, pdf.length / 2);
+
+        // When & Then
+        InvalidPdfException exception = assertThrows(InvalidPdfException.class,
+                () -> pdfProcessingService.validatePdfStructure(new ByteArrayInputStream(truncated)));
+        assertTrue(exception.getMessage().contains("truncated"));
+    }
+
+    @Test
+    void validatePdfStructure_NoPages_ThrowsInvalidPdf() throws IOException {
+        // Given
+        byte[] pdf;
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            document.save(outputStream);
+            pdf = outputStream.toByteArray();
+        }
+
+        // When & Then
+        InvalidPdfException exception = assertThrows(InvalidPdfException.class,
+                () -> pdfProcessingService.validatePdfStructure(new ByteArrayInputStream(pdf)));
+        assertTrue(exception.getMessage().contains("no pages"));
+    }
+
+    @Test
+    void validatePdfStructure_PasswordProtected_ThrowsInvalidPdf() throws IOException {
+        // Given
+        byte[] pdf;
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            document.addPage(new PDPage());
+            document.protect(new StandardProtectionPolicy("owner", "secret", new AccessPermission()));
+            document.save(outputStream);
+            pdf = outputStream.toByteArray();
+        }
+
+        // When & Then
+        InvalidPdfException exception = assertThrows(InvalidPdfException.class,
+                () -> pdfProcessingService.validatePdfStructure(new ByteArrayInputStream(pdf)));
+        assertTrue(exception.getMessage().contains("password"));
+    }
+
     @Test
     void extractPdfMetadata_WithComplexPdfStructure() {
         // Given
@@ -245,4 +519,60 @@ class PdfProcessingServiceImplTest {
         assertEquals("application/pdf", metadata.getContentType());
         assertFalse(metadata.getEncrypted());
     }
+
+    @Test
+    void renderThumbnail_KeepAspectRatio_FitsPageInsideBox() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+
+            BufferedImage thumbnail = PdfProcessingServiceImpl.renderThumbnail(document, 0, 200, 200, true);
+
+            assertEquals(141, thumbnail.getWidth());
+            assertEquals(200, thumbnail.getHeight());
+        }
+    }
+
+    @Test
+    void renderThumbnail_Stretch_ReturnsExactSize() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            document.addPage(new PDPage(PDRectangle.A4));
+
+            BufferedImage thumbnail = PdfProcessingServiceImpl.renderThumbnail(document, 0, 200, 100, false);
+
+            assertEquals(200, thumbnail.getWidth());
+            assertEquals(100, thumbnail.getHeight());
+        }
+    }
+
+    @Test
+    void renderThumbnail_RotatedPage_SwapsPageDimensions() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            page.setRotation(90);
+            document.addPage(page);
+
+            BufferedImage thumbnail = PdfProcessingServiceImpl.renderThumbnail(document, 0, 200, 200, true);
+
+            assertEquals(200, thumbnail.getWidth());
+            assertEquals(141, thumbnail.getHeight());
+        }
+    }
+
+    private byte[] textPdf(String... pageTexts) throws IOException {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            for (String text : pageTexts) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                    contentStream.beginText();
+                    contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 12);
+                    contentStream.newLineAtOffset(72, 700);
+                    contentStream.showText(text);
+                    contentStream.endText();
+                }
+            }
+            document.save(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
 }
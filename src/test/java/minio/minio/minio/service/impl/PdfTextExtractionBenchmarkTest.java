@@ -0,0 +1,57 @@
+package minio.minio.minio.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.benchmark.Benchmark;
+import minio.minio.minio.benchmark.Benchmarks;
+import minio.minio.minio.config.MinioProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Text extraction time of a large PDF by number of threads of the extraction pool
+ */
+@Slf4j
+@Benchmark
+class PdfTextExtractionBenchmarkTest {
+
+    private static final int PAGES = Benchmarks.intProperty("pages", 600);
+    private static final int ITERATIONS = Benchmarks.intProperty("iterations", 3);
+
+    @Test
+    void extractText_SpeedUpByCoreCount() throws Exception {
+        byte[] pdf = Benchmarks.textPdf(PAGES);
+        int cores = Runtime.getRuntime().availableProcessors();
+        String reference = null;
+        double sequentialMillis = 0;
+        for (int parallelism = 1; parallelism <= cores; parallelism *= 2) {
+            MinioProperties minioProperties = new MinioProperties();
+            minioProperties.getPdf().setTextParallelism(parallelism);
+            minioProperties.getPdf().setParallelTextThreshold(parallelism == 1 ? Integer.MAX_VALUE : 64);
+            PdfProcessingServiceImpl service = new PdfProcessingServiceImpl(new PdfDocumentLoader(minioProperties), minioProperties,
+                    new ProcessingExecutor(minioProperties, new SimpleMeterRegistry()));
+            service.start();
+            try {
+                // Préchauffage, qui vérifie aussi que le texte ne dépend pas du parallélisme
+                String text = service.extractTextFromPdf(new ByteArrayInputStream(pdf));
+                if (reference == null) {
+                    reference = text;
+                }
+                assertEquals(reference, text);
+
+                double millis = Benchmarks.millisPerRun(0, ITERATIONS,
+                        () -> service.extractTextFromPdf(new ByteArrayInputStream(pdf)));
+                if (parallelism == 1) {
+                    sequentialMillis = millis;
+                }
+                log.info(String.format("%2d threads, %d pages: %8.1f ms/document, speed-up x%.2f",
+                        parallelism, PAGES, millis, sequentialMillis / millis));
+            } finally {
+                service.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package minio.minio.minio.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.benchmark.Benchmark;
+import minio.minio.minio.benchmark.Benchmarks;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency and allocation of a PDF thumbnail, 150 DPI render plus getScaledInstance versus a render
+ * at the target scale
+ */
+@Slf4j
+@Benchmark
+class PdfThumbnailBenchmarkTest {
+
+    private static final int ITERATIONS = Benchmarks.intProperty("iterations", 20);
+    private static final int[] SIZES = {100, 200, 400};
+
+    @Test
+    void thumbnail_FixedDpiVersusTargetScale() throws Exception {
+        try (PDDocument document = Benchmarks.textDocument(1)) {
+            for (int size : SIZES) {
+                measure("150dpi+scaled", size, () -> legacy(document, size));
+                measure("target-scale", size, () -> PdfProcessingServiceImpl.renderThumbnail(document, 0, size, size, false));
+            }
+        }
+    }
+
+    private void measure(String mode, int size, Renderer renderer) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Préchauffage
+        for (int i = 0; i < 3; i++) {
+            renderer.render();
+        }
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            BufferedImage thumbnail = renderer.render();
+            assertEquals(size, thumbnail.getWidth());
+        }
+        long nanos = System.nanoTime() - startedAt;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        log.info(String.format("%-14s %4d px: %6.1f ms/thumbnail, %6.1f MB allocated/thumbnail", mode, size,
+                nanos / 1e6 / ITERATIONS, allocated / 1024.0 / 1024.0 / ITERATIONS));
+    }
+
+    private static BufferedImage legacy(PDDocument document, int size) throws Exception {
+        BufferedImage image = new PDFRenderer(document).renderImageWithDPI(0, 150);
+        BufferedImage resized = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        resized.getGraphics().drawImage(image.getScaledInstance(size, size, Image.SCALE_SMOOTH), 0, 0, null);
+        return resized;
+    }
+
+    @FunctionalInterface
+    private interface Renderer {
+        BufferedImage render() throws Exception;
+    }
+}
@@ -0,0 +1,393 @@
+package minio.minio.minio.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetObjectResponse;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.ErrorResponse;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.dto.ImageRendition;
+import minio.minio.minio.exception.FileNotFoundException;
+import minio.minio.minio.exception.SourceChangedException;
+import minio.minio.minio.service.PdfProcessingService;
+import okhttp3.Headers;
+import org.apache.pdfbox.io.RandomAccessRead;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PdfThumbnailServiceImplTest {
+
+    private static final byte[] PNG = new byte[]{1, 2, 3};
+
+    @Mock
+    private MinioClient minioClient;
+
+    @Mock
+    private PdfProcessingService pdfProcessingService;
+
+    @Mock
+    private PdfDocumentCache pdfDocumentCache;
+
+    @Mock
+    private PDDocument document;
+
+    private MinioProperties minioProperties;
+    private ProcessingExecutor processingExecutor;
+    private PdfThumbnailServiceImpl pdfThumbnailService;
+
+    @BeforeEach
+    void setUp() {
+        minioProperties = new MinioProperties();
+        processingExecutor = new ProcessingExecutor(minioProperties, new SimpleMeterRegistry());
+        pdfThumbnailService = new PdfThumbnailServiceImpl(minioClient, minioProperties, pdfProcessingService, pdfDocumentCache,
+                processingExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processingExecutor.shutdown();
+    }
+
+    @Test
+    void getThumbnail_NotCached_RendersOnceThenServesFromMemory() throws Exception {
+        // Given
+        stubSource("\"source-etag\"");
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenThrow(noSuchKey);
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        stubDocumentCache();
+        when(pdfProcessingService.generatePdfThumbnail(document, 0, 200, 100, false)).thenReturn(PNG);
+
+        // When
+        ImageRendition first = pdfThumbnailService.getThumbnail("report.pdf", 1, 200, 100, false, null);
+        ImageRendition second = pdfThumbnailService.getThumbnail("report.pdf", 1, 200, 100, false, null);
+
+        // Then
+        assertArrayEquals(PNG, first.getInputStream().readAllBytes());
+        assertArrayEquals(PNG, second.getInputStream().readAllBytes());
+        assertEquals("\"source-etag-w200-h100.png\"", first.getEtag());
+        verify(pdfProcessingService, times(1)).generatePdfThumbnail(document, 0, 200, 100, false);
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> renditionBucket.equals(args.bucket())
+                && args.object().endsWith("/report.pdf/source-etag/w200-h100.png")));
+        verify(minioClient, times(1)).getObject(any(GetObjectArgs.class));
+    }
+
+    @Test
+    void getThumbnail_SourceChangedBeforeDownload_RetriesWithNewEtag() throws Exception {
+        // Given : le PDF est remplacé entre le premier stat et son téléchargement
+        StatObjectResponse oldStat = mock(StatObjectResponse.class);
+        when(oldStat.etag()).thenReturn("\"old-etag\"");
+        StatObjectResponse newStat = mock(StatObjectResponse.class);
+        when(newStat.etag()).thenReturn("\"new-etag\"");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(oldStat, newStat);
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenThrow(noSuchKey);
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(pdfDocumentCache.withDocument(anyString(), eq("report.pdf"), eq("old-etag"), any()))
+                .thenThrow(new SourceChangedException("report.pdf"));
+        when(pdfDocumentCache.withDocument(anyString(), eq("report.pdf"), eq("new-etag"), any())).thenAnswer(invocation -> {
+            PdfDocumentLoader.PdfWork<?> work = invocation.getArgument(3);
+            return work.apply(document);
+        });
+        when(pdfProcessingService.generatePdfThumbnail(document, 0, 200, 200, false)).thenReturn(PNG);
+
+        // When
+        ImageRendition thumbnail = pdfThumbnailService.getThumbnail("report.pdf", 1, 200, 200, false, null);
+
+        // Then : rien n'est stocké sous l'ancien ETag
+        assertEquals("\"new-etag-w200-h200.png\"", thumbnail.getEtag());
+        verify(minioClient, times(1)).putObject(any(PutObjectArgs.class));
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> args.object().endsWith("/new-etag/w200-h200.png")));
+    }
+
+    @Test
+    void getThumbnails_DownloadsOnlyTheStatdVersion() throws Exception {
+        // Given
+        stubSource("\"source-etag\"", 5000L);
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && renditionBucket.equals(args.bucket()))))
+                .thenThrow(noSuchKey);
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && !renditionBucket.equals(args.bucket()))))
+                .thenReturn(objectResponse("%PDF".getBytes()));
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenReturn(1);
+        when(pdfProcessingService.generatePdfThumbnails(any(), eq(List.of(0)), eq(200), eq(200), eq(false)))
+                .thenReturn(List.of(PNG));
+
+        // When
+        pdfThumbnailService.getThumbnails("report.pdf", 1, 1, 200, 200, false);
+
+        // Then
+        verify(minioClient).getObject(argThat((GetObjectArgs args) -> args != null
+                && !renditionBucket.equals(args.bucket()) && "source-etag".equals(args.matchETag())));
+    }
+
+    @Test
+    void getThumbnail_OtherPage_RendersPageFromCachedDocument() throws Exception {
+        // Given
+        stubSource("\"source-etag\"");
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenThrow(noSuchKey);
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        stubDocumentCache();
+        when(pdfProcessingService.generatePdfThumbnail(document, 2, 200, 200, false)).thenReturn(PNG);
+
+        // When
+        ImageRendition thumbnail = pdfThumbnailService.getThumbnail("report.pdf", 3, 200, 200, false, null);
+
+        // Then
+        assertEquals("\"source-etag-p3-w200-h200.png\"", thumbnail.getEtag());
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> args.object().endsWith("/source-etag/p3-w200-h200.png")));
+    }
+
+    @Test
+    void getThumbnail_CachedDocumentUsedOnlyByProcessingWorker() throws Exception {
+        // Given
+        stubSource("\"source-etag\"");
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenThrow(noSuchKey);
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        when(pdfDocumentCache.withDocument(anyString(), eq("report.pdf"), eq("source-etag"), any())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            PdfDocumentLoader.PdfWork<?> work = invocation.getArgument(3);
+            return work.apply(document);
+        });
+        when(pdfProcessingService.generatePdfThumbnail(document, 0, 200, 200, false)).thenReturn(PNG);
+
+        // When
+        pdfThumbnailService.getThumbnail("report.pdf", 1, 200, 200, false, null);
+
+        // Then : le document est emprunté, rendu et rendu au cache par le même worker
+        assertEquals(1, threads.size());
+        assertTrue(threads.get(0).startsWith("processing-worker-"));
+    }
+
+    @Test
+    void getThumbnails_RendersMissingPagesFromOneDownloadThenServesFromMemory() throws Exception {
+        // Given
+        stubSource("\"source-etag\"", 5000L);
+        String renditionBucket = minioProperties.getRendition().getBucket();
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && renditionBucket.equals(args.bucket()))))
+                .thenThrow(noSuchKey);
+        when(minioClient.getObject(argThat((GetObjectArgs args) -> args != null && !renditionBucket.equals(args.bucket()))))
+                .thenReturn(objectResponse("%PDF".getBytes()));
+        when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenReturn(3);
+        when(pdfProcessingService.generatePdfThumbnails(any(), eq(List.of(1, 2)), eq(200), eq(200), eq(false)))
+                .thenReturn(List.of(new byte[]{2}, new byte[]{3}));
+
+        // When
+        Map<Integer, byte[]> thumbnails = pdfThumbnailService.getThumbnails("report.pdf", 2, 10, 200, 200, false);
+        Map<Integer, byte[]> again = pdfThumbnailService.getThumbnails("report.pdf", 2, 10, 200, 200, false);
+
+        // Then
+        assertEquals(List.of(2, 3), List.copyOf(thumbnails.keySet()));
+        assertArrayEquals(new byte[]{3}, thumbnails.get(3));
+        assertArrayEquals(new byte[]{3}, again.get(3));
+        verify(pdfProcessingService, times(1)).generatePdfThumbnails(any(), any(), anyInt(), anyInt(), anyBoolean());
+        verify(minioClient).putObject(argThat((PutObjectArgs args) -> args.object().endsWith("/source-etag/p3-w200-h200.png")));
+        verify(minioClient, times(2)).putObject(any(PutObjectArgs.class));
+    }
+
+    @Test
+    void getContactSheet_PlacesThumbnailsInGrid() throws Exception {
+        // Given
+        stubSource("\"source-etag\"", 5000L);
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            if (args.bucket().equals(minioProperties.getRendition().getBucket())) {
+                throw noSuchKey;
+            }
+            return objectResponse("%PDF".getBytes());
+        });
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenReturn(3);
+        when(pdfProcessingService.generatePdfThumbnails(any(), eq(List.of(0, 1, 2)), eq(100), eq(100), eq(true)))
+                .thenReturn(List.of(png(100, 50), png(50, 100), png(100, 100)));
+
+        // When
+        byte[] sheet = pdfThumbnailService.getContactSheet("report.pdf", 1, Integer.MAX_VALUE, 100, 100, 2);
+
+        // Then
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(sheet));
+        assertEquals(200, image.getWidth());
+        assertEquals(200, image.getHeight());
+    }
+
+    @Test
+    void getContactSheet_OverPixelLimit_ThrowsExceptionBeforeComposing() throws Exception {
+        // Given : 3 cellules de 100x100 sur 2 colonnes, soit 40 000 pixels
+        minioProperties.getPdf().setMaxContactSheetPixels(30_000);
+        stubSource("\"source-etag\"", 5000L);
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenAnswer(invocation -> {
+            GetObjectArgs args = invocation.getArgument(0);
+            if (args.bucket().equals(minioProperties.getRendition().getBucket())) {
+                throw noSuchKey;
+            }
+            return objectResponse("%PDF".getBytes());
+        });
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenReturn(3);
+        when(pdfProcessingService.generatePdfThumbnails(any(), eq(List.of(0, 1, 2)), eq(100), eq(100), eq(true)))
+                .thenReturn(List.of(PNG, PNG, PNG));
+
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> pdfThumbnailService.getContactSheet("report.pdf", 1, Integer.MAX_VALUE, 100, 100, 2));
+
+        // Then
+        assertTrue(e.getMessage().contains("40000 pixels"));
+    }
+
+    @Test
+    void getThumbnails_InvalidRange_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> pdfThumbnailService.getThumbnails("report.pdf", 3, 2, 200, 200, false));
+    }
+
+    @Test
+    void getThumbnails_RangeOverLimit_ThrowsExceptionWithPageCount() throws Exception {
+        // Given
+        minioProperties.getPdf().setMaxThumbnailPages(3);
+        stubSource("\"source-etag\"", 5000L);
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenReturn(10);
+
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> pdfThumbnailService.getThumbnails("report.pdf", 2, Integer.MAX_VALUE, 200, 200, false));
+
+        // Then
+        assertTrue(e.getMessage().contains("the document has 10 pages"));
+        verify(pdfProcessingService, never()).generatePdfThumbnails(any(), any(), anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void getThumbnails_StartPastEnd_ReportsRealPageCount() throws Exception {
+        // Given
+        stubSource("\"source-etag\"", 5000L);
+        when(pdfProcessingService.getPdfPageCount(any(RandomAccessRead.class))).thenReturn(3);
+
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> pdfThumbnailService.getThumbnails("report.pdf", 5, 8, 200, 200, false));
+
+        // Then
+        assertEquals("Page 5 does not exist, the document has 3 pages", e.getMessage());
+    }
+
+    @Test
+    void getThumbnail_StoredInBucket_NeverRenders() throws Exception {
+        // Given
+        stubSource("\"source-etag\"");
+        when(minioClient.getObject(any(GetObjectArgs.class))).thenReturn(objectResponse(PNG));
+
+        // When
+        ImageRendition thumbnail = pdfThumbnailService.getThumbnail("report.pdf", 1, 200, 200, false, null);
+
+        // Then
+        assertArrayEquals(PNG, thumbnail.getInputStream().readAllBytes());
+        verifyNoInteractions(pdfProcessingService);
+    }
+
+    @Test
+    void getThumbnail_MatchingEtag_ReturnsNotModified() throws Exception {
+        // Given
+        stubSource("\"source-etag\"");
+
+        // When
+        ImageRendition thumbnail = pdfThumbnailService.getThumbnail("report.pdf", 1, 200, 200, false, "\"source-etag-w200-h200.png\"");
+
+        // Then
+        assertTrue(thumbnail.isNotModified());
+        verify(minioClient, never()).getObject(any(GetObjectArgs.class));
+    }
+
+    @Test
+    void getThumbnail_MissingPdf_ThrowsFileNotFound() throws Exception {
+        // Given
+        ErrorResponseException noSuchKey = errorResponse("NoSuchKey");
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenThrow(noSuchKey);
+
+        // When & Then
+        assertThrows(FileNotFoundException.class, () -> pdfThumbnailService.getThumbnail("missing.pdf", 1, 200, 200, false, null));
+    }
+
+    @Test
+    void getThumbnail_InvalidSize_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> pdfThumbnailService.getThumbnail("report.pdf", 1, 0, 200, false, null));
+    }
+
+    @Test
+    void getThumbnail_InvalidPage_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> pdfThumbnailService.getThumbnail("report.pdf", 0, 200, 200, false, null));
+    }
+
+    private void stubDocumentCache() throws Exception {
+        when(pdfDocumentCache.withDocument(anyString(), eq("report.pdf"), eq("source-etag"), any())).thenAnswer(invocation -> {
+            PdfDocumentLoader.PdfWork<?> work = invocation.getArgument(3);
+            return work.apply(document);
+        });
+    }
+
+    private void stubSource(String etag, long size) throws Exception {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.etag()).thenReturn(etag);
+        when(stat.size()).thenReturn(size);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+    }
+
+    private byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "PNG", outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private void stubSource(String etag) throws Exception {
+        StatObjectResponse stat = mock(StatObjectResponse.class);
+        when(stat.etag()).thenReturn(etag);
+        when(minioClient.statObject(any(StatObjectArgs.class))).thenReturn(stat);
+    }
+
+    private ErrorResponseException errorResponse(String code) {
+        ErrorResponseException exception = mock(ErrorResponseException.class);
+        ErrorResponse errorResponse = mock(ErrorResponse.class);
+        when(errorResponse.code()).thenReturn(code);
+        when(exception.errorResponse()).thenReturn(errorResponse);
+        return exception;
+    }
+
+    private GetObjectResponse objectResponse(byte[] content) {
+        return new GetObjectResponse(Headers.of(), "bucket", "", "object", new ByteArrayInputStream(content));
+    }
+}
@@ -0,0 +1,45 @@
+package minio.minio.minio.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import minio.minio.minio.benchmark.Benchmark;
+import minio.minio.minio.benchmark.Benchmarks;
+import minio.minio.minio.config.MinioProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Time of the structural PDF check run at upload against the render-based integrity check
+ */
+@Slf4j
+@Benchmark
+class PdfValidationBenchmarkTest {
+
+    private static final int PAGES = Benchmarks.intProperty("pages", 200);
+    private static final int ITERATIONS = Benchmarks.intProperty("iterations", 20);
+
+    @Test
+    void validatePdfStructure_FasterThanRendering() throws Exception {
+        byte[] pdf = Benchmarks.textPdf(PAGES);
+        MinioProperties minioProperties = new MinioProperties();
+        PdfProcessingServiceImpl service = new PdfProcessingServiceImpl(new PdfDocumentLoader(minioProperties), minioProperties,
+                new ProcessingExecutor(minioProperties, new SimpleMeterRegistry()));
+        service.start();
+        try {
+            assertTrue(service.validatePdfIntegrity(new ByteArrayInputStream(pdf)));
+
+            double structureMillis = Benchmarks.millisPerRun(3, ITERATIONS,
+                    () -> service.validatePdfStructure(new ByteArrayInputStream(pdf)));
+            double renderMillis = Benchmarks.millisPerRun(3, ITERATIONS,
+                    () -> service.validatePdfIntegrity(new ByteArrayInputStream(pdf)));
+
+            log.info(String.format("%d pages, %d KB: structure %8.1f ms/document, render %8.1f ms/document, x%.1f",
+                    PAGES, pdf.length / 1024, structureMillis, renderMillis, renderMillis / structureMillis));
+        } finally {
+            service.shutdown();
+        }
+    }
+}
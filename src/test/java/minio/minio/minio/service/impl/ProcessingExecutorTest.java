@@ -0,0 +1,107 @@
+package minio.minio.minio.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import minio.minio.minio.config.MinioProperties;
+import minio.minio.minio.exception.MinioException;
+import minio.minio.minio.exception.ProcessingUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessingExecutor processingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.getProcessing().setWorkers(1);
+        minioProperties.getProcessing().setQueueCapacity(1);
+        minioProperties.getProcessing().setTimeout(Duration.ofMillis(500));
+        meterRegistry = new SimpleMeterRegistry();
+        processingExecutor = new ProcessingExecutor(minioProperties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processingExecutor.shutdown();
+    }
+
+    @Test
+    void run_ReturnsResultAndRecordsTimers() {
+        // When
+        String result = processingExecutor.run("test", () -> "done");
+
+        // Then
+        assertEquals("done", result);
+        assertEquals(1, meterRegistry.get("minio.processing.queue.wait").tag("operation", "test").timer().count());
+        assertEquals(1, meterRegistry.get("minio.processing.run").tag("operation", "test").timer().count());
+    }
+
+    @Test
+    void run_QueueFull_ThrowsProcessingUnavailable() throws Exception {
+        // Given : un job occupe le worker, un autre remplit la file
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture<Object> busy = CompletableFuture.supplyAsync(() -> processingExecutor.run("test", () -> {
+            running.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> processingExecutor.run("test", () -> true));
+        while (meterRegistry.get("minio.processing.queue.size").gauge().value() < 1) {
+            Thread.sleep(5);
+        }
+
+        // When & Then
+        assertThrows(ProcessingUnavailableException.class, () -> processingExecutor.run("test", () -> true));
+        assertEquals(1.0, meterRegistry.get("minio.processing.rejected").counter().count());
+        release.countDown();
+        assertEquals(true, busy.get(5, TimeUnit.SECONDS));
+        assertEquals(true, queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void run_Timeout_CancelsJob() throws Exception {
+        // Given
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        // When & Then
+        assertThrows(ProcessingUnavailableException.class, () -> processingExecutor.run("test", () -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        }));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void run_CheckedException_WrappedInMinioException() {
+        MinioException exception = assertThrows(MinioException.class,
+                () -> processingExecutor.run("test", () -> {
+                    throw new IOException("broken");
+                }));
+
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+
+    @Test
+    void run_RuntimeException_Propagated() {
+        assertThrows(IllegalArgumentException.class,
+                () -> processingExecutor.run("test", () -> {
+                    throw new IllegalArgumentException("bad");
+                }));
+    }
+}
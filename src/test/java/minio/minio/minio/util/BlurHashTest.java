@@ -0,0 +1,49 @@
+package minio.minio.minio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlurHashTest {
+
+    @Test
+    void encode_UniformImage_EncodesSizeFlagAndColor() {
+        String hash = BlurHash.encode(image(Color.WHITE, Color.WHITE), 4, 3);
+
+        // 1 (taille) + 1 (maximum) + 4 (DC) + 2 par composante AC
+        assertEquals(28, hash.length());
+        assertEquals("L", hash.substring(0, 1));
+        assertEquals("TSUA", hash.substring(2, 6));
+    }
+
+    @Test
+    void encode_SingleComponent_EncodesAverageColorOnly() {
+        assertEquals(6, BlurHash.encode(image(Color.BLACK, Color.BLACK), 1, 1).length());
+    }
+
+    @Test
+    void encode_InvalidComponents_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> BlurHash.encode(image(Color.BLACK, Color.BLACK), 10, 3));
+    }
+
+    @Test
+    void averageColor_IsComputedInLinearLight() {
+        // La moyenne linéaire du noir et du blanc est plus claire que le gris sRGB #808080
+        assertEquals("#bcbcbc", BlurHash.averageColor(image(Color.BLACK, Color.WHITE)));
+    }
+
+    private BufferedImage image(Color left, Color right) {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(left);
+        graphics.fillRect(0, 0, 8, 16);
+        graphics.setColor(right);
+        graphics.fillRect(8, 0, 8, 16);
+        graphics.dispose();
+        return image;
+    }
+}
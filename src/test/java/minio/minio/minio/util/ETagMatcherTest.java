@@ -0,0 +1,38 @@
+package minio.minio.minio.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagMatcherTest {
+
+    private static final String ETAG = "\"abc-w200.png\"";
+
+    @Test
+    void matchesIfNoneMatch_SameTag_Matches() {
+        assertTrue(ETagMatcher.matchesIfNoneMatch("\"abc-w200.png\"", ETAG));
+        assertFalse(ETagMatcher.matchesIfNoneMatch("\"abc-w300.png\"", ETAG));
+    }
+
+    @Test
+    void matchesIfNoneMatch_TagList_MatchesAnyMember() {
+        assertTrue(ETagMatcher.matchesIfNoneMatch("\"other\", \"abc-w200.png\"", ETAG));
+        assertFalse(ETagMatcher.matchesIfNoneMatch("\"other\",\"another\"", ETAG));
+    }
+
+    @Test
+    void matchesIfNoneMatch_WeakTag_MatchesWithWeakComparison() {
+        assertTrue(ETagMatcher.matchesIfNoneMatch("W/\"abc-w200.png\"", ETAG));
+    }
+
+    @Test
+    void matchesIfNoneMatch_Wildcard_MatchesAnyTag() {
+        assertTrue(ETagMatcher.matchesIfNoneMatch("*", ETAG));
+    }
+
+    @Test
+    void matchesIfNoneMatch_MissingHeader_DoesNotMatch() {
+        assertFalse(ETagMatcher.matchesIfNoneMatch(null, ETAG));
+        assertFalse(ETagMatcher.matchesIfNoneMatch(" ", ETAG));
+    }
+}
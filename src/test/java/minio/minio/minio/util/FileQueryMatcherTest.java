@@ -0,0 +1,111 @@
+package minio.minio.minio.util;
+
+import minio.minio.minio.dto.FileMetadata;
+import minio.minio.minio.dto.FileQuery;
+import minio.minio.minio.enums.FileSortField;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileQueryMatcherTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void test_EmptyQuery_MatchesEverything() {
+        assertTrue(FileQueryMatcher.of(new FileQuery()).test(file("a.pdf", 1L, "application/pdf", now)));
+    }
+
+    @Test
+    void test_SizeRange_IsInclusive() {
+        FileQueryMatcher matcher = FileQueryMatcher.of(FileQuery.builder().minSize(10L).maxSize(20L).build());
+
+        assertTrue(matcher.test(file("a.pdf", 10L, "application/pdf", now)));
+        assertTrue(matcher.test(file("a.pdf", 20L, "application/pdf", now)));
+        assertFalse(matcher.test(file("a.pdf", 9L, "application/pdf", now)));
+        assertFalse(matcher.test(file("a.pdf", 21L, "application/pdf", now)));
+    }
+
+    @Test
+    void test_DateRange_FiltersByLastModified() {
+        FileQueryMatcher matcher = FileQueryMatcher.of(FileQuery.builder()
+                .modifiedAfter(now.minusDays(7))
+                .modifiedBefore(now.minusDays(1))
+                .build());
+
+        assertTrue(matcher.test(file("a.pdf", 1L, "application/pdf", now.minusDays(3))));
+        assertFalse(matcher.test(file("a.pdf", 1L, "application/pdf", now.minusDays(8))));
+        assertFalse(matcher.test(file("a.pdf", 1L, "application/pdf", now)));
+    }
+
+    @Test
+    void test_WildcardContentType_MatchesSubtypes() {
+        FileQueryMatcher matcher = FileQueryMatcher.of(FileQuery.builder().contentType("image/*").build());
+
+        assertTrue(matcher.test(file("a.png", 1L, "image/png", now)));
+        assertFalse(matcher.test(file("a.pdf", 1L, "application/pdf", now)));
+        assertFalse(matcher.test(file("a.bin", 1L, null, now)));
+    }
+
+    @Test
+    void test_Glob_QuotesRegexCharacters() {
+        FileQueryMatcher matcher = FileQueryMatcher.of(FileQuery.builder().glob("report-(?).pdf").build());
+
+        assertTrue(matcher.test(file("report-(1).pdf", 1L, "application/pdf", now)));
+        assertFalse(matcher.test(file("report-1.pdf", 1L, "application/pdf", now)));
+    }
+
+    @Test
+    void test_ExpiredFile_IsExcluded() {
+        FileMetadata expired = file("a.tmp", 1L, null, now);
+        expired.setExpiresAt(now.minusSeconds(1));
+
+        assertFalse(FileQueryMatcher.of(new FileQuery()).test(expired));
+    }
+
+    @Test
+    void comparator_SortBySizeDescending_BreaksTiesByName() {
+        FileQueryMatcher matcher = FileQueryMatcher.of(FileQuery.builder()
+                .sort(FileSortField.SIZE)
+                .descending(true)
+                .build());
+
+        List<String> names = List.of(
+                        file("b.pdf", 5L, null, now),
+                        file("a.pdf", 5L, null, now),
+                        file("c.pdf", 9L, null, now))
+                .stream()
+                .sorted(matcher.comparator())
+                .map(FileMetadata::getFileName)
+                .toList();
+
+        assertEquals(List.of("c.pdf", "b.pdf", "a.pdf"), names);
+    }
+
+    @Test
+    void merge_InterleavesSortedListsUpToLimit() {
+        FileQueryMatcher matcher = FileQueryMatcher.of(FileQuery.builder().limit(4).build());
+
+        List<String> names = matcher.merge(List.of(
+                        List.of(file("a.mp3", 1L, null, now), file("d.mp3", 1L, null, now), file("f.mp3", 1L, null, now)),
+                        List.of(),
+                        List.of(file("b.jpg", 1L, null, now), file("c.jpg", 1L, null, now), file("e.jpg", 1L, null, now))))
+                .stream()
+                .map(FileMetadata::getFileName)
+                .toList();
+
+        assertEquals(List.of("a.mp3", "b.jpg", "c.jpg", "d.mp3"), names);
+    }
+
+    private FileMetadata file(String name, long size, String contentType, LocalDateTime lastModified) {
+        return FileMetadata.builder()
+                .fileName(name)
+                .fileSize(size)
+                .contentType(contentType)
+                .lastModified(lastModified)
+                .build();
+    }
+}